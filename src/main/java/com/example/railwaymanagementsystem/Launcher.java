@@ -3,6 +3,9 @@
     import javafx.application.Application;
 
     public class Launcher {
+        private Launcher() {
+        }
+
         public static void main(String[] args) {
             Application.launch(RailSafarApp.class, args);
         }
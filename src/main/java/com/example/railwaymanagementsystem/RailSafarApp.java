@@ -15,6 +15,10 @@ public class RailSafarApp extends Application {
     private static Stage primaryStage;
     final static int WIDTH = 900;
     final static int HEIGHT = 650;
+
+    public RailSafarApp() {
+    }
+
     @Override
     public void start(Stage stage) {
         primaryStage = stage;
@@ -0,0 +1,28 @@
+package com.example.railwaymanagementsystem;
+
+import com.example.railwaymanagementsystem.services.DatabaseService;
+import com.example.railwaymanagementsystem.services.PaymentReconciliation;
+import com.example.railwaymanagementsystem.services.ReconciliationReport;
+
+import java.nio.file.Path;
+
+/**
+ * Batch entry point for payment reconciliation, run without the UI:
+ * {@code ReconcilePayments <settlement.csv> <exceptions.csv>}. Exits with 1
+ * if any exceptions were reported.
+ */
+public class ReconcilePayments {
+    private ReconcilePayments() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: ReconcilePayments <settlement.csv> <exceptions.csv>");
+            System.exit(2);
+        }
+        ReconciliationReport report = new PaymentReconciliation(new DatabaseService())
+                .run(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(report);
+        System.exit(report.issueCount() == 0 ? 0 : 1);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.railwaymanagementsystem.controllers;
 import com.example.railwaymanagementsystem.models.Booking;
 import com.example.railwaymanagementsystem.models.Schedule;
 import com.example.railwaymanagementsystem.models.Train;
+import com.example.railwaymanagementsystem.models.User;
 import com.example.railwaymanagementsystem.services.AppSession;
 import com.example.railwaymanagementsystem.services.BackendService;
 import javafx.fxml.FXML;
@@ -11,7 +12,10 @@ import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Controller for Book Ticket Screen
@@ -27,6 +31,11 @@ public class BookTicketController {
 
     private final BackendService backend = BackendService.getInstance();
     private final AppSession session = AppSession.getInstance();
+    // One idempotency key per train card until it books, so a double-click books once
+    private final Map<String, String> bookingKeys = new HashMap<>();
+
+    public BookTicketController() {
+    }
 
     @FXML
     private void initialize() {
@@ -70,6 +79,7 @@ public class BookTicketController {
     private void displaySearchResults(String from, String to, LocalDate date) {
         trainsList.getChildren().clear();
         resultsContainer.setVisible(true);
+        bookingKeys.clear();
 
         List<Train> trains = backend.searchTrains(from, to);
         if (trains.isEmpty()) {
@@ -79,12 +89,12 @@ public class BookTicketController {
 
         for (Train train : trains) {
             Schedule schedule = backend.getScheduleForTrain(train.getTrainNumber()).orElse(null);
-            VBox trainCard = createTrainCard(train, schedule, from, to);
+            VBox trainCard = createTrainCard(train, schedule, from, to, date);
             trainsList.getChildren().add(trainCard);
         }
     }
 
-    private VBox createTrainCard(Train train, Schedule schedule, String from, String to) {
+    private VBox createTrainCard(Train train, Schedule schedule, String from, String to, LocalDate date) {
         VBox card = new VBox(10);
         card.setStyle("-fx-background-color: white; -fx-padding: 15px; " +
                 "-fx-border-color: #e5e7eb; -fx-border-width: 1px; " +
@@ -136,7 +146,8 @@ public class BookTicketController {
         HBox footer = new HBox(15);
         footer.setAlignment(Pos.CENTER_LEFT);
 
-        Label price = new Label("PKR " + String.format("%,d", getBaseFare(train)));
+        int fare = backend.quoteFare(train, from, to, train.getType(), date);
+        Label price = new Label("PKR " + String.format("%,d", fare));
         price.setStyle("-fx-font-weight: bold; -fx-font-size: 16px; -fx-text-fill: #1e6b47;");
 
         Label perPerson = new Label("per person");
@@ -149,7 +160,7 @@ public class BookTicketController {
         bookButton.setStyle("-fx-background-color: #1e6b47; -fx-text-fill: white; " +
                 "-fx-padding: 8px 20px; -fx-background-radius: 6px; " +
                 "-fx-cursor: hand;");
-        bookButton.setOnAction(e -> handleBookTrain(train, schedule));
+        bookButton.setOnAction(e -> handleBookTrain(train, schedule, fare));
 
         footer.getChildren().addAll(price, perPerson, footerSpacer, bookButton);
 
@@ -157,10 +168,9 @@ public class BookTicketController {
         return card;
     }
 
-    private void handleBookTrain(Train train, Schedule schedule) {
+    private void handleBookTrain(Train train, Schedule schedule, int fare) {
         int passengers = passengersSpinner.getValue();
-        int baseFare = getBaseFare(train);
-        int totalAmount = baseFare * passengers;
+        int totalAmount = fare * passengers;
 
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Confirm Booking");
@@ -177,17 +187,31 @@ public class BookTicketController {
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 session.getCurrentUser().ifPresentOrElse(user -> {
-                    Booking booking = backend.bookTicket(user, train, fromStationCombo.getValue(),
+                    String bookingKey = bookingKeys.computeIfAbsent(train.getId(), id -> UUID.randomUUID().toString());
+                    Booking booking = backend.bookTicket(bookingKey, user, train, fromStationCombo.getValue(),
                             toStationCombo.getValue(), journeyDatePicker.getValue(), passengers,
                             train.getType(), totalAmount);
-                    
+                    if (booking == null) {
+                        int available = backend.getAvailableSeats(train, journeyDatePicker.getValue(), train.getType(),
+                                fromStationCombo.getValue(), toStationCombo.getValue());
+                        if (available < passengers) {
+                            offerWaitlist(user, train, passengers, totalAmount, available);
+                        } else {
+                            showError("Could not complete the booking. Please try again.");
+                        }
+                        return;
+                    }
+
+                    bookingKeys.remove(train.getId());
+
                     Alert success = new Alert(Alert.AlertType.INFORMATION);
                     success.setTitle("Booking Successful");
                     success.setHeaderText("Ticket booked successfully!");
                     success.setContentText(
                             "PNR: " + booking.getId() + "\n" +
                             "Total Amount: PKR " + String.format("%,d", totalAmount) + "\n\n" +
-                            "Please proceed to payment to confirm your booking."
+                            "Please complete the payment within " + backend.getPaymentWindow().toMinutes() +
+                            " minutes to confirm your booking; unpaid bookings are cancelled after that."
                     );
                     ButtonType proceedButton = new ButtonType("Proceed to Payment");
                     ButtonType laterButton = new ButtonType("Pay Later");
@@ -203,13 +227,27 @@ public class BookTicketController {
         });
     }
 
-    private int getBaseFare(Train train) {
-        return switch (train.getType()) {
-            case "Express" -> 3500;
-            case "Passenger" -> 2200;
-            case "Freight" -> 1500;
-            default -> 2500;
-        };
+    private void offerWaitlist(User user, Train train, int passengers, int totalAmount, int available) {
+        Alert offer = new Alert(Alert.AlertType.CONFIRMATION);
+        offer.setTitle("Train Full");
+        offer.setHeaderText("Only " + available + " seat(s) left on " + train.getTrainNumber() + " for this journey.");
+        offer.setContentText("Join the waitlist for " + passengers + " seat(s)?\n\n" +
+                "You will be notified when seats are free, and can pay once they are held for you.");
+
+        offer.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                Booking booking = backend.joinWaitlist(user, train, fromStationCombo.getValue(),
+                        toStationCombo.getValue(), journeyDatePicker.getValue(), passengers,
+                        train.getType(), totalAmount);
+                if (booking == null) {
+                    showError("Could not join the waitlist. Please try again.");
+                } else {
+                    showSuccess("You are on the waitlist.\n\n" +
+                            "PNR: " + booking.getId() + "\n" +
+                            "Position: " + backend.getWaitlistPosition(booking));
+                }
+            }
+        });
     }
 
     private void showError(String message) {
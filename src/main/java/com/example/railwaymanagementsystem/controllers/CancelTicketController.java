@@ -1,9 +1,13 @@
 package com.example.railwaymanagementsystem.controllers;
 
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
 import com.example.railwaymanagementsystem.services.AppSession;
 import com.example.railwaymanagementsystem.services.BackendService;
+import com.example.railwaymanagementsystem.services.PnrGenerator;
+import javafx.beans.Observable;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
@@ -25,9 +29,12 @@ public class CancelTicketController {
 
     private final BackendService backend = BackendService.getInstance();
     private final AppSession session = AppSession.getInstance();
-    private ObservableList<Booking> allBookings;
+    private ObservableList<Booking> userBookings;
     private FilteredList<Booking> activeUserBookings;
 
+    public CancelTicketController() {
+    }
+
     @FXML
     private void initialize() {
         initializeData();
@@ -35,25 +42,23 @@ public class CancelTicketController {
     }
 
     private void initializeData() {
-        allBookings = backend.getAllBookings();
+        // Status is watched so cancelled bookings drop out of the filtered view
+        userBookings = FXCollections.observableArrayList(booking -> new Observable[]{booking.statusProperty()});
         Optional<String> userIdOpt = session.getCurrentUser().map(u -> u.getId());
 
         if (userIdOpt.isPresent()) {
             String userId = userIdOpt.get();
-            Predicate<Booking> isCancellable = booking ->
-                    booking.getUserId().equals(userId) && "Confirmed".equalsIgnoreCase(booking.getStatus());
-            
-            activeUserBookings = new FilteredList<>(allBookings, isCancellable);
+            userBookings.setAll(backend.getBookingsForUser(userId));
+            Predicate<Booking> isCancellable = booking -> BookingStatus.CONFIRMED.matches(booking.getStatus())
+                    || BookingStatus.WAITLISTED.matches(booking.getStatus());
+
+            activeUserBookings = new FilteredList<>(userBookings, isCancellable);
         } else {
-            activeUserBookings = new FilteredList<>(allBookings, booking -> false);
+            activeUserBookings = new FilteredList<>(userBookings, booking -> false);
             showError("Please log in to see your bookings.");
         }
 
         bookingsTable.setItems(activeUserBookings);
-
-        allBookings.addListener((javafx.collections.ListChangeListener.Change<? extends Booking> c) -> {
-            activeUserBookings.setPredicate(activeUserBookings.getPredicate());
-        });
     }
 
     private void setupTable() {
@@ -116,8 +121,14 @@ public class CancelTicketController {
             return;
         }
 
+        if (!PnrGenerator.isWellFormed(pnr)) {
+            showError(pnr + " is not a valid PNR. Please check it and try again.");
+            return;
+        }
+
+        String normalized = PnrGenerator.normalize(pnr);
         Optional<Booking> foundBooking = activeUserBookings.stream()
-                .filter(booking -> booking.getId().equalsIgnoreCase(pnr))
+                .filter(booking -> booking.getId().equals(normalized))
                 .findFirst();
 
         if (foundBooking.isPresent()) {
@@ -129,6 +140,12 @@ public class CancelTicketController {
     }
 
     private void handleCancelBooking(Booking booking) {
+        String previousStatus = booking.getStatus();
+        boolean waitlisted = BookingStatus.WAITLISTED.matches(previousStatus);
+        String refund = waitlisted
+                ? "No payment was taken for this waitlisted booking."
+                : "Refund: PKR " + String.format("%,.0f", booking.getTotalAmount() * 0.8) + " (80%)";
+
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Cancel Booking");
         confirm.setHeaderText("Cancel booking " + booking.getId() + "?");
@@ -137,20 +154,22 @@ public class CancelTicketController {
                         "Route: " + booking.getFromStation() + " → " + booking.getToStation() + "\n" +
                         "Date: " + booking.getTravelDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")) + "\n" +
                         "Amount: PKR " + String.format("%,.0f", booking.getTotalAmount()) + "\n\n" +
-                        "Refund: PKR " + String.format("%,.0f", booking.getTotalAmount() * 0.8) + " (80%)\n\n" +
+                        refund + "\n\n" +
                         "Are you sure you want to cancel?"
         );
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                booking.setStatus("Cancelled");
+                booking.setStatus(BookingStatus.CANCELLED.label());
                 if (backend.updateBooking(booking)) {
-                    showSuccess("Booking cancelled successfully!\n\n" +
+                    showSuccess(waitlisted
+                            ? "You have left the waitlist."
+                            : "Booking cancelled successfully!\n\n" +
                             "Refund of PKR " + String.format("%,.0f", booking.getTotalAmount() * 0.8) +
                             " will be processed in 3-5 business days.");
                 } else {
                     showError("Failed to cancel the booking. Please try again.");
-                    booking.setStatus("Confirmed");
+                    booking.setStatus(previousStatus);
                 }
             }
         });
@@ -4,6 +4,7 @@ import com.example.railwaymanagementsystem.models.Booking;
 import com.example.railwaymanagementsystem.models.Schedule;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.services.BackendService;
+import com.example.railwaymanagementsystem.services.PnrGenerator;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
@@ -28,6 +29,9 @@ public class CheckTrainStatusController {
 
     private final BackendService backend = BackendService.getInstance();
 
+    public CheckTrainStatusController() {
+    }
+
     @FXML
     private void initialize() {
         // Hide status container initially
@@ -72,7 +76,14 @@ public class CheckTrainStatusController {
         Optional<Booking> bookingOpt = Optional.empty();
 
         if (trainOpt.isEmpty()) {
-            bookingOpt = backend.getBookingById(query);
+            if (!PnrGenerator.isWellFormed(query)) {
+                showError(query + " is not a valid train number or PNR. Please check it and try again.");
+                if (statusContainer != null) {
+                    statusContainer.setVisible(false);
+                }
+                return;
+            }
+            bookingOpt = backend.getBookingById(PnrGenerator.normalize(query));
             if (bookingOpt.isPresent()) {
                 trainOpt = backend.getTrainByNumber(bookingOpt.get().getTrainNumber());
             }
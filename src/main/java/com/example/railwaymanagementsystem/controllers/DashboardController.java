@@ -11,7 +11,6 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
 
 /**
  * Controller for Dashboard Screen
@@ -28,6 +27,9 @@ public class DashboardController {
 
     private final BackendService backend = BackendService.getInstance();
 
+    public DashboardController() {
+    }
+
     @FXML
     private void initialize() {
         loadDashboardStats();
@@ -63,12 +65,7 @@ public class DashboardController {
     }
 
     private void loadRecentActivity() {
-        ObservableList<Booking> recentBookings = FXCollections.observableArrayList(
-                backend.getAllBookings().stream()
-                        .sorted((b1, b2) -> b2.getBookingDateTime().compareTo(b1.getBookingDateTime()))
-                        .limit(5)
-                        .collect(Collectors.toList())
-        );
+        ObservableList<Booking> recentBookings = FXCollections.observableArrayList(backend.getRecentBookings(5));
         activityTable.setItems(recentBookings);
     }
 
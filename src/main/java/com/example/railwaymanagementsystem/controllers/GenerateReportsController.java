@@ -4,6 +4,9 @@ import javafx.fxml.FXML;
 
 public class GenerateReportsController {
 
+    public GenerateReportsController() {
+    }
+
     @FXML
     private void handleRevenueReport() {
         AdminPanelController.getInstance().loadContent("RevenueReport.fxml", null);
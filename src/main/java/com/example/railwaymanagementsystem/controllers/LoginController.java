@@ -23,6 +23,9 @@ public class LoginController {
     private final BackendService backend = BackendService.getInstance();
     private final AppSession session = AppSession.getInstance();
 
+    public LoginController() {
+    }
+
     /**
      * Set the role for this login screen
      */
@@ -30,6 +30,9 @@ public class NotificationsController {
     private final AppSession session = AppSession.getInstance();
     private ObservableList<Notification> userNotifications;
 
+    public NotificationsController() {
+    }
+
     @FXML
     private void initialize() {
         session.getCurrentUser().ifPresent(user -> {
@@ -0,0 +1,200 @@
+package com.example.railwaymanagementsystem.controllers;
+
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
+import javafx.application.Platform;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Feeds a {@link TableView} one keyset page at a time. The first page is
+ * loaded when the query is set; further pages are fetched in the background
+ * as the user scrolls towards the bottom, so only what has been looked at is
+ * ever held in memory.
+ *
+ * <p>Sorting and filtering are pushed down into the {@link PageRequest}
+ * instead of being applied to the loaded rows.</p>
+ */
+public final class PagedTableSource<T> {
+    private static final Logger LOGGER = Logger.getLogger(PagedTableSource.class.getName());
+    private static final double PREFETCH_THRESHOLD = 0.9;
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "table-page-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final TableView<T> table;
+    private final Function<PageRequest, Page<T>> pageLoader;
+    private final ToLongFunction<PageRequest> counter;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final LongProperty totalCount = new SimpleLongProperty();
+    private final Map<TableColumn<T, ?>, String> sortColumns = new HashMap<>();
+    private final String defaultSortColumn;
+    private final boolean defaultAscending;
+
+    private PageRequest query;
+    private PageRequest nextRequest;
+    private ScrollBar verticalBar;
+    private boolean loading;
+    // Bumped on every reload so responses for an older query are dropped
+    private int generation;
+
+    public PagedTableSource(TableView<T> table, PageRequest query,
+                            Function<PageRequest, Page<T>> pageLoader, ToLongFunction<PageRequest> counter) {
+        this.table = table;
+        this.query = query.fromStart();
+        this.pageLoader = pageLoader;
+        this.counter = counter;
+        this.defaultSortColumn = query.getSortColumn();
+        this.defaultAscending = query.isAscending();
+
+        table.setItems(items);
+        table.setSortPolicy(tv -> {
+            applySortOrder();
+            return true;
+        });
+        if (table.getSkin() != null) {
+            hookScrollBar();
+        } else {
+            table.skinProperty().addListener((obs, old, skin) -> hookScrollBar());
+        }
+    }
+
+    /**
+     * Lets the column be sorted by clicking its header, ordering by the given
+     * database column. Columns that are not bound are not sortable.
+     */
+    public void bindSortColumn(String header, String databaseColumn) {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            if (header.equals(column.getText())) {
+                sortColumns.put(column, databaseColumn);
+            }
+        }
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(sortColumns.containsKey(column));
+        }
+    }
+
+    public PageRequest getQuery() {
+        return query;
+    }
+
+    /** Replaces the current query and starts again from its first page. */
+    public void setQuery(PageRequest query) {
+        this.query = query.fromStart();
+        reload();
+    }
+
+    /** Drops the loaded rows and fetches the first page of the current query again. */
+    public void reload() {
+        generation++;
+        loading = false;
+        items.clear();
+        nextRequest = query;
+        loadCount();
+        loadNextPage();
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /** Number of rows matching the current query, loaded or not. */
+    public ReadOnlyLongProperty totalCountProperty() {
+        return totalCount;
+    }
+
+    private void loadNextPage() {
+        if (loading || nextRequest == null) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        PageRequest request = nextRequest;
+        CompletableFuture.supplyAsync(() -> pageLoader.apply(request), LOADER)
+                .whenComplete((page, error) -> Platform.runLater(() -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading = false;
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Error loading table page", error);
+                        nextRequest = null;
+                        return;
+                    }
+                    items.addAll(page.items());
+                    nextRequest = page.hasMore() ? request.after(page) : null;
+                    if (verticalBar == null || !verticalBar.isVisible()) {
+                        // Nothing to scroll yet, so keep filling the viewport
+                        loadNextPage();
+                    }
+                }));
+    }
+
+    private void loadCount() {
+        int requestGeneration = generation;
+        PageRequest request = query;
+        CompletableFuture.supplyAsync(() -> counter.applyAsLong(request), LOADER)
+                .whenComplete((count, error) -> Platform.runLater(() -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Error counting table rows", error);
+                        return;
+                    }
+                    totalCount.set(count);
+                }));
+    }
+
+    private void hookScrollBar() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                verticalBar = bar;
+                bar.valueProperty().addListener((obs, old, value) -> {
+                    if (value.doubleValue() >= bar.getMax() * PREFETCH_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private void applySortOrder() {
+        PageRequest sorted = query;
+        if (table.getSortOrder().isEmpty()) {
+            sorted = query.sortedBy(defaultSortColumn, defaultAscending);
+        } else {
+            TableColumn<T, ?> column = table.getSortOrder().get(0);
+            String databaseColumn = sortColumns.get(column);
+            if (databaseColumn != null) {
+                sorted = query.sortedBy(databaseColumn, column.getSortType() == TableColumn.SortType.ASCENDING);
+            }
+        }
+        // The policy also runs when rows are appended; only a real change restarts paging
+        if (!sorted.getSortColumn().equals(query.getSortColumn()) || sorted.isAscending() != query.isAscending()) {
+            setQuery(sorted);
+        }
+    }
+}
@@ -31,6 +31,9 @@ public class PassengerPanelController {
 
     private final AppSession session = AppSession.getInstance();
 
+    public PassengerPanelController() {
+    }
+
     @FXML
     private void initialize() {
         // Load Book Ticket by default
@@ -1,8 +1,11 @@
 package com.example.railwaymanagementsystem.controllers;
 
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
 import com.example.railwaymanagementsystem.services.AppSession;
 import com.example.railwaymanagementsystem.services.BackendService;
+import com.example.railwaymanagementsystem.services.CoachLayout;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -13,6 +16,7 @@ import javafx.scene.layout.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Controller for Payment Screen
@@ -42,8 +46,13 @@ public class PaymentController {
     private final BackendService backend = BackendService.getInstance();
     private final AppSession session = AppSession.getInstance();
     private Booking selectedBooking;
+    // Reused until another booking is selected, so a double-click pays once
+    private String paymentKey;
     private final ToggleGroup paymentMethodGroup = new ToggleGroup();
 
+    public PaymentController() {
+    }
+
     @FXML
     private void initialize() {
         cashOnDeliveryRadio.setToggleGroup(paymentMethodGroup);
@@ -149,12 +158,16 @@ public class PaymentController {
         Label dateLabel = new Label("Travel Date: " + booking.getTravelDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
         dateLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #6b7280;");
 
-        card.getChildren().addAll(header, new Separator(), routeLabel, dateLabel);
+        Label seatLabel = new Label("Seats: " + CoachLayout.describe(booking.getSeatNumbers(), booking.getSeatClass()));
+        seatLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #6b7280;");
+
+        card.getChildren().addAll(header, new Separator(), routeLabel, dateLabel, seatLabel);
         return card;
     }
 
     private void selectBooking(Booking booking) {
         selectedBooking = booking;
+        paymentKey = UUID.randomUUID().toString();
         paymentDetailsContainer.setVisible(true);
         paymentDetailsContainer.setManaged(true);
 
@@ -162,7 +175,9 @@ public class PaymentController {
         trainInfoLabel.setText(booking.getTrainNumber() + " - " + booking.getTrainName());
         routeInfoLabel.setText(booking.getFromStation() + " → " + booking.getToStation());
         dateInfoLabel.setText(booking.getTravelDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        seatsInfoLabel.setText(booking.getNumberOfSeats() + " seat(s) - " + booking.getSeatClass());
+        seatsInfoLabel.setText(booking.getNumberOfSeats() + " seat(s) - " + booking.getSeatClass() + "\n"
+                + CoachLayout.describe(booking.getSeatNumbers(), booking.getSeatClass()));
+        seatsInfoLabel.setWrapText(true);
         amountInfoLabel.setText("PKR " + String.format("%,.0f", booking.getTotalAmount()));
 
         cashOnDeliveryRadio.setSelected(true);
@@ -223,15 +238,28 @@ public class PaymentController {
             }
         }
 
-        boolean success = backend.processPayment(selectedBooking.getId(), paymentMethod);
+        Booking booking = selectedBooking;
+        String buttonText = clickToPayButton.getText();
+        clickToPayButton.setDisable(true);
+        clickToPayButton.setText("Processing...");
+        // The gateway answers in the background; the screen stays responsive meanwhile
+        backend.processPaymentAsync(paymentKey, booking.getId(), paymentMethod)
+                .whenComplete((success, error) -> Platform.runLater(() -> {
+                    clickToPayButton.setDisable(false);
+                    clickToPayButton.setText(buttonText);
+                    showPaymentResult(booking, paymentMethod, error == null && success);
+                }));
+    }
+
+    private void showPaymentResult(Booking booking, String paymentMethod, boolean success) {
         if (success) {
             Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
             successAlert.setTitle("Payment Successful");
             successAlert.setHeaderText("✅ Payment Successful!");
             successAlert.setContentText(
                     "Your payment has been processed successfully!\n\n" +
-                    "PNR: " + selectedBooking.getId() + "\n" +
-                    "Amount: PKR " + String.format("%,.0f", selectedBooking.getTotalAmount()) + "\n" +
+                    "PNR: " + booking.getId() + "\n" +
+                    "Amount: PKR " + String.format("%,.0f", booking.getTotalAmount()) + "\n" +
                     "Payment Method: " + paymentMethod + "\n\n" +
                     "Your ticket is now confirmed. You can view it in Payment History."
             );
@@ -239,8 +267,13 @@ public class PaymentController {
             
             clearCardFields();
             loadPendingBookings();
+        } else if (backend.getBookingById(booking.getId())
+                .filter(current -> BookingStatus.CANCELLED.matches(current.getStatus())).isPresent()) {
+            showError("Booking " + booking.getId() + " was cancelled because its payment window expired. " +
+                    "Please book again.");
+            loadPendingBookings();
         } else {
-            showError("Payment failed. Please try again.");
+            showError("Payment failed. Please check your notifications for details and try again.");
         }
     }
 
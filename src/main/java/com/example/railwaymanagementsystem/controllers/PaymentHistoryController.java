@@ -1,8 +1,10 @@
 package com.example.railwaymanagementsystem.controllers;
 
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.PaymentStatus;
 import com.example.railwaymanagementsystem.services.AppSession;
 import com.example.railwaymanagementsystem.services.BackendService;
+import com.example.railwaymanagementsystem.services.CoachLayout;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -36,6 +38,9 @@ public class PaymentHistoryController {
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("dd MMM yyyy");
 
+    public PaymentHistoryController() {
+    }
+
     @FXML
     private void initialize() {
         if (filterCombo != null) {
@@ -58,13 +63,14 @@ public class PaymentHistoryController {
                         .filter(booking -> {
                             String status = booking.getPaymentStatus();
                             System.out.println("Booking " + booking.getId() + " payment status: " + status);
-                            return "Paid".equals(status);
+                            return PaymentStatus.PAID.matches(status);
                         })
                         .map(booking -> new PaymentRecord(
                                 booking.getBookingDateTime().format(DATE_FORMATTER),
                                 booking.getId(),
                                 booking.getTrainNumber() + " - " + booking.getTrainName(),
                                 booking.getFromStation() + " → " + booking.getToStation(),
+                                CoachLayout.describe(booking.getSeatNumbers(), booking.getSeatClass()),
                                 "PKR " + String.format("%,.0f", booking.getTotalAmount()),
                                 booking.getPaymentMethod() != null && !booking.getPaymentMethod().isEmpty() 
                                         ? booking.getPaymentMethod() : "N/A",
@@ -76,18 +82,18 @@ public class PaymentHistoryController {
 
                 // Calculate statistics from all bookings
                 double totalSpent = bookings.stream()
-                        .filter(b -> "Paid".equals(b.getPaymentStatus()))
+                        .filter(b -> PaymentStatus.PAID.matches(b.getPaymentStatus()))
                         .mapToDouble(Booking::getTotalAmount)
                         .sum();
                 totalSpentLabel.setText("PKR " + String.format("%,.0f", totalSpent));
                 
                 long paidCount = bookings.stream()
-                        .filter(b -> "Paid".equals(b.getPaymentStatus()))
+                        .filter(b -> PaymentStatus.PAID.matches(b.getPaymentStatus()))
                         .count();
                 totalTripsLabel.setText(String.valueOf(paidCount));
                 
                 long thisMonth = bookings.stream()
-                        .filter(b -> "Paid".equals(b.getPaymentStatus()))
+                        .filter(b -> PaymentStatus.PAID.matches(b.getPaymentStatus()))
                         .filter(b -> b.getBookingDateTime().getMonthValue() == LocalDate.now().getMonthValue() &&
                                     b.getBookingDateTime().getYear() == LocalDate.now().getYear())
                         .count();
@@ -134,16 +140,21 @@ public class PaymentHistoryController {
             if (paymentTable.getColumns().size() > 4) {
                 @SuppressWarnings("unchecked")
                 TableColumn<PaymentRecord, String> col = (TableColumn<PaymentRecord, String>) paymentTable.getColumns().get(4);
-                col.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getAmount()));
+                col.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getSeats()));
             }
             if (paymentTable.getColumns().size() > 5) {
                 @SuppressWarnings("unchecked")
                 TableColumn<PaymentRecord, String> col = (TableColumn<PaymentRecord, String>) paymentTable.getColumns().get(5);
-                col.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getPaymentMode()));
+                col.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getAmount()));
             }
             if (paymentTable.getColumns().size() > 6) {
                 @SuppressWarnings("unchecked")
                 TableColumn<PaymentRecord, String> col = (TableColumn<PaymentRecord, String>) paymentTable.getColumns().get(6);
+                col.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getPaymentMode()));
+            }
+            if (paymentTable.getColumns().size() > 7) {
+                @SuppressWarnings("unchecked")
+                TableColumn<PaymentRecord, String> col = (TableColumn<PaymentRecord, String>) paymentTable.getColumns().get(7);
                 col.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getStatus()));
             }
         }
@@ -166,16 +177,18 @@ public class PaymentHistoryController {
         private final String pnr;
         private final String train;
         private final String route;
+        private final String seats;
         private final String amount;
         private final String paymentMode;
         private final String status;
 
-        public PaymentRecord(String date, String pnr, String train, String route,
+        public PaymentRecord(String date, String pnr, String train, String route, String seats,
                              String amount, String paymentMode, String status) {
             this.date = date;
             this.pnr = pnr;
             this.train = train;
             this.route = route;
+            this.seats = seats;
             this.amount = amount;
             this.paymentMode = paymentMode;
             this.status = status;
@@ -185,6 +198,7 @@ public class PaymentHistoryController {
         public String getPnr() { return pnr; }
         public String getTrain() { return train; }
         public String getRoute() { return route; }
+        public String getSeats() { return seats; }
         public String getAmount() { return amount; }
         public String getPaymentMode() { return paymentMode; }
         public String getStatus() { return status; }
@@ -1,6 +1,7 @@
 package com.example.railwaymanagementsystem.controllers;
 
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
 import com.example.railwaymanagementsystem.services.BackendService;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -27,6 +28,9 @@ public class RevenueReportController {
 
     private final BackendService backend = BackendService.getInstance();
 
+    public RevenueReportController() {
+    }
+
     @FXML
     private void initialize() {
         setupTable();
@@ -44,7 +48,7 @@ public class RevenueReportController {
 
     private void loadReportData() {
         List<Booking> confirmedBookings = backend.getAllBookings().stream()
-                .filter(b -> "Confirmed".equalsIgnoreCase(b.getStatus()))
+                .filter(b -> BookingStatus.CONFIRMED.matches(b.getStatus()))
                 .collect(Collectors.toList());
 
         double totalRevenue = confirmedBookings.stream()
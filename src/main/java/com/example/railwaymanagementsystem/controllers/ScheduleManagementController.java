@@ -1,11 +1,10 @@
 package com.example.railwaymanagementsystem.controllers;
 
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.Schedule;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.services.BackendService;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -26,14 +25,18 @@ public class ScheduleManagementController {
     @FXML private TableView<Schedule> scheduleTable;
     @FXML private Label countLabel;
 
+    private static final int PAGE_SIZE = 100;
+
     private final BackendService backend = BackendService.getInstance();
-    private ObservableList<Schedule> scheduleData;
-    private FilteredList<Schedule> filteredData;
+    private PagedTableSource<Schedule> scheduleSource;
+
+    public ScheduleManagementController() {
+    }
 
     @FXML
     private void initialize() {
-        initializeData();
         setupTable();
+        initializeData();
         setupFilters();
 
         trainFilterCombo.setValue("All Trains");
@@ -42,14 +45,15 @@ public class ScheduleManagementController {
     }
 
     private void initializeData() {
-        scheduleData = backend.getSchedules();
-        filteredData = new FilteredList<>(scheduleData, p -> true);
-        scheduleTable.setItems(filteredData);
-        updateCountLabel();
+        scheduleSource = new PagedTableSource<>(scheduleTable, PageRequest.firstPage("train_name", true, PAGE_SIZE),
+                backend::getSchedulesPage, backend::countSchedules);
+        scheduleSource.bindSortColumn("Train Number", "train_number");
+        scheduleSource.bindSortColumn("Train Name", "train_name");
 
-        scheduleData.addListener((javafx.collections.ListChangeListener.Change<? extends Schedule> c) -> {
+        scheduleSource.getItems().addListener((javafx.collections.ListChangeListener.Change<? extends Schedule> c) -> {
             updateCountLabel();
         });
+        scheduleSource.totalCountProperty().addListener((obs, old, newVal) -> updateCountLabel());
     }
 
     private void setupTable() {
@@ -97,35 +101,22 @@ public class ScheduleManagementController {
     }
 
     private void applyFilters() {
-        final String searchText = searchField.getText();
+        final String searchText = searchField.getText() == null ? "" : searchField.getText().trim();
         final String trainFilter = trainFilterCombo.getValue();
         final String dayFilter = dayFilterCombo.getValue();
         final String statusFilter = statusFilterCombo.getValue();
 
-        filteredData.setPredicate(schedule -> {
-            final String lowerCaseSearchText = (searchText == null) ? "" : searchText.toLowerCase();
-            boolean matchesSearch = lowerCaseSearchText.isEmpty() ||
-                    (schedule.getTrainNumber() != null && schedule.getTrainNumber().toLowerCase().contains(lowerCaseSearchText)) ||
-                    (schedule.getRoute() != null && schedule.getRoute().toLowerCase().contains(lowerCaseSearchText));
-
-            boolean matchesTrain = (trainFilter == null) || "All Trains".equals(trainFilter) ||
-                    (schedule.getTrainName() != null && schedule.getTrainName().equals(trainFilter));
-
-            boolean matchesDay = (dayFilter == null) || "All Days".equals(dayFilter) ||
-                    (schedule.getDays() != null && dayFilter.length() >= 3 && schedule.getDays().contains(dayFilter.substring(0, 3)));
-
-            boolean matchesStatus = (statusFilter == null) || "All Status".equals(statusFilter) ||
-                    (schedule.getStatus() != null && schedule.getStatus().equals(statusFilter));
-
-            return matchesSearch && matchesTrain && matchesDay && matchesStatus;
-        });
-
-        updateCountLabel();
+        scheduleSource.setQuery(scheduleSource.getQuery()
+                .withSearch(searchText.isEmpty() ? null : searchText)
+                .withEquals("train_name", trainFilter == null || "All Trains".equals(trainFilter) ? null : trainFilter)
+                .withContains("days", dayFilter == null || "All Days".equals(dayFilter) || dayFilter.length() < 3
+                        ? null : dayFilter.substring(0, 3))
+                .withEquals("status", statusFilter == null || "All Status".equals(statusFilter) ? null : statusFilter));
     }
 
     private void updateCountLabel() {
         countLabel.setText(String.format("Showing %d of %d schedules",
-                filteredData.size(), scheduleData.size()));
+                scheduleSource.getItems().size(), scheduleSource.totalCountProperty().get()));
     }
 
     @FXML
@@ -145,6 +136,7 @@ public class ScheduleManagementController {
                     newSchedule.getDays(),
                     newSchedule.getStatus()
             );
+            scheduleSource.reload();
             showSuccess("Schedule added successfully!");
         });
     }
@@ -161,6 +153,7 @@ public class ScheduleManagementController {
             schedule.setDays(editedSchedule.getDays());
             schedule.setStatus(editedSchedule.getStatus());
             backend.updateSchedule(schedule);
+            scheduleSource.reload();
             showSuccess("Schedule updated successfully!");
         });
     }
@@ -283,6 +276,7 @@ public class ScheduleManagementController {
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 backend.removeSchedule(schedule);
+                scheduleSource.reload();
                 showSuccess("Schedule deleted successfully!");
             }
         });
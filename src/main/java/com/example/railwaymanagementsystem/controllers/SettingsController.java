@@ -24,6 +24,9 @@ public class SettingsController {
     @FXML private TextField dbPortField;
     @FXML private TextField dbNameField;
 
+    public SettingsController() {
+    }
+
     @FXML
     private void initialize() {
         // Set default values
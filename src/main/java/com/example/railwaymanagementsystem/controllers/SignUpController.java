@@ -17,6 +17,9 @@ public class SignUpController {
     @FXML private TextField phoneField;
     @FXML private PasswordField passwordField;
 
+    public SignUpController() {
+    }
+
     @FXML
     private void initialize() {
         // Setup enter key navigation
@@ -1,9 +1,8 @@
 package com.example.railwaymanagementsystem.controllers;
 
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.services.BackendService;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -27,11 +26,15 @@ public class TrainManagementController {
     @FXML private Label countLabel;
     @FXML private TableColumn<Train, Void> actionsColumn;
 
+    private static final int PAGE_SIZE = 100;
+
     private final BackendService backend = BackendService.getInstance();
-    private ObservableList<Train> trainData;
-    private FilteredList<Train> filteredData;
+    private PagedTableSource<Train> trainSource;
     private final Random random = new Random();
 
+    public TrainManagementController() {
+    }
+
     @FXML
     private void initialize() {
         initializeTrainData();
@@ -44,14 +47,15 @@ public class TrainManagementController {
     }
 
     private void initializeTrainData() {
-        trainData = backend.getTrains();
-        filteredData = new FilteredList<>(trainData, p -> true);
-        trainTable.setItems(filteredData);
-        updateCountLabel();
+        trainSource = new PagedTableSource<>(trainTable, PageRequest.firstPage("train_name", true, PAGE_SIZE),
+                backend::getTrainsPage, backend::countTrains);
+        trainSource.bindSortColumn("Train Number", "train_number");
+        trainSource.bindSortColumn("Train Name", "train_name");
 
-        trainData.addListener((javafx.collections.ListChangeListener.Change<? extends Train> c) -> {
+        trainSource.getItems().addListener((javafx.collections.ListChangeListener.Change<? extends Train> c) -> {
             updateCountLabel();
         });
+        trainSource.totalCountProperty().addListener((observable, oldValue, newValue) -> updateCountLabel());
     }
 
     private void setupTable() {
@@ -92,36 +96,21 @@ public class TrainManagementController {
     }
 
     private void applyFilters() {
-        final String searchText = searchField.getText();
+        final String searchText = searchField.getText() == null ? "" : searchField.getText().trim();
         final String statusFilter = statusFilterCombo.getValue();
         final String typeFilter = typeFilterCombo.getValue();
         final String routeFilter = routeFilterCombo.getValue();
 
-        filteredData.setPredicate(train -> {
-            final String lowerCaseSearchText = (searchText == null) ? "" : searchText.toLowerCase();
-            boolean matchesSearch = lowerCaseSearchText.isEmpty() ||
-                    (train.getTrainNumber() != null && train.getTrainNumber().toLowerCase().contains(lowerCaseSearchText)) ||
-                    (train.getTrainName() != null && train.getTrainName().toLowerCase().contains(lowerCaseSearchText)) ||
-                    (train.getRoute() != null && train.getRoute().toLowerCase().contains(lowerCaseSearchText));
-
-            boolean matchesStatus = (statusFilter == null) || "All Status".equals(statusFilter) ||
-                    (train.getStatus() != null && train.getStatus().equals(statusFilter));
-
-            boolean matchesType = (typeFilter == null) || "All Types".equals(typeFilter) ||
-                    (train.getType() != null && train.getType().equals(typeFilter));
-
-            boolean matchesRoute = (routeFilter == null) || "All Routes".equals(routeFilter) ||
-                    (train.getRoute() != null && train.getRoute().contains(routeFilter));
-
-            return matchesSearch && matchesStatus && matchesType && matchesRoute;
-        });
-
-        updateCountLabel();
+        trainSource.setQuery(trainSource.getQuery()
+                .withSearch(searchText.isEmpty() ? null : searchText)
+                .withEquals("status", statusFilter == null || "All Status".equals(statusFilter) ? null : statusFilter)
+                .withEquals("type", typeFilter == null || "All Types".equals(typeFilter) ? null : typeFilter)
+                .withContains("route", routeFilter == null || "All Routes".equals(routeFilter) ? null : routeFilter));
     }
 
     private void updateCountLabel() {
         countLabel.setText(String.format("Showing %d of %d trains",
-                filteredData.size(), trainData.size()));
+                trainSource.getItems().size(), trainSource.totalCountProperty().get()));
     }
 
     @FXML
@@ -133,6 +122,7 @@ public class TrainManagementController {
         Optional<Train> result = dialog.showAndWait();
         result.ifPresent(newTrain -> {
             backend.createTrain(newTrain.getTrainNumber(), newTrain.getTrainName(), newTrain.getType(), newTrain.getRoute(), "On-time");
+            trainSource.reload();
             showSuccess("Train added successfully!");
         });
     }
@@ -149,7 +139,7 @@ public class TrainManagementController {
             train.setType(editedTrain.getType());
             train.setRoute(editedTrain.getRoute());
             backend.updateTrain(train);
-            trainTable.refresh();
+            trainSource.reload();
             showSuccess("Train updated successfully!");
         });
     }
@@ -163,6 +153,7 @@ public class TrainManagementController {
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 backend.deleteTrain(train);
+                trainSource.reload();
                 showSuccess("Train deleted successfully!");
             }
         });
@@ -1,6 +1,5 @@
 package com.example.railwaymanagementsystem.controllers;
 
-import com.example.railwaymanagementsystem.models.Booking;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.services.BackendService;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -13,7 +12,6 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class TrainPerformanceReportController {
 
@@ -24,6 +22,9 @@ public class TrainPerformanceReportController {
 
     private final BackendService backend = BackendService.getInstance();
 
+    public TrainPerformanceReportController() {
+    }
+
     @FXML
     private void initialize() {
         setupTable();
@@ -38,10 +39,7 @@ public class TrainPerformanceReportController {
 
     private void loadReportData() {
         ObservableList<Train> trains = backend.getTrains();
-        ObservableList<Booking> bookings = backend.getAllBookings();
-
-        Map<String, Long> bookingCounts = bookings.stream()
-                .collect(Collectors.groupingBy(Booking::getTrainId, Collectors.counting()));
+        Map<String, Long> bookingCounts = backend.countBookingsByTrain();
 
         ObservableList<TrainPerformance> trainPerformances = FXCollections.observableArrayList();
         for (Train train : trains) {
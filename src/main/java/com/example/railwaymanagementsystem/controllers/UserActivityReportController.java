@@ -1,6 +1,5 @@
 package com.example.railwaymanagementsystem.controllers;
 
-import com.example.railwaymanagementsystem.models.Booking;
 import com.example.railwaymanagementsystem.models.User;
 import com.example.railwaymanagementsystem.services.BackendService;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -14,7 +13,6 @@ import javafx.scene.control.TableView;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class UserActivityReportController {
 
@@ -25,6 +23,9 @@ public class UserActivityReportController {
 
     private final BackendService backend = BackendService.getInstance();
 
+    public UserActivityReportController() {
+    }
+
     @FXML
     private void initialize() {
         setupTable();
@@ -39,10 +40,7 @@ public class UserActivityReportController {
 
     private void loadReportData() {
         ObservableList<User> users = backend.getUsers();
-        ObservableList<Booking> bookings = backend.getAllBookings();
-
-        Map<String, Long> bookingCounts = bookings.stream()
-                .collect(Collectors.groupingBy(Booking::getUserId, Collectors.counting()));
+        Map<String, Long> bookingCounts = backend.countBookingsByUser();
 
         ObservableList<UserActivity> userActivities = FXCollections.observableArrayList();
         for (User user : users) {
@@ -1,11 +1,10 @@
 package com.example.railwaymanagementsystem.controllers;
 
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.User;
 import com.example.railwaymanagementsystem.services.BackendService;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -26,14 +25,18 @@ public class UserManagementController {
     @FXML private TableView<User> userTable;
     @FXML private Label countLabel;
 
+    private static final int PAGE_SIZE = 100;
+
     private final BackendService backend = BackendService.getInstance();
-    private ObservableList<User> userData;
-    private FilteredList<User> filteredData;
+    private PagedTableSource<User> userSource;
+
+    public UserManagementController() {
+    }
 
     @FXML
     private void initialize() {
-        initializeData();
         setupTable();
+        initializeData();
         setupFilters();
 
         roleFilterCombo.setValue("All Roles");
@@ -41,14 +44,16 @@ public class UserManagementController {
     }
 
     private void initializeData() {
-        userData = backend.getUsers();
-        filteredData = new FilteredList<>(userData, p -> true);
-        userTable.setItems(filteredData);
-        updateCountLabel();
+        userSource = new PagedTableSource<>(userTable, PageRequest.firstPage("name", true, PAGE_SIZE),
+                backend::getUsersPage, backend::countUsers);
+        userSource.bindSortColumn("Name", "name");
+        userSource.bindSortColumn("Email", "email");
+        userSource.bindSortColumn("Role", "role");
 
-        userData.addListener((javafx.collections.ListChangeListener.Change<? extends User> c) -> {
+        userSource.getItems().addListener((javafx.collections.ListChangeListener.Change<? extends User> c) -> {
             updateCountLabel();
         });
+        userSource.totalCountProperty().addListener((obs, old, newVal) -> updateCountLabel());
     }
 
     private void setupTable() {
@@ -101,25 +106,17 @@ public class UserManagementController {
     }
 
     private void applyFilters() {
-        filteredData.setPredicate(user -> {
-            String searchText = searchField.getText() != null ? searchField.getText().toLowerCase() : "";
-            boolean matchesSearch = searchText.isEmpty() ||
-                    (user.getName() != null && user.getName().toLowerCase().contains(searchText)) ||
-                    (user.getEmail() != null && user.getEmail().toLowerCase().contains(searchText));
-
-            String roleFilter = roleFilterCombo.getValue();
-            boolean matchesRole = "All Roles".equals(roleFilter) ||
-                    (user.getRole() != null && user.getRole().equals(roleFilter));
-
-            return matchesSearch && matchesRole;
-        });
+        String searchText = searchField.getText() != null ? searchField.getText().trim() : "";
+        String roleFilter = roleFilterCombo.getValue();
 
-        updateCountLabel();
+        userSource.setQuery(userSource.getQuery()
+                .withSearch(searchText.isEmpty() ? null : searchText)
+                .withEquals("role", roleFilter == null || "All Roles".equals(roleFilter) ? null : roleFilter));
     }
 
     private void updateCountLabel() {
         countLabel.setText(String.format("Showing %d of %d users",
-                filteredData.size(), userData.size()));
+                userSource.getItems().size(), userSource.totalCountProperty().get()));
     }
 
     @FXML
@@ -131,6 +128,7 @@ public class UserManagementController {
         Optional<User> result = dialog.showAndWait();
         result.ifPresent(newUser -> {
             backend.register(newUser);
+            userSource.reload();
             showSuccess("User added successfully!");
         });
     }
@@ -143,6 +141,7 @@ public class UserManagementController {
         Optional<User> result = dialog.showAndWait();
         result.ifPresent(editedUser -> {
             backend.updateUser(editedUser);
+            userSource.reload();
             showSuccess("User updated successfully!");
         });
     }
@@ -156,6 +155,7 @@ public class UserManagementController {
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 backend.removeUser(user.getId());
+                userSource.reload();
                 showSuccess("User deleted successfully!");
             }
         });
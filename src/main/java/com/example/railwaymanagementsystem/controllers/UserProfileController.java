@@ -37,6 +37,9 @@ public class UserProfileController {
 
     private boolean isEditing = false;
 
+    public UserProfileController() {
+    }
+
     @FXML
     private void initialize() {
         if (genderCombo != null) {
@@ -30,6 +30,9 @@ public class ViewScheduleController {
     private ObservableList<Schedule> scheduleData;
     private FilteredList<Schedule> filteredData;
 
+    public ViewScheduleController() {
+    }
+
     @FXML
     private void initialize() {
         setupTableColumns();
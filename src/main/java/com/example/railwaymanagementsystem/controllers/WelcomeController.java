@@ -7,6 +7,9 @@ import javafx.fxml.FXML;
  */
 public class WelcomeController {
 
+    public WelcomeController() {
+    }
+
     @FXML
     private void handlePassengerLogin() {
         try {
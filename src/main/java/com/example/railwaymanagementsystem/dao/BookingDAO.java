@@ -1,36 +1,115 @@
 package com.example.railwaymanagementsystem.dao;
 
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
+import com.example.railwaymanagementsystem.models.PaymentStatus;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class BookingDAO {
-    private Connection connection;
-
-    public BookingDAO() {
-        this.connection = ConnectionManager.getConnection();
-    }
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    private static final KeysetQuery PAGES = new KeysetQuery("bookings",
+            Set.of("id", "travel_date", "booking_date_time", "train_number", "total_amount"),
+            List.of("id", "train_number", "train_name"),
+            Set.of("user_id", "train_id", "status", "payment_status"));
+    // Train, station, class and status columns repeat across thousands of rows
+    private static final StringDictionary DICTIONARY = new StringDictionary(4096, labels());
+    private static final String INSERT_SQL = "INSERT INTO bookings (id, user_id, train_id, train_number, train_name, from_station, to_station, travel_date, number_of_seats, seat_class, total_amount, status, booking_date_time, payment_method, payment_status, seat_numbers) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE bookings SET user_id = ?, train_id = ?, train_number = ?, train_name = ?, from_station = ?, to_station = ?, travel_date = ?, number_of_seats = ?, seat_class = ?, total_amount = ?, status = ?, booking_date_time = ?, payment_method = ?, payment_status = ?, seat_numbers = ? WHERE id = ?";
+    // Only matches while the stored row is not yet cancelled, see cancelBooking
+    private static final String CANCEL_SQL = UPDATE_SQL + " AND status <> ?";
+    private static final String PROMOTE_SQL = "UPDATE bookings SET status = ?, seat_numbers = ?, booking_date_time = ? WHERE id = ? AND status = ?";
+    private static final String EXPIRE_SQL = "UPDATE bookings SET status = ?, payment_status = ? WHERE id = ? AND status = ? AND payment_status = ?";
+    private static final String PAY_SQL = "UPDATE bookings SET status = ?, payment_method = ?, payment_status = ? WHERE id = ? AND status = ? AND payment_status = ?";
 
     public List<Booking> getAllBookings() throws SQLException {
         List<Booking> bookings = new ArrayList<>();
+        forEachBooking(DEFAULT_FETCH_SIZE, bookings::add);
+        return bookings;
+    }
+
+    /**
+     * Visit every booking without materializing the table. Rows are mapped one
+     * at a time, so memory use does not grow with the number of bookings.
+     */
+    public void forEachBooking(int fetchSize, Consumer<Booking> visitor) throws SQLException {
         String sql = "SELECT * FROM bookings";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                bookings.add(mapBookingFromResultSet(rs));
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setFetchSize(fetchSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(mapBookingFromResultSet(rs));
+                }
             }
         }
-        return bookings;
+    }
+
+    /**
+     * Lazily mapped stream over every booking. The stream holds a reader
+     * connection until it is closed, so always use it in try-with-resources.
+     * Read errors surface as {@link UncheckedSQLException}.
+     */
+    public Stream<Booking> streamBookings(int fetchSize) throws SQLException {
+        return stream("SELECT * FROM bookings", fetchSize);
+    }
+
+    /**
+     * As {@link #streamBookings} in id order, read along the primary key
+     * index without sorting, for merge-joins against other id-sorted data.
+     */
+    public Stream<Booking> streamBookingsById(int fetchSize) throws SQLException {
+        return stream("SELECT * FROM bookings ORDER BY id", fetchSize);
+    }
+
+    private Stream<Booking> stream(String sql, int fetchSize) throws SQLException {
+        PooledConnection conn = ConnectionManager.getReadConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeCursor(null, pstmt, conn);
+            throw e;
+        }
+        PreparedStatement statement = pstmt;
+        Spliterator<Booking> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Booking> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapBookingFromResultSet(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException("Error reading bookings", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeCursor(rs, statement, conn));
     }
 
     public Optional<Booking> findBookingById(String id) throws SQLException {
         String sql = "SELECT * FROM bookings WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -41,9 +120,50 @@ public class BookingDAO {
         return Optional.empty();
     }
 
+    public List<Booking> findBookingsByUserId(String userId) throws SQLException {
+        return findBookingsWhere("user_id = ?", userId);
+    }
+
+    public List<Booking> findBookingsByTrainAndDate(String trainId, LocalDate travelDate) throws SQLException {
+        return findBookingsWhere("train_id = ? AND travel_date = ?", trainId, Date.valueOf(travelDate));
+    }
+
+    public List<Booking> findBookingsByPaymentStatus(String paymentStatus) throws SQLException {
+        return findBookingsWhere("payment_status = ?", paymentStatus);
+    }
+
+    /** Bookings still holding seats on one train run, in booking order. */
+    public List<Booking> findActiveBookings(String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        return findBookingsWhere("train_id = ? AND travel_date = ? AND seat_class = ? AND status NOT IN (?, ?) ORDER BY booking_date_time, id",
+                trainId, Date.valueOf(travelDate), seatClass, BookingStatus.CANCELLED.label(), BookingStatus.WAITLISTED.label());
+    }
+
+    /** Bookings waiting for seats on one train run, first to join first. */
+    public List<Booking> findWaitlist(String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        return findBookingsWhere("train_id = ? AND travel_date = ? AND seat_class = ? AND status = ? ORDER BY booking_date_time, id",
+                trainId, Date.valueOf(travelDate), seatClass, BookingStatus.WAITLISTED.label());
+    }
+
+    private List<Booking> findBookingsWhere(String condition, Object... params) throws SQLException {
+        String sql = "SELECT * FROM bookings WHERE " + condition;
+        List<Booking> bookings = new ArrayList<>();
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(mapBookingFromResultSet(rs));
+                }
+            }
+        }
+        return bookings;
+    }
+
     public Booking addBooking(Booking booking) throws SQLException {
-        String sql = "INSERT INTO bookings (id, user_id, train_id, train_number, train_name, from_station, to_station, travel_date, number_of_seats, seat_class, total_amount, status, booking_date_time, payment_method, payment_status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
             setBookingParameters(pstmt, booking);
             pstmt.executeUpdate();
         }
@@ -51,54 +171,184 @@ public class BookingDAO {
     }
 
     public boolean updateBooking(Booking booking) throws SQLException {
-        String sql = "UPDATE bookings SET user_id = ?, train_id = ?, train_number = ?, train_name = ?, from_station = ?, to_station = ?, travel_date = ?, number_of_seats = ?, seat_class = ?, total_amount = ?, status = ?, booking_date_time = ?, payment_method = ?, payment_status = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            // Parameters for UPDATE are in a different order than INSERT
-            pstmt.setString(1, booking.getUserId());
-            pstmt.setString(2, booking.getTrainId());
-            pstmt.setString(3, booking.getTrainNumber());
-            pstmt.setString(4, booking.getTrainName());
-            pstmt.setString(5, booking.getFromStation());
-            pstmt.setString(6, booking.getToStation());
-            pstmt.setDate(7, Date.valueOf(booking.getTravelDate()));
-            pstmt.setInt(8, booking.getNumberOfSeats());
-            pstmt.setString(9, booking.getSeatClass());
-            pstmt.setDouble(10, booking.getTotalAmount());
-            pstmt.setString(11, booking.getStatus());
-            pstmt.setTimestamp(12, Timestamp.valueOf(booking.getBookingDateTime()));
-            pstmt.setString(13, booking.getPaymentMethod());
-            pstmt.setString(14, booking.getPaymentStatus());
-            // Parameter for the WHERE clause
-            pstmt.setString(15, booking.getId());
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+            setBookingUpdateParameters(pstmt, booking);
             return pstmt.executeUpdate() > 0;
         }
     }
 
-    public String getNextBookingId() throws SQLException {
-        return String.valueOf(getMaxId("bookings", "id") + 1);
+    /**
+     * Saves a booking whose status has been set to cancelled. Returns true only
+     * if the stored row was not already cancelled, so of several concurrent
+     * cancellations exactly one sees true and releases the seats.
+     */
+    public boolean cancelBooking(Booking booking) throws SQLException {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CANCEL_SQL)) {
+            setBookingUpdateParameters(pstmt, booking);
+            pstmt.setString(17, BookingStatus.CANCELLED.label());
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Cancels a booking whose payment window ran out, marking its payment
+     * failed. Only matches while the stored row is still pending and unpaid,
+     * so a payment that lands first wins.
+     */
+    public boolean expireBooking(String bookingId) throws SQLException {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(EXPIRE_SQL)) {
+            pstmt.setString(1, BookingStatus.CANCELLED.label());
+            pstmt.setString(2, PaymentStatus.FAILED.label());
+            pstmt.setString(3, bookingId);
+            pstmt.setString(4, BookingStatus.PENDING.label());
+            pstmt.setString(5, PaymentStatus.PENDING.label());
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Confirms a booking whose payment was captured. Like the expiry, only
+     * matches while the stored row is still Pending/Pending, so of a payment
+     * and an expiry or cancellation that race exactly one takes effect.
+     */
+    public boolean markPaid(String bookingId, String paymentMethod) throws SQLException {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(PAY_SQL)) {
+            pstmt.setString(1, BookingStatus.CONFIRMED.label());
+            pstmt.setString(2, paymentMethod);
+            pstmt.setString(3, PaymentStatus.PAID.label());
+            pstmt.setString(4, bookingId);
+            pstmt.setString(5, BookingStatus.PENDING.label());
+            pstmt.setString(6, PaymentStatus.PENDING.label());
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Moves waitlisted bookings to pending with the seats they were given,
+     * keyed by booking id, in one batch. Their booking time becomes the
+     * promotion time so the payment window starts afresh.
+     */
+    public void promoteFromWaitlist(Map<String, String> seatNumbersById, LocalDateTime promotedAt) throws SQLException {
+        if (seatNumbersById.isEmpty()) {
+            return;
+        }
+        ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(PROMOTE_SQL)) {
+                for (Map.Entry<String, String> entry : seatNumbersById.entrySet()) {
+                    pstmt.setString(1, BookingStatus.PENDING.label());
+                    pstmt.setString(2, entry.getValue());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(promotedAt));
+                    pstmt.setString(4, entry.getKey());
+                    pstmt.setString(5, BookingStatus.WAITLISTED.label());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Insert all bookings with one batched statement in a single transaction.
+     */
+    public List<Booking> addBookings(List<Booking> bookings) throws SQLException {
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        return ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                for (Booking booking : bookings) {
+                    setBookingParameters(pstmt, booking);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return bookings;
+        });
+    }
+
+    /**
+     * Update all bookings with one batched statement in a single transaction.
+     * Throws, rolling the whole batch back, if any booking has no row.
+     */
+    public void updateBookings(List<Booking> bookings) throws SQLException {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (Booking booking : bookings) {
+                    setBookingUpdateParameters(pstmt, booking);
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        throw new SQLException("No booking with id " + bookings.get(i).getId() + "; batch update rolled back");
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * One keyset page of bookings, seeking past the request's last key.
+     */
+    public Page<Booking> findBookingsPage(PageRequest request) throws SQLException {
+        return PAGES.fetch(request, this::mapBookingFromResultSet);
+    }
+
+    public long countBookings(PageRequest request) throws SQLException {
+        return PAGES.count(request);
+    }
+
+    private static void closeCursor(ResultSet rs, PreparedStatement pstmt, PooledConnection conn) {
+        try (conn; pstmt; rs) {
+            // closes in reverse order: result set, statement, then the lease
+        } catch (SQLException e) {
+            throw new UncheckedSQLException("Error closing booking cursor", e);
+        }
     }
 
     private Booking mapBookingFromResultSet(ResultSet rs) throws SQLException {
         LocalDate travelDate = rs.getDate("travel_date").toLocalDate();
         LocalDateTime bookingDateTime = rs.getTimestamp("booking_date_time").toLocalDateTime();
 
-        return new Booking(
+        String paymentMethod = rs.getString("payment_method");
+        String paymentStatus = rs.getString("payment_status");
+        String seatNumbers = rs.getString("seat_numbers");
+
+        Booking booking = new Booking(
                 rs.getString("id"),
                 rs.getString("user_id"),
-                rs.getString("train_id"),
-                rs.getString("train_number"),
-                rs.getString("train_name"),
-                rs.getString("from_station"),
-                rs.getString("to_station"),
+                DICTIONARY.canonical(rs.getString("train_id")),
+                DICTIONARY.canonical(rs.getString("train_number")),
+                DICTIONARY.canonical(rs.getString("train_name")),
+                DICTIONARY.canonical(rs.getString("from_station")),
+                DICTIONARY.canonical(rs.getString("to_station")),
                 travelDate,
                 rs.getInt("number_of_seats"),
-                rs.getString("seat_class"),
+                DICTIONARY.canonical(rs.getString("seat_class")),
                 rs.getDouble("total_amount"),
-                rs.getString("status"),
+                DICTIONARY.canonical(rs.getString("status")),
                 bookingDateTime,
-                rs.getString("payment_method") != null ? rs.getString("payment_method") : "",
-                rs.getString("payment_status") != null ? rs.getString("payment_status") : "Pending"
+                paymentMethod != null ? DICTIONARY.canonical(paymentMethod) : "",
+                paymentStatus != null ? DICTIONARY.canonical(paymentStatus) : PaymentStatus.PENDING.label()
         );
+        booking.setSeatNumbers(seatNumbers != null ? seatNumbers : "");
+        return booking;
+    }
+
+    private static String[] labels() {
+        return Stream.concat(
+                Arrays.stream(BookingStatus.values()).map(BookingStatus::label),
+                Arrays.stream(PaymentStatus.values()).map(PaymentStatus::label)
+        ).toArray(String[]::new);
     }
 
     private void setBookingParameters(PreparedStatement pstmt, Booking booking) throws SQLException {
@@ -117,16 +367,27 @@ public class BookingDAO {
         pstmt.setTimestamp(13, Timestamp.valueOf(booking.getBookingDateTime()));
         pstmt.setString(14, booking.getPaymentMethod());
         pstmt.setString(15, booking.getPaymentStatus());
+        pstmt.setString(16, booking.getSeatNumbers());
     }
 
-    private int getMaxId(String table, String idColumn) throws SQLException {
-        String sql = "SELECT MAX(CAST(" + idColumn + " AS INTEGER)) FROM " + table;
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next() && rs.getObject(1) != null) {
-                return rs.getInt(1);
-            }
-        }
-        return 0;
+    private void setBookingUpdateParameters(PreparedStatement pstmt, Booking booking) throws SQLException {
+        // Parameters for UPDATE are in a different order than INSERT
+        pstmt.setString(1, booking.getUserId());
+        pstmt.setString(2, booking.getTrainId());
+        pstmt.setString(3, booking.getTrainNumber());
+        pstmt.setString(4, booking.getTrainName());
+        pstmt.setString(5, booking.getFromStation());
+        pstmt.setString(6, booking.getToStation());
+        pstmt.setDate(7, Date.valueOf(booking.getTravelDate()));
+        pstmt.setInt(8, booking.getNumberOfSeats());
+        pstmt.setString(9, booking.getSeatClass());
+        pstmt.setDouble(10, booking.getTotalAmount());
+        pstmt.setString(11, booking.getStatus());
+        pstmt.setTimestamp(12, Timestamp.valueOf(booking.getBookingDateTime()));
+        pstmt.setString(13, booking.getPaymentMethod());
+        pstmt.setString(14, booking.getPaymentStatus());
+        pstmt.setString(15, booking.getSeatNumbers());
+        // Parameter for the WHERE clause
+        pstmt.setString(16, booking.getId());
     }
 }
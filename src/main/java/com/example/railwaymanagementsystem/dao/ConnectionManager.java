@@ -1,7 +1,6 @@
 package com.example.railwaymanagementsystem.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.ResultSet;
@@ -13,27 +12,102 @@ import java.time.LocalDateTime;
 
 public class ConnectionManager {
     private static final String DB_URL = "jdbc:sqlite:railway_management.db";
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
 
-    public static synchronized Connection getConnection() {
-        if (connection == null) {
+    /**
+     * Borrow a connection for reads. Several readers can run at once and none
+     * of them waits behind a write. Close the returned lease when done.
+     */
+    public static PooledConnection getReadConnection() throws SQLException {
+        return pool().borrowReader();
+    }
+
+    /**
+     * Borrow the single writer connection. Writers are serialized; the lease
+     * is reentrant for the calling thread. Close the returned lease when done.
+     */
+    public static PooledConnection getWriteConnection() throws SQLException {
+        return pool().borrowWriter();
+    }
+
+    /**
+     * Run work on the writer connection inside a single transaction, committing
+     * on success and rolling back on any exception. If the calling thread is
+     * already inside a transaction the work simply joins it.
+     */
+    public static <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (PooledConnection conn = getWriteConnection()) {
+            Connection connection = conn.getConnection();
+            if (!connection.getAutoCommit()) {
+                return work.execute(conn);
+            }
+            connection.setAutoCommit(false);
             try {
-                connection = DriverManager.getConnection(DB_URL);
-                initializeDatabase();
-            } catch (SQLException e) {
-                System.err.println("Error initializing database: " + e.getMessage());
-                e.printStackTrace();
+                T result = work.execute(conn);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #inTransaction}, but the work always commits on its own and
+     * never joins a transaction the calling thread has open. There is one
+     * writer connection, so a second transaction cannot run beside the first;
+     * calling this while holding the writer fails instead.
+     */
+    public static <T> T inNewTransaction(SqlWork<T> work) throws SQLException {
+        if (holdsWriter()) {
+            throw new SQLException("Cannot start an independent transaction while this thread holds the writer");
+        }
+        return inTransaction(work);
+    }
+
+    /** True if the calling thread has the writer connection, e.g. inside {@link #inTransaction}. */
+    public static boolean holdsWriter() throws SQLException {
+        return pool().isWriterHeldByCurrentThread();
+    }
+
+    public static PoolStats getPoolStats() throws SQLException {
+        return pool().stats();
+    }
+
+    public static StatementCacheStats getStatementCacheStats() throws SQLException {
+        return pool().statementCacheStats();
+    }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (ConnectionManager.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(DB_URL, ConnectionPoolConfig.fromSystemProperties());
+                    try (PooledConnection conn = current.borrowWriter()) {
+                        initializeDatabase(conn.getConnection());
+                    } catch (SQLException e) {
+                        current.close();
+                        throw e;
+                    }
+                    pool = current;
+                }
             }
         }
-        return connection;
+        return current;
     }
 
-    private static void initializeDatabase() throws SQLException {
-        createTables();
-        seedInitialData();
+    private static void initializeDatabase(Connection connection) throws SQLException {
+        createTables(connection);
+        SchemaMigrations.migrate(connection);
+        seedInitialData(connection);
     }
 
-    private static void createTables() throws SQLException {
+    private static void createTables(Connection connection) throws SQLException {
         // Users table
         String createUsersTable = """
             CREATE TABLE IF NOT EXISTS users (
@@ -102,15 +176,24 @@ public class ConnectionManager {
             )
         """;
 
+        // Hi/lo ID sequences, see IdAllocator
+        String createIdSequencesTable = """
+            CREATE TABLE IF NOT EXISTS id_sequences (
+                name TEXT PRIMARY KEY,
+                next_value INTEGER NOT NULL
+            )
+        """;
+
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(createUsersTable);
             stmt.execute(createTrainsTable);
             stmt.execute(createSchedulesTable);
             stmt.execute(createBookingsTable);
+            stmt.execute(createIdSequencesTable);
         }
     }
 
-    private static void seedInitialData() throws SQLException {
+    private static void seedInitialData(Connection connection) throws SQLException {
         // Check if data already exists
         try (Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
@@ -119,14 +202,23 @@ public class ConnectionManager {
             }
         }
 
-        // Seed users
-        seedUsers();
-        seedTrains();
-        seedSchedules();
-        seedBookings();
+        // Seed everything in one transaction so the inserts share a single commit
+        connection.setAutoCommit(false);
+        try {
+            seedUsers(connection);
+            seedTrains(connection);
+            seedSchedules(connection);
+            seedBookings(connection);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
     }
 
-    private static void seedUsers() throws SQLException {
+    private static void seedUsers(Connection connection) throws SQLException {
         String sql = "INSERT OR IGNORE INTO users (id, name, email, phone, role, password, cnic, date_of_birth, gender, address, city, postal_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -143,7 +235,7 @@ public class ConnectionManager {
             pstmt.setString(10, "HQ, Rail Safar Building");
             pstmt.setString(11, "Karachi");
             pstmt.setString(12, "75500");
-            pstmt.executeUpdate();
+            pstmt.addBatch();
 
             // Sample passenger
             pstmt.setString(1, "101");
@@ -158,11 +250,13 @@ public class ConnectionManager {
             pstmt.setString(10, "123 Main Street");
             pstmt.setString(11, "Lahore");
             pstmt.setString(12, "54000");
-            pstmt.executeUpdate();
+            pstmt.addBatch();
+
+            pstmt.executeBatch();
         }
     }
 
-    private static void seedTrains() throws SQLException {
+    private static void seedTrains(Connection connection) throws SQLException {
         String sql = "INSERT OR IGNORE INTO trains (id, train_number, train_name, type, route, status) VALUES (?, ?, ?, ?, ?, ?)";
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -182,12 +276,13 @@ public class ConnectionManager {
                 pstmt.setString(4, train[3]);
                 pstmt.setString(5, train[4]);
                 pstmt.setString(6, train[5]);
-                pstmt.executeUpdate();
+                pstmt.addBatch();
             }
+            pstmt.executeBatch();
         }
     }
 
-    private static void seedSchedules() throws SQLException {
+    private static void seedSchedules(Connection connection) throws SQLException {
         String sql = "INSERT OR IGNORE INTO schedules (id, train_number, train_name, departure_time, arrival_time, route, days, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -208,12 +303,13 @@ public class ConnectionManager {
                 pstmt.setString(6, schedule[5]);
                 pstmt.setString(7, schedule[6]);
                 pstmt.setString(8, schedule[7]);
-                pstmt.executeUpdate();
+                pstmt.addBatch();
             }
+            pstmt.executeBatch();
         }
     }
 
-    private static void seedBookings() throws SQLException {
+    private static void seedBookings(Connection connection) throws SQLException {
         // Only seed if no bookings exist
         try (Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM bookings")) {
@@ -246,9 +342,11 @@ public class ConnectionManager {
     }
 
     public static void close() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
-            connection = null;
+        synchronized (ConnectionManager.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
         }
     }
 }
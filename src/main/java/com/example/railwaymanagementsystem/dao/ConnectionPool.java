@@ -0,0 +1,299 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * SQLite connection pool with a single writer and a fixed set of read-only
+ * connections. The database runs in WAL mode so readers never block the
+ * writer and vice versa; writes are serialized through one connection
+ * because SQLite only allows one writer at a time anyway.
+ *
+ * <p>The writer lease is reentrant: a thread that already holds it gets the
+ * same connection again, and any read it asks for while holding it is served
+ * by the writer so it sees its own uncommitted changes.</p>
+ */
+final class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final ConnectionPoolConfig config;
+
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+    private Connection writer;
+
+    private final BlockingQueue<Connection> idleReaders;
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private final Set<PooledConnection> activeLeases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakDetector;
+    private volatile boolean closed;
+
+    private final LongAdder readBorrows = new LongAdder();
+    private final LongAdder writeBorrows = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder connectionsReplaced = new LongAdder();
+
+    ConnectionPool(String url, ConnectionPoolConfig config) throws SQLException {
+        this.url = url;
+        this.config = config;
+        this.idleReaders = new ArrayBlockingQueue<>(config.getReaderPoolSize());
+
+        // The writer goes first: switching to WAL needs a write and is persisted in the file
+        this.writer = openConnection(false);
+        try {
+            for (int i = 0; i < config.getReaderPoolSize(); i++) {
+                idleReaders.add(openConnection(true));
+            }
+        } catch (SQLException e) {
+            closeQuietly(writer);
+            idleReaders.forEach(this::closeQuietly);
+            throw e;
+        }
+
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold > 0) {
+            leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-pool-leak-detector");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(threshold / 2, 1_000L);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            leakDetector = null;
+        }
+    }
+
+    PooledConnection borrowWriter() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!writeLock.tryLock(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + " ms waiting for the database writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer connection", e);
+        }
+        try {
+            if (writeLock.getHoldCount() == 1 && isBroken(writer)) {
+                closeQuietly(writer);
+                writer = openConnection(false);
+                connectionsReplaced.increment();
+                LOGGER.warning("Replaced broken database writer connection");
+            }
+        } catch (SQLException e) {
+            writeLock.unlock();
+            throw e;
+        }
+        recordWait(start);
+        writeBorrows.increment();
+        return lease(writer, true);
+    }
+
+    boolean isWriterHeldByCurrentThread() {
+        return writeLock.isHeldByCurrentThread();
+    }
+
+    PooledConnection borrowReader() throws SQLException {
+        if (writeLock.isHeldByCurrentThread()) {
+            // Read-your-writes inside an open write lease
+            return borrowWriter();
+        }
+        ensureOpen();
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = idleReaders.poll(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database reader connection", e);
+        }
+        if (connection == null) {
+            borrowTimeouts.increment();
+            throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                    + " ms waiting for a database reader connection");
+        }
+        if (isBroken(connection)) {
+            closeQuietly(connection);
+            try {
+                connection = openConnection(true);
+            } catch (SQLException e) {
+                // Keep the slot; the next borrower will try to reopen it
+                idleReaders.offer(connection);
+                throw e;
+            }
+            connectionsReplaced.increment();
+            LOGGER.warning("Replaced broken database reader connection");
+        }
+        recordWait(start);
+        readBorrows.increment();
+        return lease(connection, false);
+    }
+
+    void release(PooledConnection lease) {
+        activeLeases.remove(lease);
+        Connection connection = lease.getConnection();
+        if (lease.isWriter()) {
+            if (writeLock.getHoldCount() == 1) {
+                resetAfterUse(connection, true);
+            }
+            writeLock.unlock();
+        } else {
+            resetAfterUse(connection, false);
+            if (closed) {
+                closeQuietly(connection);
+            } else {
+                idleReaders.offer(connection);
+            }
+        }
+    }
+
+    PoolStats stats() {
+        long borrows = readBorrows.sum() + writeBorrows.sum();
+        double avgWaitMicros = borrows == 0 ? 0.0 : borrowWaitNanos.sum() / 1_000.0 / borrows;
+        return new PoolStats(
+                readBorrows.sum(),
+                writeBorrows.sum(),
+                avgWaitMicros,
+                TimeUnit.NANOSECONDS.toMicros(maxBorrowWaitNanos.get()),
+                borrowTimeouts.sum(),
+                leaksDetected.sum(),
+                connectionsReplaced.sum(),
+                activeLeases.size(),
+                idleReaders.size(),
+                config.getReaderPoolSize()
+        );
+    }
+
+    StatementCacheStats statementCacheStats() {
+        return statementCounters.snapshot();
+    }
+
+    void close() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+        List<Connection> drained = new ArrayList<>();
+        idleReaders.drainTo(drained);
+        drained.forEach(this::closeQuietly);
+        writeLock.lock();
+        try {
+            closeQuietly(writer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private PooledConnection lease(Connection connection, boolean isWriter) {
+        Throwable site = config.isCaptureBorrowStackTraces() ? new Throwable("Connection borrowed here") : null;
+        PooledConnection lease = new PooledConnection(this, connection, statementCaches.get(connection), isWriter, site);
+        activeLeases.add(lease);
+        return lease;
+    }
+
+    private void recordWait(long startNanos) {
+        long waited = System.nanoTime() - startNanos;
+        borrowWaitNanos.add(waited);
+        maxBorrowWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private void detectLeaks() {
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLeakDetectionThresholdMillis());
+        long now = System.nanoTime();
+        for (PooledConnection lease : activeLeases) {
+            if (!lease.isLeakReported() && now - lease.getBorrowedAtNanos() > thresholdNanos) {
+                lease.markLeakReported();
+                leaksDetected.increment();
+                LOGGER.log(Level.WARNING, String.format("Possible connection leak: %s connection held by thread '%s' for %d ms",
+                        lease.isWriter() ? "writer" : "reader", lease.getBorrowingThread(),
+                        TimeUnit.NANOSECONDS.toMillis(now - lease.getBorrowedAtNanos())), lease.getBorrowSite());
+            }
+        }
+    }
+
+    private void resetAfterUse(Connection connection, boolean isWriter) {
+        try {
+            if (!connection.isClosed() && !connection.getAutoCommit()) {
+                if (isWriter) {
+                    LOGGER.warning("Rolling back transaction left open on the writer connection");
+                }
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error resetting pooled connection", e);
+        }
+    }
+
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        statementCaches.put(connection, new StatementCache(connection, config.getStatementCacheSize(), statementCounters));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + config.getBusyTimeoutMillis());
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            } else {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    private static boolean isBroken(Connection connection) {
+        try {
+            return connection == null || connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        StatementCache cache = statementCaches.remove(connection);
+        if (cache != null) {
+            cache.close();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing pooled connection", e);
+        }
+    }
+}
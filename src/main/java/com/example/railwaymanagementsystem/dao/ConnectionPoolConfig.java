@@ -0,0 +1,57 @@
+package com.example.railwaymanagementsystem.dao;
+
+/**
+ * Sizing and diagnostics settings for the SQLite connection pool.
+ * Values are read from system properties so they can be tuned per counter
+ * without a rebuild, e.g. {@code -Drailsafar.db.readers=8}.
+ */
+public final class ConnectionPoolConfig {
+    private final int readerPoolSize;
+    private final long borrowTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int busyTimeoutMillis;
+    private final boolean captureBorrowStackTraces;
+    private final int statementCacheSize;
+
+    public ConnectionPoolConfig(int readerPoolSize, long borrowTimeoutMillis, long leakDetectionThresholdMillis,
+                                int busyTimeoutMillis, boolean captureBorrowStackTraces, int statementCacheSize) {
+        if (readerPoolSize < 1) {
+            throw new IllegalArgumentException("readerPoolSize must be at least 1");
+        }
+        this.readerPoolSize = readerPoolSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.captureBorrowStackTraces = captureBorrowStackTraces;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public static ConnectionPoolConfig fromSystemProperties() {
+        return new ConnectionPoolConfig(
+                Integer.getInteger("railsafar.db.readers", 4),
+                Long.getLong("railsafar.db.borrowTimeoutMs", 5_000L),
+                Long.getLong("railsafar.db.leakThresholdMs", 30_000L),
+                Integer.getInteger("railsafar.db.busyTimeoutMs", 5_000),
+                Boolean.getBoolean("railsafar.db.leakTrace"),
+                Integer.getInteger("railsafar.db.statementCacheSize", 64)
+        );
+    }
+
+    /** Number of read-only connections kept open alongside the single writer. */
+    public int getReaderPoolSize() { return readerPoolSize; }
+
+    /** How long a caller waits for a free connection before the borrow fails. */
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+
+    /** Leases held longer than this are reported as possible leaks; 0 disables detection. */
+    public long getLeakDetectionThresholdMillis() { return leakDetectionThresholdMillis; }
+
+    /** SQLite busy_timeout applied to every pooled connection. */
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+
+    /** Records the borrow call site so leak reports point at the offending code. */
+    public boolean isCaptureBorrowStackTraces() { return captureBorrowStackTraces; }
+
+    /** Prepared statements kept per connection; 0 disables statement caching. */
+    public int getStatementCacheSize() { return statementCacheSize; }
+}
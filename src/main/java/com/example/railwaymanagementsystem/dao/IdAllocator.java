@@ -0,0 +1,129 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi/lo ID allocator backed by the {@code id_sequences} table.
+ *
+ * <p>Each refill reserves a block of IDs with a single UPDATE on the writer;
+ * IDs inside the block are then handed out from memory with a CAS, so the
+ * common path never touches the database or takes a lock. IDs left unused in
+ * a block when the app stops are simply skipped on the next run.</p>
+ *
+ * <p>A block is reserved in its own committed transaction, so a rollback
+ * elsewhere can never hand its IDs out again. IDs therefore have to be
+ * taken before the caller opens a transaction; asking for one while the
+ * thread holds the writer fails, whether or not a refill is due.</p>
+ */
+public final class IdAllocator {
+    private static final Map<String, IdAllocator> ALLOCATORS = new ConcurrentHashMap<>();
+
+    private final String table;
+    private final int blockSize;
+    private volatile Block current = Block.EMPTY;
+
+    private IdAllocator(String table, int blockSize) {
+        this.table = table;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Allocator for the numeric {@code id} column of the given table. The
+     * sequence is seeded from the table's current maximum the first time it is used.
+     * There is one allocator per table, so every caller must ask for the same
+     * block size.
+     */
+    public static IdAllocator forTable(String table, int blockSize) {
+        IdAllocator allocator = ALLOCATORS.computeIfAbsent(table, t -> new IdAllocator(t, blockSize));
+        if (allocator.blockSize != blockSize) {
+            throw new IllegalArgumentException("IDs for " + table + " are already allocated in blocks of "
+                    + allocator.blockSize + ", not " + blockSize);
+        }
+        return allocator;
+    }
+
+    public long next() throws SQLException {
+        if (ConnectionManager.holdsWriter()) {
+            throw new SQLException("Take " + table + " IDs before opening a transaction");
+        }
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    public String nextId() throws SQLException {
+        return String.valueOf(next());
+    }
+
+    private synchronized void refill(Block exhausted) throws SQLException {
+        if (current != exhausted) {
+            return; // another thread already refilled
+        }
+        long start = ConnectionManager.inNewTransaction(conn -> {
+            if (reserveBlock(conn) == 0) {
+                seedSequence(conn);
+                reserveBlock(conn);
+            }
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT next_value FROM id_sequences WHERE name = ?")) {
+                select.setString(1, table);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Missing id sequence for " + table);
+                    }
+                    return rs.getLong(1) - blockSize;
+                }
+            }
+        });
+        current = new Block(start, start + blockSize);
+    }
+
+    private int reserveBlock(PooledConnection conn) throws SQLException {
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE id_sequences SET next_value = next_value + ? WHERE name = ?")) {
+            update.setInt(1, blockSize);
+            update.setString(2, table);
+            return update.executeUpdate();
+        }
+    }
+
+    private void seedSequence(PooledConnection conn) throws SQLException {
+        // One-off scan when the sequence is first created for an existing table
+        long max = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(CAST(id AS INTEGER)) FROM " + table)) {
+            if (rs.next() && rs.getObject(1) != null) {
+                max = rs.getLong(1);
+            }
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO id_sequences (name, next_value) VALUES (?, ?)")) {
+            insert.setString(1, table);
+            insert.setLong(2, max + 1);
+            insert.executeUpdate();
+        }
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Named values in {@code id_sequences} that are not tied to a table's id
+ * column, such as the clock behind booking references. Like an
+ * {@link IdAllocator} refill, each call commits in its own transaction, so
+ * it cannot be made while the thread holds the writer.
+ */
+public class IdSequenceDAO {
+
+    /** The stored value, storing {@code initial} first if there is none. */
+    public long findOrCreate(String name, long initial) throws SQLException {
+        return ConnectionManager.inNewTransaction(conn -> {
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT OR IGNORE INTO id_sequences (name, next_value) VALUES (?, ?)")) {
+                insert.setString(1, name);
+                insert.setLong(2, initial);
+                insert.executeUpdate();
+            }
+            return current(conn, name);
+        });
+    }
+
+    /**
+     * Reserves {@code count} consecutive values, none below {@code floor}
+     * and none reserved before by any process, and returns the first.
+     */
+    public long reserveFrom(String name, long floor, long count) throws SQLException {
+        return ConnectionManager.inNewTransaction(conn -> {
+            try (PreparedStatement upsert = conn.prepareStatement(
+                    "INSERT INTO id_sequences (name, next_value) VALUES (?, ?) "
+                            + "ON CONFLICT (name) DO UPDATE SET next_value = MAX(next_value, ?) + ?")) {
+                upsert.setString(1, name);
+                upsert.setLong(2, floor + count);
+                upsert.setLong(3, floor);
+                upsert.setLong(4, count);
+                upsert.executeUpdate();
+            }
+            return current(conn, name) - count;
+        });
+    }
+
+    private static long current(PooledConnection conn, String name) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT next_value FROM id_sequences WHERE name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Missing id sequence " + name);
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+}
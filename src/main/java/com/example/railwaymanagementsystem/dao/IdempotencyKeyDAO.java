@@ -0,0 +1,55 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Results of completed requests in {@code idempotency_keys}, one row per
+ * client-supplied key and operation, so a retried request can be answered
+ * without running it again. Rows older than the retention window are
+ * treated as absent and pruned.
+ */
+public class IdempotencyKeyDAO {
+
+    /** The stored result for the key, if it was recorded at or after {@code notBefore}. */
+    public Optional<String> find(String key, String operation, LocalDateTime notBefore) throws SQLException {
+        String sql = "SELECT result FROM idempotency_keys WHERE idempotency_key = ? AND operation = ? AND created_at >= ?";
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, operation);
+            pstmt.setTimestamp(3, Timestamp.valueOf(notBefore));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(rs.getString("result"));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Records the result; an expired row for the same key is replaced. */
+    public void save(String key, String operation, String result, LocalDateTime createdAt) throws SQLException {
+        String sql = "INSERT INTO idempotency_keys (idempotency_key, operation, result, created_at) VALUES (?, ?, ?, ?) "
+                + "ON CONFLICT (idempotency_key, operation) DO UPDATE SET result = excluded.result, created_at = excluded.created_at";
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, operation);
+            pstmt.setString(3, result);
+            pstmt.setTimestamp(4, Timestamp.valueOf(createdAt));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /** Deletes results recorded before the cutoff; returns how many were removed. */
+    public int deleteOlderThan(LocalDateTime cutoff) throws SQLException {
+        String sql = "DELETE FROM idempotency_keys WHERE created_at < ?";
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds keyset ("seek") page queries for one table. Instead of OFFSET, each
+ * page starts strictly after the previous page's last (sort value, id) pair,
+ * so fetching page 5,000 costs the same index seek as fetching page 1.
+ *
+ * <p>Only whitelisted column names are ever concatenated into SQL; all values
+ * are bound as parameters.</p>
+ */
+final class KeysetQuery {
+    private final String table;
+    private final Set<String> sortableColumns;
+    private final List<String> searchableColumns;
+    private final Set<String> filterableColumns;
+
+    KeysetQuery(String table, Set<String> sortableColumns, List<String> searchableColumns, Set<String> filterableColumns) {
+        this.table = table;
+        this.sortableColumns = sortableColumns;
+        this.searchableColumns = searchableColumns;
+        this.filterableColumns = filterableColumns;
+    }
+
+    <T> Page<T> fetch(PageRequest request, RowMapper<T> mapper) throws SQLException {
+        String sortColumn = request.getSortColumn();
+        if (!sortableColumns.contains(sortColumn)) {
+            throw new IllegalArgumentException("Cannot sort " + table + " by " + sortColumn);
+        }
+        boolean byId = "id".equals(sortColumn);
+        String direction = request.isAscending() ? "ASC" : "DESC";
+
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = filterConditions(request, params);
+        if (!request.isFirstPage()) {
+            String op = request.isAscending() ? ">" : "<";
+            if (byId) {
+                conditions.add("id " + op + " ?");
+            } else {
+                // Row-value comparison keeps the seek on the (column, id) index
+                conditions.add("(" + sortColumn + ", id) " + op + " (?, ?)");
+                params.add(request.getAfterSortValue());
+            }
+            params.add(request.getAfterId());
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table);
+        appendWhere(sql, conditions);
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction);
+        if (!byId) {
+            sql.append(", id ").append(direction);
+        }
+        sql.append(" LIMIT ?");
+        // One extra row tells us whether another page exists
+        params.add(request.getPageSize() + 1);
+
+        List<T> items = new ArrayList<>(request.getPageSize());
+        Object lastSortValue = null;
+        String lastId = null;
+        boolean hasMore = false;
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == request.getPageSize()) {
+                        hasMore = true;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastSortValue = rs.getObject(sortColumn);
+                    lastId = rs.getString("id");
+                }
+            }
+        }
+        return new Page<>(items, lastSortValue, lastId, hasMore);
+    }
+
+    /** Number of rows matching the request's filters, ignoring its seek position. */
+    long count(PageRequest request) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(table);
+        appendWhere(sql, filterConditions(request, params));
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private List<String> filterConditions(PageRequest request, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (request.getSearchText() != null && !searchableColumns.isEmpty()) {
+            List<String> alternatives = new ArrayList<>();
+            for (String column : searchableColumns) {
+                alternatives.add(column + " LIKE ? ESCAPE '\\'");
+                params.add(containsPattern(request.getSearchText()));
+            }
+            conditions.add("(" + String.join(" OR ", alternatives) + ")");
+        }
+        for (Map.Entry<String, String> filter : request.getEqualsFilters().entrySet()) {
+            conditions.add(checkFilterable(filter.getKey()) + " = ?");
+            params.add(filter.getValue());
+        }
+        for (Map.Entry<String, String> filter : request.getContainsFilters().entrySet()) {
+            conditions.add(checkFilterable(filter.getKey()) + " LIKE ? ESCAPE '\\'");
+            params.add(containsPattern(filter.getValue()));
+        }
+        return conditions;
+    }
+
+    private String checkFilterable(String column) {
+        if (!filterableColumns.contains(column)) {
+            throw new IllegalArgumentException("Cannot filter " + table + " by " + column);
+        }
+        return column;
+    }
+
+    private static void appendWhere(StringBuilder sql, List<String> conditions) {
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static String containsPattern(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static void bind(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query. The last row's sort value and id are
+ * the seek key for the next page, see {@link PageRequest#after(Page)}.
+ */
+public record Page<T>(List<T> items, Object lastSortValue, String lastId, boolean hasMore) {
+
+    public static <T> Page<T> empty() {
+        return new Page<>(List.of(), null, null, false);
+    }
+}
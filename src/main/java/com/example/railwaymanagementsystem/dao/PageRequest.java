@@ -0,0 +1,91 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keyset pagination request: sort column and direction, page size, optional
+ * filters, and the seek key of the previous page's last row. Column names
+ * are checked against each DAO's whitelist before they reach SQL.
+ */
+public final class PageRequest {
+    private final String sortColumn;
+    private final boolean ascending;
+    private final int pageSize;
+    private final Object afterSortValue;
+    private final String afterId;
+    private final String searchText;
+    private final Map<String, String> equalsFilters;
+    private final Map<String, String> containsFilters;
+
+    private PageRequest(String sortColumn, boolean ascending, int pageSize, Object afterSortValue, String afterId,
+                        String searchText, Map<String, String> equalsFilters, Map<String, String> containsFilters) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+        this.pageSize = pageSize;
+        this.afterSortValue = afterSortValue;
+        this.afterId = afterId;
+        this.searchText = searchText;
+        this.equalsFilters = equalsFilters;
+        this.containsFilters = containsFilters;
+    }
+
+    public static PageRequest firstPage(String sortColumn, boolean ascending, int pageSize) {
+        return new PageRequest(sortColumn, ascending, pageSize, null, null, null, Map.of(), Map.of());
+    }
+
+    /** Request for the page that follows the given one, with the same sort and filters. */
+    public PageRequest after(Page<?> previous) {
+        return new PageRequest(sortColumn, ascending, pageSize, previous.lastSortValue(), previous.lastId(),
+                searchText, equalsFilters, containsFilters);
+    }
+
+    /** Same query restarted from the first page. */
+    public PageRequest fromStart() {
+        return new PageRequest(sortColumn, ascending, pageSize, null, null, searchText, equalsFilters, containsFilters);
+    }
+
+    public PageRequest sortedBy(String column, boolean ascendingOrder) {
+        return new PageRequest(column, ascendingOrder, pageSize, null, null, searchText, equalsFilters, containsFilters);
+    }
+
+    /** Case-insensitive substring match across the DAO's searchable columns. */
+    public PageRequest withSearch(String text) {
+        String normalized = text == null || text.isBlank() ? null : text.trim();
+        return new PageRequest(sortColumn, ascending, pageSize, null, null, normalized, equalsFilters, containsFilters);
+    }
+
+    public PageRequest withEquals(String column, String value) {
+        return new PageRequest(sortColumn, ascending, pageSize, null, null, searchText,
+                put(equalsFilters, column, value), containsFilters);
+    }
+
+    public PageRequest withContains(String column, String value) {
+        return new PageRequest(sortColumn, ascending, pageSize, null, null, searchText,
+                equalsFilters, put(containsFilters, column, value));
+    }
+
+    public String getSortColumn() { return sortColumn; }
+    public boolean isAscending() { return ascending; }
+    public int getPageSize() { return pageSize; }
+    public Object getAfterSortValue() { return afterSortValue; }
+    public String getAfterId() { return afterId; }
+    public boolean isFirstPage() { return afterId == null; }
+    public String getSearchText() { return searchText; }
+    public Map<String, String> getEqualsFilters() { return equalsFilters; }
+    public Map<String, String> getContainsFilters() { return containsFilters; }
+
+    private static Map<String, String> put(Map<String, String> source, String column, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(source);
+        if (value == null) {
+            copy.remove(column);
+        } else {
+            copy.put(column, value);
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.railwaymanagementsystem.dao;
+
+import com.example.railwaymanagementsystem.models.PaymentCapture;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captured payments in {@code payment_captures}, one row per paid booking.
+ * Rows without {@code settled_at} are still waiting for the gateway's
+ * settlement batch and are picked up again after a restart.
+ */
+public class PaymentCaptureDAO {
+
+    /** Records a capture; call it in the transaction that marks the booking paid. */
+    public void save(PaymentCapture capture) throws SQLException {
+        String sql = "INSERT INTO payment_captures (booking_id, gateway, reference, amount, captured_at) VALUES (?, ?, ?, ?, ?)";
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, capture.bookingId());
+            pstmt.setString(2, capture.gateway());
+            pstmt.setString(3, capture.reference());
+            pstmt.setDouble(4, capture.amount());
+            pstmt.setTimestamp(5, Timestamp.valueOf(capture.capturedAt()));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /** Captures not yet settled, oldest first. */
+    public List<PaymentCapture> findUnsettled() throws SQLException {
+        String sql = "SELECT booking_id, gateway, reference, amount, captured_at FROM payment_captures "
+                + "WHERE settled_at IS NULL ORDER BY captured_at";
+        List<PaymentCapture> captures = new ArrayList<>();
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                captures.add(new PaymentCapture(
+                        rs.getString("booking_id"),
+                        rs.getString("gateway"),
+                        rs.getString("reference"),
+                        rs.getDouble("amount"),
+                        rs.getTimestamp("captured_at").toLocalDateTime()
+                ));
+            }
+        }
+        return captures;
+    }
+
+    /** Stamps a settled batch with one batched statement. */
+    public void markSettled(List<PaymentCapture> captures, LocalDateTime settledAt) throws SQLException {
+        if (captures.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE payment_captures SET settled_at = ? WHERE booking_id = ?";
+        ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (PaymentCapture capture : captures) {
+                    pstmt.setTimestamp(1, Timestamp.valueOf(settledAt));
+                    pstmt.setString(2, capture.bookingId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return null;
+        });
+    }
+}
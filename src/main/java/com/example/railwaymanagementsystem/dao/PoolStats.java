@@ -0,0 +1,24 @@
+package com.example.railwaymanagementsystem.dao;
+
+/**
+ * Point-in-time snapshot of connection pool activity.
+ */
+public record PoolStats(
+        long readBorrows,
+        long writeBorrows,
+        double averageBorrowWaitMicros,
+        long maxBorrowWaitMicros,
+        long borrowTimeouts,
+        long leaksDetected,
+        long connectionsReplaced,
+        int activeLeases,
+        int idleReaders,
+        int readerPoolSize
+) {
+    @Override
+    public String toString() {
+        return String.format("reads=%d writes=%d avgWait=%.1fus maxWait=%dus timeouts=%d leaks=%d replaced=%d active=%d idleReaders=%d/%d",
+                readBorrows, writeBorrows, averageBorrowWaitMicros, maxBorrowWaitMicros, borrowTimeouts,
+                leaksDetected, connectionsReplaced, activeLeases, idleReaders, readerPoolSize);
+    }
+}
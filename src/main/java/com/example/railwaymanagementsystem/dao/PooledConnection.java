@@ -0,0 +1,68 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A lease on one of the pool's connections. Closing the lease hands the
+ * connection back to the pool; the underlying connection stays open.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final boolean writer;
+    private final long borrowedAtNanos;
+    private final String borrowingThread;
+    private final Throwable borrowSite;
+    private volatile boolean released;
+    private volatile boolean leakReported;
+
+    PooledConnection(ConnectionPool pool, Connection connection, StatementCache statementCache,
+                     boolean writer, Throwable borrowSite) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.writer = writer;
+        this.borrowedAtNanos = System.nanoTime();
+        this.borrowingThread = Thread.currentThread().getName();
+        this.borrowSite = borrowSite;
+    }
+
+    /**
+     * Prepared statement from this connection's statement cache. Closing the
+     * statement returns it to the cache rather than finalizing it.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    public Statement createStatement() throws SQLException {
+        return connection.createStatement();
+    }
+
+    /** Raw connection, for callers that need to manage a transaction themselves. */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public boolean isWriter() {
+        return writer;
+    }
+
+    long getBorrowedAtNanos() { return borrowedAtNanos; }
+    String getBorrowingThread() { return borrowingThread; }
+    Throwable getBorrowSite() { return borrowSite; }
+    boolean isLeakReported() { return leakReported; }
+    void markLeakReported() { leakReported = true; }
+
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            pool.release(this);
+        }
+    }
+}
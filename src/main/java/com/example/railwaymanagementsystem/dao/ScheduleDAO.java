@@ -6,18 +6,22 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class ScheduleDAO {
-    private Connection connection;
-
-    public ScheduleDAO() {
-        this.connection = ConnectionManager.getConnection();
-    }
+    private static final IdAllocator ID_ALLOCATOR = IdAllocator.forTable("schedules", 10);
+    private static final KeysetQuery PAGES = new KeysetQuery("schedules",
+            Set.of("id", "train_number", "train_name"),
+            List.of("train_number", "route"),
+            Set.of("train_name", "status", "days"));
+    private static final String INSERT_SQL = "INSERT INTO schedules (id, train_number, train_name, departure_time, arrival_time, route, days, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE schedules SET train_number = ?, train_name = ?, departure_time = ?, arrival_time = ?, route = ?, days = ?, status = ? WHERE id = ?";
 
     public List<Schedule> getAllSchedules() throws SQLException {
         List<Schedule> schedules = new ArrayList<>();
         String sql = "SELECT * FROM schedules";
-        try (Statement stmt = connection.createStatement();
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 schedules.add(mapScheduleFromResultSet(rs));
@@ -28,7 +32,8 @@ public class ScheduleDAO {
 
     public Optional<Schedule> findScheduleByTrainNumber(String trainNumber) throws SQLException {
         String sql = "SELECT * FROM schedules WHERE train_number = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, trainNumber);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -40,46 +45,88 @@ public class ScheduleDAO {
     }
 
     public Schedule addSchedule(Schedule schedule) throws SQLException {
-        String sql = "INSERT INTO schedules (id, train_number, train_name, departure_time, arrival_time, route, days, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, schedule.getId());
-            pstmt.setString(2, schedule.getTrainNumber());
-            pstmt.setString(3, schedule.getTrainName());
-            pstmt.setString(4, schedule.getDepartureTime());
-            pstmt.setString(5, schedule.getArrivalTime());
-            pstmt.setString(6, schedule.getRoute());
-            pstmt.setString(7, schedule.getDays());
-            pstmt.setString(8, schedule.getStatus());
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            setScheduleInsertParameters(pstmt, schedule);
             pstmt.executeUpdate();
         }
         return schedule;
     }
 
     public boolean updateSchedule(Schedule schedule) throws SQLException {
-        String sql = "UPDATE schedules SET train_number = ?, train_name = ?, departure_time = ?, arrival_time = ?, route = ?, days = ?, status = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, schedule.getTrainNumber());
-            pstmt.setString(2, schedule.getTrainName());
-            pstmt.setString(3, schedule.getDepartureTime());
-            pstmt.setString(4, schedule.getArrivalTime());
-            pstmt.setString(5, schedule.getRoute());
-            pstmt.setString(6, schedule.getDays());
-            pstmt.setString(7, schedule.getStatus());
-            pstmt.setString(8, schedule.getId());
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+            setScheduleUpdateParameters(pstmt, schedule);
             return pstmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * Insert all schedules with one batched statement in a single transaction.
+     */
+    public List<Schedule> addSchedules(List<Schedule> schedules) throws SQLException {
+        if (schedules.isEmpty()) {
+            return schedules;
+        }
+        return ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                for (Schedule schedule : schedules) {
+                    setScheduleInsertParameters(pstmt, schedule);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return schedules;
+        });
+    }
+
+    /**
+     * Update all schedules with one batched statement in a single transaction.
+     * Throws, rolling the whole batch back, if any schedule has no row.
+     */
+    public void updateSchedules(List<Schedule> schedules) throws SQLException {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (Schedule schedule : schedules) {
+                    setScheduleUpdateParameters(pstmt, schedule);
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        throw new SQLException("No schedule with id " + schedules.get(i).getId() + "; batch update rolled back");
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
     public boolean removeSchedule(String id) throws SQLException {
         String sql = "DELETE FROM schedules WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             return pstmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * One keyset page of schedules, seeking past the request's last key.
+     */
+    public Page<Schedule> findSchedulesPage(PageRequest request) throws SQLException {
+        return PAGES.fetch(request, this::mapScheduleFromResultSet);
+    }
+
+    public long countSchedules(PageRequest request) throws SQLException {
+        return PAGES.count(request);
+    }
+
     public String getNextScheduleId() throws SQLException {
-        return String.valueOf(getMaxId("schedules", "id") + 1);
+        return ID_ALLOCATOR.nextId();
     }
 
     private Schedule mapScheduleFromResultSet(ResultSet rs) throws SQLException {
@@ -95,14 +142,25 @@ public class ScheduleDAO {
         );
     }
 
-    private int getMaxId(String table, String idColumn) throws SQLException {
-        String sql = "SELECT MAX(CAST(" + idColumn + " AS INTEGER)) FROM " + table;
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next() && rs.getObject(1) != null) {
-                return rs.getInt(1);
-            }
-        }
-        return 0;
+    private void setScheduleInsertParameters(PreparedStatement pstmt, Schedule schedule) throws SQLException {
+        pstmt.setString(1, schedule.getId());
+        pstmt.setString(2, schedule.getTrainNumber());
+        pstmt.setString(3, schedule.getTrainName());
+        pstmt.setString(4, schedule.getDepartureTime());
+        pstmt.setString(5, schedule.getArrivalTime());
+        pstmt.setString(6, schedule.getRoute());
+        pstmt.setString(7, schedule.getDays());
+        pstmt.setString(8, schedule.getStatus());
+    }
+
+    private void setScheduleUpdateParameters(PreparedStatement pstmt, Schedule schedule) throws SQLException {
+        pstmt.setString(1, schedule.getTrainNumber());
+        pstmt.setString(2, schedule.getTrainName());
+        pstmt.setString(3, schedule.getDepartureTime());
+        pstmt.setString(4, schedule.getArrivalTime());
+        pstmt.setString(5, schedule.getRoute());
+        pstmt.setString(6, schedule.getDays());
+        pstmt.setString(7, schedule.getStatus());
+        pstmt.setString(8, schedule.getId());
     }
 }
@@ -0,0 +1,145 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Versioned schema changes applied on top of the baseline tables created by
+ * {@link ConnectionManager}. Applied versions are recorded in
+ * {@code schema_version}; each pending migration runs in its own transaction.
+ *
+ * <p>Append new migrations to the end of {@link #MIGRATIONS} with the next
+ * version number. Never edit or reorder one that has shipped.</p>
+ */
+final class SchemaMigrations {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrations.class.getName());
+
+    private record Migration(int version, String description, List<String> statements) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Index bookings by user, train/date and payment status", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_user_id ON bookings(user_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_train_date ON bookings(train_id, travel_date)",
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_payment_status ON bookings(payment_status)"
+            )),
+            new Migration(2, "Index schedules by train number", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_schedules_train_number ON schedules(train_number)"
+            )),
+            new Migration(3, "Case-insensitive index on user email", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_users_email_nocase ON users(email COLLATE NOCASE)"
+            )),
+            new Migration(4, "Keyset pagination indexes on default sort columns", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_users_name_id ON users(name, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_trains_name_id ON trains(train_name, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_schedules_train_name_id ON schedules(train_name, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_booking_time_id ON bookings(booking_date_time, id)"
+            )),
+            new Migration(5, "Seat inventory per train, travel date and class", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS seat_inventory (
+                        train_id TEXT NOT NULL,
+                        travel_date DATE NOT NULL,
+                        seat_class TEXT NOT NULL,
+                        capacity INTEGER NOT NULL,
+                        reserved INTEGER NOT NULL DEFAULT 0,
+                        PRIMARY KEY (train_id, travel_date, seat_class),
+                        CHECK (reserved >= 0 AND reserved <= capacity)
+                    )
+                    """
+            )),
+            new Migration(6, "Seat numbers on bookings", List.of(
+                    "ALTER TABLE bookings ADD COLUMN seat_numbers TEXT"
+            )),
+            new Migration(7, "Bookings by train run and status for the waitlist", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_run_status ON bookings(train_id, travel_date, seat_class, status, booking_date_time, id)"
+            )),
+            new Migration(8, "Idempotency keys for booking and payment requests", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS idempotency_keys (
+                        idempotency_key TEXT NOT NULL,
+                        operation TEXT NOT NULL,
+                        result TEXT NOT NULL,
+                        created_at TIMESTAMP NOT NULL,
+                        PRIMARY KEY (idempotency_key, operation)
+                    )
+                    """,
+                    "CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys(created_at)"
+            )),
+            new Migration(9, "Payment captures awaiting and after settlement", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS payment_captures (
+                        booking_id TEXT PRIMARY KEY,
+                        gateway TEXT NOT NULL,
+                        reference TEXT NOT NULL,
+                        amount REAL NOT NULL,
+                        captured_at TIMESTAMP NOT NULL,
+                        settled_at TIMESTAMP
+                    )
+                    """,
+                    "CREATE INDEX IF NOT EXISTS idx_payment_captures_unsettled ON payment_captures(captured_at) WHERE settled_at IS NULL"
+            ))
+    );
+
+    private SchemaMigrations() {}
+
+    static void migrate(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TIMESTAMP NOT NULL
+                )
+            """);
+        }
+
+        Set<Integer> applied = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                applied.add(rs.getInt(1));
+            }
+        }
+
+        for (Migration migration : MIGRATIONS) {
+            if (!applied.contains(migration.version())) {
+                apply(connection, migration);
+            }
+        }
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.statements()) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                pstmt.setInt(1, migration.version());
+                pstmt.setString(2, migration.description());
+                pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+            LOGGER.info("Applied schema migration " + migration.version() + ": " + migration.description());
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.version() + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
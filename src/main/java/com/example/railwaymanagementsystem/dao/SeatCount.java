@@ -0,0 +1,8 @@
+package com.example.railwaymanagementsystem.dao;
+
+/**
+ * Capacity of one train run (train, travel date, class) and the seats taken
+ * on its busiest segment.
+ */
+public record SeatCount(int capacity, int reserved) {
+}
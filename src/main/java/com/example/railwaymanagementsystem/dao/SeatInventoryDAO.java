@@ -0,0 +1,47 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Persisted seat counts in {@code seat_inventory}, one row per train, travel
+ * date and class: the run's capacity and the seats taken on its busiest
+ * segment. Which seats are taken on which legs is rebuilt from the bookings
+ * themselves.
+ */
+public class SeatInventoryDAO {
+    private static final String KEY = "train_id = ? AND travel_date = ? AND seat_class = ?";
+
+    public Optional<SeatCount> find(String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        String sql = "SELECT capacity, reserved FROM seat_inventory WHERE " + KEY;
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            setKey(pstmt, 1, trainId, travelDate, seatClass);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new SeatCount(rs.getInt("capacity"), rs.getInt("reserved")));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void save(String trainId, LocalDate travelDate, String seatClass, SeatCount count) throws SQLException {
+        String sql = "INSERT INTO seat_inventory (train_id, travel_date, seat_class, capacity, reserved) VALUES (?, ?, ?, ?, ?) "
+                + "ON CONFLICT (train_id, travel_date, seat_class) DO UPDATE SET capacity = excluded.capacity, reserved = excluded.reserved";
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            setKey(pstmt, 1, trainId, travelDate, seatClass);
+            pstmt.setInt(4, count.capacity());
+            pstmt.setInt(5, count.reserved());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void setKey(PreparedStatement pstmt, int first, String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        pstmt.setString(first, trainId);
+        pstmt.setDate(first + 1, Date.valueOf(travelDate));
+        pstmt.setString(first + 2, seatClass);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Unit of database work run against a pooled connection, see
+ * {@link ConnectionManager#inTransaction(SqlWork)}.
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    T execute(PooledConnection conn) throws SQLException;
+}
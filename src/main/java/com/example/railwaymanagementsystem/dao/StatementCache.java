@@ -0,0 +1,156 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded LRU cache of prepared statements for one physical connection, so
+ * SQLite parses and plans each distinct SQL string once per connection.
+ *
+ * <p>Statements are checked out while in use and only go back into the cache
+ * when the caller closes them. Callers get a proxy whose {@code close()}
+ * returns the statement instead of finalizing it, so DAO code keeps its usual
+ * try-with-resources shape.</p>
+ *
+ * <p>A connection is only used by one thread at a time, but the writer lease is
+ * reentrant, so access is still synchronized to stay safe under nesting.</p>
+ */
+final class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<String, PreparedStatement> idle;
+    private boolean closed;
+
+    StatementCache(Connection connection, int maxSize, Counters counters) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.counters = counters;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        if (maxSize <= 0) {
+            return connection.prepareStatement(sql);
+        }
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = idle.remove(sql);
+        }
+        if (statement != null && !statement.isClosed()) {
+            counters.hits.increment();
+        } else {
+            counters.misses.increment();
+            statement = connection.prepareStatement(sql);
+        }
+        return wrap(sql, statement);
+    }
+
+    void close() {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        toClose.forEach(StatementCache::closeQuietly);
+    }
+
+    private void giveBack(String sql, PreparedStatement statement) {
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement evicted = null;
+        PreparedStatement duplicate = null;
+        synchronized (this) {
+            if (closed) {
+                duplicate = statement;
+            } else {
+                // A nested lease may already have returned its own copy of the same SQL
+                duplicate = idle.putIfAbsent(sql, statement) == null ? null : statement;
+                if (idle.size() > maxSize) {
+                    Iterator<Map.Entry<String, PreparedStatement>> eldest = idle.entrySet().iterator();
+                    evicted = eldest.next().getValue();
+                    eldest.remove();
+                    counters.evictions.increment();
+                }
+            }
+        }
+        closeQuietly(duplicate);
+        closeQuietly(evicted);
+    }
+
+    private PreparedStatement wrap(String sql, PreparedStatement statement) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!returned) {
+                            returned = true;
+                            giveBack(sql, statement);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned || statement.isClosed();
+                    case "unwrap":
+                    case "isWrapperFor":
+                        break;
+                    default:
+                        if (returned) {
+                            throw new SQLException("Statement has been returned to the cache");
+                        }
+                }
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, handler);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing cached statement", e);
+        }
+    }
+
+    /** Hit/miss counters shared by every cache in the pool. */
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        StatementCacheStats snapshot() {
+            return new StatementCacheStats(hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+}
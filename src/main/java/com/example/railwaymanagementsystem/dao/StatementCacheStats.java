@@ -0,0 +1,18 @@
+package com.example.railwaymanagementsystem.dao;
+
+/**
+ * Point-in-time snapshot of prepared statement cache activity across all pooled connections.
+ */
+public record StatementCacheStats(long hits, long misses, long evictions) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d evictions=%d hitRate=%.1f%%",
+                hits, misses, evictions, hitRate() * 100);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.railwaymanagementsystem.dao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizes repeated column values so rows that say the same thing share
+ * one {@code String}. Meant for low-cardinality columns (stations, classes,
+ * statuses): once {@code maxEntries} distinct values have been seen, new
+ * values are passed through unshared rather than growing the table forever.
+ */
+final class StringDictionary {
+    private final int maxEntries;
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param seeds values that must map to these exact instances, e.g. the
+     *              status labels code compares against
+     */
+    StringDictionary(int maxEntries, String... seeds) {
+        this.maxEntries = maxEntries;
+        for (String seed : seeds) {
+            entries.put(seed, seed);
+        }
+    }
+
+    String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = entries.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (entries.size() >= maxEntries) {
+            return value;
+        }
+        shared = entries.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+}
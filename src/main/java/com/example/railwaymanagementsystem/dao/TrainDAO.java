@@ -6,18 +6,22 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class TrainDAO {
-    private Connection connection;
-
-    public TrainDAO() {
-        this.connection = ConnectionManager.getConnection();
-    }
+    private static final IdAllocator ID_ALLOCATOR = IdAllocator.forTable("trains", 10);
+    private static final KeysetQuery PAGES = new KeysetQuery("trains",
+            Set.of("id", "train_number", "train_name"),
+            List.of("train_number", "train_name", "route"),
+            Set.of("status", "type", "route"));
+    private static final String INSERT_SQL = "INSERT INTO trains (id, train_number, train_name, type, route, status) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE trains SET train_number = ?, train_name = ?, type = ?, route = ?, status = ? WHERE id = ?";
 
     public List<Train> getAllTrains() throws SQLException {
         List<Train> trains = new ArrayList<>();
         String sql = "SELECT * FROM trains";
-        try (Statement stmt = connection.createStatement();
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 trains.add(mapTrainFromResultSet(rs));
@@ -28,7 +32,8 @@ public class TrainDAO {
 
     public Optional<Train> findTrainById(String id) throws SQLException {
         String sql = "SELECT * FROM trains WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -41,7 +46,8 @@ public class TrainDAO {
 
     public Optional<Train> findTrainByNumber(String trainNumber) throws SQLException {
         String sql = "SELECT * FROM trains WHERE train_number = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, trainNumber);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -53,42 +59,88 @@ public class TrainDAO {
     }
 
     public Train addTrain(Train train) throws SQLException {
-        String sql = "INSERT INTO trains (id, train_number, train_name, type, route, status) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, train.getId());
-            pstmt.setString(2, train.getTrainNumber());
-            pstmt.setString(3, train.getTrainName());
-            pstmt.setString(4, train.getType());
-            pstmt.setString(5, train.getRoute());
-            pstmt.setString(6, train.getStatus());
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            setTrainInsertParameters(pstmt, train);
             pstmt.executeUpdate();
         }
         return train;
     }
 
     public boolean updateTrain(Train train) throws SQLException {
-        String sql = "UPDATE trains SET train_number = ?, train_name = ?, type = ?, route = ?, status = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, train.getTrainNumber());
-            pstmt.setString(2, train.getTrainName());
-            pstmt.setString(3, train.getType());
-            pstmt.setString(4, train.getRoute());
-            pstmt.setString(5, train.getStatus());
-            pstmt.setString(6, train.getId());
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+            setTrainUpdateParameters(pstmt, train);
             return pstmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * Insert all trains with one batched statement in a single transaction.
+     */
+    public List<Train> addTrains(List<Train> trains) throws SQLException {
+        if (trains.isEmpty()) {
+            return trains;
+        }
+        return ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                for (Train train : trains) {
+                    setTrainInsertParameters(pstmt, train);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return trains;
+        });
+    }
+
+    /**
+     * Update all trains with one batched statement in a single transaction.
+     * Throws, rolling the whole batch back, if any train has no row.
+     */
+    public void updateTrains(List<Train> trains) throws SQLException {
+        if (trains.isEmpty()) {
+            return;
+        }
+        ConnectionManager.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (Train train : trains) {
+                    setTrainUpdateParameters(pstmt, train);
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        throw new SQLException("No train with id " + trains.get(i).getId() + "; batch update rolled back");
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
     public boolean removeTrain(String id) throws SQLException {
         String sql = "DELETE FROM trains WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             return pstmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * One keyset page of trains, seeking past the request's last key.
+     */
+    public Page<Train> findTrainsPage(PageRequest request) throws SQLException {
+        return PAGES.fetch(request, this::mapTrainFromResultSet);
+    }
+
+    public long countTrains(PageRequest request) throws SQLException {
+        return PAGES.count(request);
+    }
+
     public String getNextTrainId() throws SQLException {
-        return String.valueOf(getMaxId("trains", "id") + 1);
+        return ID_ALLOCATOR.nextId();
     }
 
     private Train mapTrainFromResultSet(ResultSet rs) throws SQLException {
@@ -102,14 +154,21 @@ public class TrainDAO {
         );
     }
 
-    private int getMaxId(String table, String idColumn) throws SQLException {
-        String sql = "SELECT MAX(CAST(" + idColumn + " AS INTEGER)) FROM " + table;
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next() && rs.getObject(1) != null) {
-                return rs.getInt(1);
-            }
-        }
-        return 0;
+    private void setTrainInsertParameters(PreparedStatement pstmt, Train train) throws SQLException {
+        pstmt.setString(1, train.getId());
+        pstmt.setString(2, train.getTrainNumber());
+        pstmt.setString(3, train.getTrainName());
+        pstmt.setString(4, train.getType());
+        pstmt.setString(5, train.getRoute());
+        pstmt.setString(6, train.getStatus());
+    }
+
+    private void setTrainUpdateParameters(PreparedStatement pstmt, Train train) throws SQLException {
+        pstmt.setString(1, train.getTrainNumber());
+        pstmt.setString(2, train.getTrainName());
+        pstmt.setString(3, train.getType());
+        pstmt.setString(4, train.getRoute());
+        pstmt.setString(5, train.getStatus());
+        pstmt.setString(6, train.getId());
     }
 }
@@ -6,17 +6,19 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class UserDAO {
-    private Connection connection;
-
-    public UserDAO() {
-        this.connection = ConnectionManager.getConnection();
-    }
+    private static final IdAllocator ID_ALLOCATOR = IdAllocator.forTable("users", 20);
+    private static final KeysetQuery PAGES = new KeysetQuery("users",
+            Set.of("id", "name", "email", "role"),
+            List.of("name", "email"),
+            Set.of("role"));
 
     public Optional<User> findUserByEmail(String email) throws SQLException {
-        String sql = "SELECT * FROM users WHERE LOWER(email) = LOWER(?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = "SELECT * FROM users WHERE email = ? COLLATE NOCASE";
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -29,7 +31,8 @@ public class UserDAO {
 
     public Optional<User> findUserById(String id) throws SQLException {
         String sql = "SELECT * FROM users WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -43,7 +46,8 @@ public class UserDAO {
     public List<User> getAllUsers() throws SQLException {
         List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM users";
-        try (Statement stmt = connection.createStatement();
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 users.add(mapUserFromResultSet(rs));
@@ -54,7 +58,8 @@ public class UserDAO {
 
     public User addUser(User user) throws SQLException {
         String sql = "INSERT INTO users (id, name, email, phone, role, password, cnic, date_of_birth, gender, address, city, postal_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             // This helper is safe for INSERT
             setUserParametersForInsert(pstmt, user);
             pstmt.executeUpdate();
@@ -64,7 +69,8 @@ public class UserDAO {
 
     public boolean updateUser(User user) throws SQLException {
         String sql = "UPDATE users SET name = ?, email = ?, phone = ?, role = ?, password = ?, cnic = ?, date_of_birth = ?, gender = ?, address = ?, city = ?, postal_code = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             // Set parameters in the correct order for the UPDATE statement
             pstmt.setString(1, user.getName());
             pstmt.setString(2, user.getEmail());
@@ -90,15 +96,17 @@ public class UserDAO {
 
     public boolean removeUser(String id) throws SQLException {
         String sql = "DELETE FROM users WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection conn = ConnectionManager.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             return pstmt.executeUpdate() > 0;
         }
     }
 
     public boolean emailExists(String email, String excludeUserId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM users WHERE LOWER(email) = LOWER(?) AND id != ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = "SELECT COUNT(*) FROM users WHERE email = ? COLLATE NOCASE AND id != ?";
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
             pstmt.setString(2, excludeUserId != null ? excludeUserId : "");
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -107,8 +115,19 @@ public class UserDAO {
         }
     }
 
+    /**
+     * One keyset page of users, seeking past the request's last key.
+     */
+    public Page<User> findUsersPage(PageRequest request) throws SQLException {
+        return PAGES.fetch(request, this::mapUserFromResultSet);
+    }
+
+    public long countUsers(PageRequest request) throws SQLException {
+        return PAGES.count(request);
+    }
+
     public String getNextUserId() throws SQLException {
-        return String.valueOf(getMaxId("users", "id") + 1);
+        return ID_ALLOCATOR.nextId();
     }
 
     private User mapUserFromResultSet(ResultSet rs) throws SQLException {
@@ -150,15 +169,4 @@ public class UserDAO {
         pstmt.setString(11, user.getCity());
         pstmt.setString(12, user.getPostalCode());
     }
-
-    private int getMaxId(String table, String idColumn) throws SQLException {
-        String sql = "SELECT MAX(CAST(" + idColumn + " AS INTEGER)) FROM " + table;
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next() && rs.getObject(1) != null) {
-                return rs.getInt(1);
-            }
-        }
-        return 0;
-    }
 }
@@ -7,23 +7,45 @@ import java.time.LocalDateTime;
 
 /**
  * Booking Model - Represents a ticket booking
+ *
+ * <p>Values are kept in plain fields; a JavaFX property is only created when
+ * something asks for it (a table cell, a binding, a list extractor), after
+ * which it holds the value. Bookings that are cached or streamed but never
+ * shown cost one small object instead of fifteen properties.</p>
  */
 public class Booking {
-    private final StringProperty id;
-    private final StringProperty userId;
-    private final StringProperty trainId;
-    private final StringProperty trainNumber;
-    private final StringProperty trainName;
-    private final StringProperty fromStation;
-    private final StringProperty toStation;
-    private final ObjectProperty<LocalDate> travelDate;
-    private final IntegerProperty numberOfSeats;
-    private final StringProperty seatClass; // Economy, Business, First Class
-    private final DoubleProperty totalAmount;
-    private final StringProperty status; // Confirmed, Cancelled, Pending
-    private final ObjectProperty<LocalDateTime> bookingDateTime;
-    private final StringProperty paymentMethod; // Cash on Delivery, Card, etc.
-    private final StringProperty paymentStatus; // Pending, Paid, Failed
+    private String id;
+    private StringProperty idProperty;
+    private String userId;
+    private StringProperty userIdProperty;
+    private String trainId;
+    private StringProperty trainIdProperty;
+    private String trainNumber;
+    private StringProperty trainNumberProperty;
+    private String trainName;
+    private StringProperty trainNameProperty;
+    private String fromStation;
+    private StringProperty fromStationProperty;
+    private String toStation;
+    private StringProperty toStationProperty;
+    private LocalDate travelDate;
+    private ObjectProperty<LocalDate> travelDateProperty;
+    private int numberOfSeats;
+    private IntegerProperty numberOfSeatsProperty;
+    private String seatClass; // Economy, Business, First Class
+    private StringProperty seatClassProperty;
+    private double totalAmount;
+    private DoubleProperty totalAmountProperty;
+    private String status; // Confirmed, Cancelled, Pending
+    private StringProperty statusProperty;
+    private LocalDateTime bookingDateTime;
+    private ObjectProperty<LocalDateTime> bookingDateTimeProperty;
+    private String paymentMethod; // Cash on Delivery, Card, etc.
+    private StringProperty paymentMethodProperty;
+    private String paymentStatus; // Pending, Paid, Failed
+    private StringProperty paymentStatusProperty;
+    private String seatNumbers = ""; // e.g. "C2-7, C2-8", see CoachLayout
+    private StringProperty seatNumbersProperty;
 
     public Booking() {
         this("", "", "", "", "", "", "",
@@ -43,83 +65,264 @@ public class Booking {
                    LocalDate travelDate, int numberOfSeats, String seatClass,
                    double totalAmount, String status, LocalDateTime bookingDateTime,
                    String paymentMethod, String paymentStatus) {
-        this.id = new SimpleStringProperty(id);
-        this.userId = new SimpleStringProperty(userId);
-        this.trainId = new SimpleStringProperty(trainId);
-        this.trainNumber = new SimpleStringProperty(trainNumber);
-        this.trainName = new SimpleStringProperty(trainName);
-        this.fromStation = new SimpleStringProperty(fromStation);
-        this.toStation = new SimpleStringProperty(toStation);
-        this.travelDate = new SimpleObjectProperty<>(travelDate);
-        this.numberOfSeats = new SimpleIntegerProperty(numberOfSeats);
-        this.seatClass = new SimpleStringProperty(seatClass);
-        this.totalAmount = new SimpleDoubleProperty(totalAmount);
-        this.status = new SimpleStringProperty(status);
-        this.bookingDateTime = new SimpleObjectProperty<>(bookingDateTime);
-        this.paymentMethod = new SimpleStringProperty(paymentMethod);
-        this.paymentStatus = new SimpleStringProperty(paymentStatus);
+        this.id = id;
+        this.userId = userId;
+        this.trainId = trainId;
+        this.trainNumber = trainNumber;
+        this.trainName = trainName;
+        this.fromStation = fromStation;
+        this.toStation = toStation;
+        this.travelDate = travelDate;
+        this.numberOfSeats = numberOfSeats;
+        this.seatClass = seatClass;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.bookingDateTime = bookingDateTime;
+        this.paymentMethod = paymentMethod;
+        this.paymentStatus = paymentStatus;
     }
 
     // Getters and setters
-    public String getId() { return id.get(); }
-    public void setId(String value) { id.set(value); }
-    public StringProperty idProperty() { return id; }
+    public String getId() { return idProperty == null ? id : idProperty.get(); }
+    public void setId(String value) {
+        if (idProperty == null) {
+            id = value;
+        } else {
+            idProperty.set(value);
+        }
+    }
+    public StringProperty idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleStringProperty(id);
+        }
+        return idProperty;
+    }
 
-    public String getUserId() { return userId.get(); }
-    public void setUserId(String value) { userId.set(value); }
-    public StringProperty userIdProperty() { return userId; }
+    public String getUserId() { return userIdProperty == null ? userId : userIdProperty.get(); }
+    public void setUserId(String value) {
+        if (userIdProperty == null) {
+            userId = value;
+        } else {
+            userIdProperty.set(value);
+        }
+    }
+    public StringProperty userIdProperty() {
+        if (userIdProperty == null) {
+            userIdProperty = new SimpleStringProperty(userId);
+        }
+        return userIdProperty;
+    }
 
-    public String getTrainId() { return trainId.get(); }
-    public void setTrainId(String value) { trainId.set(value); }
-    public StringProperty trainIdProperty() { return trainId; }
+    public String getTrainId() { return trainIdProperty == null ? trainId : trainIdProperty.get(); }
+    public void setTrainId(String value) {
+        if (trainIdProperty == null) {
+            trainId = value;
+        } else {
+            trainIdProperty.set(value);
+        }
+    }
+    public StringProperty trainIdProperty() {
+        if (trainIdProperty == null) {
+            trainIdProperty = new SimpleStringProperty(trainId);
+        }
+        return trainIdProperty;
+    }
 
-    public String getTrainNumber() { return trainNumber.get(); }
-    public void setTrainNumber(String value) { trainNumber.set(value); }
-    public StringProperty trainNumberProperty() { return trainNumber; }
+    public String getTrainNumber() { return trainNumberProperty == null ? trainNumber : trainNumberProperty.get(); }
+    public void setTrainNumber(String value) {
+        if (trainNumberProperty == null) {
+            trainNumber = value;
+        } else {
+            trainNumberProperty.set(value);
+        }
+    }
+    public StringProperty trainNumberProperty() {
+        if (trainNumberProperty == null) {
+            trainNumberProperty = new SimpleStringProperty(trainNumber);
+        }
+        return trainNumberProperty;
+    }
 
-    public String getTrainName() { return trainName.get(); }
-    public void setTrainName(String value) { trainName.set(value); }
-    public StringProperty trainNameProperty() { return trainName; }
+    public String getTrainName() { return trainNameProperty == null ? trainName : trainNameProperty.get(); }
+    public void setTrainName(String value) {
+        if (trainNameProperty == null) {
+            trainName = value;
+        } else {
+            trainNameProperty.set(value);
+        }
+    }
+    public StringProperty trainNameProperty() {
+        if (trainNameProperty == null) {
+            trainNameProperty = new SimpleStringProperty(trainName);
+        }
+        return trainNameProperty;
+    }
 
-    public String getFromStation() { return fromStation.get(); }
-    public void setFromStation(String value) { fromStation.set(value); }
-    public StringProperty fromStationProperty() { return fromStation; }
+    public String getFromStation() { return fromStationProperty == null ? fromStation : fromStationProperty.get(); }
+    public void setFromStation(String value) {
+        if (fromStationProperty == null) {
+            fromStation = value;
+        } else {
+            fromStationProperty.set(value);
+        }
+    }
+    public StringProperty fromStationProperty() {
+        if (fromStationProperty == null) {
+            fromStationProperty = new SimpleStringProperty(fromStation);
+        }
+        return fromStationProperty;
+    }
 
-    public String getToStation() { return toStation.get(); }
-    public void setToStation(String value) { toStation.set(value); }
-    public StringProperty toStationProperty() { return toStation; }
+    public String getToStation() { return toStationProperty == null ? toStation : toStationProperty.get(); }
+    public void setToStation(String value) {
+        if (toStationProperty == null) {
+            toStation = value;
+        } else {
+            toStationProperty.set(value);
+        }
+    }
+    public StringProperty toStationProperty() {
+        if (toStationProperty == null) {
+            toStationProperty = new SimpleStringProperty(toStation);
+        }
+        return toStationProperty;
+    }
 
-    public LocalDate getTravelDate() { return travelDate.get(); }
-    public void setTravelDate(LocalDate value) { travelDate.set(value); }
-    public ObjectProperty<LocalDate> travelDateProperty() { return travelDate; }
+    public LocalDate getTravelDate() { return travelDateProperty == null ? travelDate : travelDateProperty.get(); }
+    public void setTravelDate(LocalDate value) {
+        if (travelDateProperty == null) {
+            travelDate = value;
+        } else {
+            travelDateProperty.set(value);
+        }
+    }
+    public ObjectProperty<LocalDate> travelDateProperty() {
+        if (travelDateProperty == null) {
+            travelDateProperty = new SimpleObjectProperty<>(travelDate);
+        }
+        return travelDateProperty;
+    }
 
-    public int getNumberOfSeats() { return numberOfSeats.get(); }
-    public void setNumberOfSeats(int value) { numberOfSeats.set(value); }
-    public IntegerProperty numberOfSeatsProperty() { return numberOfSeats; }
+    public int getNumberOfSeats() { return numberOfSeatsProperty == null ? numberOfSeats : numberOfSeatsProperty.get(); }
+    public void setNumberOfSeats(int value) {
+        if (numberOfSeatsProperty == null) {
+            numberOfSeats = value;
+        } else {
+            numberOfSeatsProperty.set(value);
+        }
+    }
+    public IntegerProperty numberOfSeatsProperty() {
+        if (numberOfSeatsProperty == null) {
+            numberOfSeatsProperty = new SimpleIntegerProperty(numberOfSeats);
+        }
+        return numberOfSeatsProperty;
+    }
 
-    public String getSeatClass() { return seatClass.get(); }
-    public void setSeatClass(String value) { seatClass.set(value); }
-    public StringProperty seatClassProperty() { return seatClass; }
+    public String getSeatClass() { return seatClassProperty == null ? seatClass : seatClassProperty.get(); }
+    public void setSeatClass(String value) {
+        if (seatClassProperty == null) {
+            seatClass = value;
+        } else {
+            seatClassProperty.set(value);
+        }
+    }
+    public StringProperty seatClassProperty() {
+        if (seatClassProperty == null) {
+            seatClassProperty = new SimpleStringProperty(seatClass);
+        }
+        return seatClassProperty;
+    }
 
-    public double getTotalAmount() { return totalAmount.get(); }
-    public void setTotalAmount(double value) { totalAmount.set(value); }
-    public DoubleProperty totalAmountProperty() { return totalAmount; }
+    public double getTotalAmount() { return totalAmountProperty == null ? totalAmount : totalAmountProperty.get(); }
+    public void setTotalAmount(double value) {
+        if (totalAmountProperty == null) {
+            totalAmount = value;
+        } else {
+            totalAmountProperty.set(value);
+        }
+    }
+    public DoubleProperty totalAmountProperty() {
+        if (totalAmountProperty == null) {
+            totalAmountProperty = new SimpleDoubleProperty(totalAmount);
+        }
+        return totalAmountProperty;
+    }
 
-    public String getStatus() { return status.get(); }
-    public void setStatus(String value) { status.set(value); }
-    public StringProperty statusProperty() { return status; }
+    public String getStatus() { return statusProperty == null ? status : statusProperty.get(); }
+    public void setStatus(String value) {
+        if (statusProperty == null) {
+            status = value;
+        } else {
+            statusProperty.set(value);
+        }
+    }
+    public StringProperty statusProperty() {
+        if (statusProperty == null) {
+            statusProperty = new SimpleStringProperty(status);
+        }
+        return statusProperty;
+    }
 
-    public LocalDateTime getBookingDateTime() { return bookingDateTime.get(); }
-    public void setBookingDateTime(LocalDateTime value) { bookingDateTime.set(value); }
-    public ObjectProperty<LocalDateTime> bookingDateTimeProperty() { return bookingDateTime; }
+    public LocalDateTime getBookingDateTime() { return bookingDateTimeProperty == null ? bookingDateTime : bookingDateTimeProperty.get(); }
+    public void setBookingDateTime(LocalDateTime value) {
+        if (bookingDateTimeProperty == null) {
+            bookingDateTime = value;
+        } else {
+            bookingDateTimeProperty.set(value);
+        }
+    }
+    public ObjectProperty<LocalDateTime> bookingDateTimeProperty() {
+        if (bookingDateTimeProperty == null) {
+            bookingDateTimeProperty = new SimpleObjectProperty<>(bookingDateTime);
+        }
+        return bookingDateTimeProperty;
+    }
 
     // Payment Method
-    public String getPaymentMethod() { return paymentMethod.get(); }
-    public void setPaymentMethod(String value) { paymentMethod.set(value); }
-    public StringProperty paymentMethodProperty() { return paymentMethod; }
+    public String getPaymentMethod() { return paymentMethodProperty == null ? paymentMethod : paymentMethodProperty.get(); }
+    public void setPaymentMethod(String value) {
+        if (paymentMethodProperty == null) {
+            paymentMethod = value;
+        } else {
+            paymentMethodProperty.set(value);
+        }
+    }
+    public StringProperty paymentMethodProperty() {
+        if (paymentMethodProperty == null) {
+            paymentMethodProperty = new SimpleStringProperty(paymentMethod);
+        }
+        return paymentMethodProperty;
+    }
 
     // Payment Status
-    public String getPaymentStatus() { return paymentStatus.get(); }
-    public void setPaymentStatus(String value) { paymentStatus.set(value); }
-    public StringProperty paymentStatusProperty() { return paymentStatus; }
-}
+    public String getPaymentStatus() { return paymentStatusProperty == null ? paymentStatus : paymentStatusProperty.get(); }
+    public void setPaymentStatus(String value) {
+        if (paymentStatusProperty == null) {
+            paymentStatus = value;
+        } else {
+            paymentStatusProperty.set(value);
+        }
+    }
+    public StringProperty paymentStatusProperty() {
+        if (paymentStatusProperty == null) {
+            paymentStatusProperty = new SimpleStringProperty(paymentStatus);
+        }
+        return paymentStatusProperty;
+    }
+
+    // Seat Numbers
+    public String getSeatNumbers() { return seatNumbersProperty == null ? seatNumbers : seatNumbersProperty.get(); }
+    public void setSeatNumbers(String value) {
+        if (seatNumbersProperty == null) {
+            seatNumbers = value;
+        } else {
+            seatNumbersProperty.set(value);
+        }
+    }
+    public StringProperty seatNumbersProperty() {
+        if (seatNumbersProperty == null) {
+            seatNumbersProperty = new SimpleStringProperty(seatNumbers);
+        }
+        return seatNumbersProperty;
+    }
+}
\ No newline at end of file
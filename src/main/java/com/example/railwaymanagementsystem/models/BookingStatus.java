@@ -0,0 +1,31 @@
+package com.example.railwaymanagementsystem.models;
+
+/**
+ * Booking lifecycle states as stored in {@code bookings.status}.
+ */
+public enum BookingStatus {
+    PENDING("Pending"),
+    CONFIRMED("Confirmed"),
+    CANCELLED("Cancelled"),
+    /** Taken while the train was full; holds no seats until promoted to pending. */
+    WAITLISTED("Waitlisted");
+
+    private final String label;
+
+    BookingStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * True if the stored value is this status. Values read from the database
+     * share the label instance, so the common case is an identity check; the
+     * case-insensitive compare only runs for values built elsewhere.
+     */
+    public boolean matches(String value) {
+        return value == label || label.equalsIgnoreCase(value);
+    }
+}
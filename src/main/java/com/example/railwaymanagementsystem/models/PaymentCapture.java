@@ -0,0 +1,12 @@
+package com.example.railwaymanagementsystem.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Money taken by a payment gateway for one booking, as stored in
+ * {@code payment_captures}. It stays unsettled until the gateway has accepted
+ * it in a settlement batch.
+ */
+public record PaymentCapture(String bookingId, String gateway, String reference,
+                             double amount, LocalDateTime capturedAt) {
+}
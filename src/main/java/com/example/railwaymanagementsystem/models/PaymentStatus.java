@@ -0,0 +1,25 @@
+package com.example.railwaymanagementsystem.models;
+
+/**
+ * Payment states as stored in {@code bookings.payment_status}.
+ */
+public enum PaymentStatus {
+    PENDING("Pending"),
+    PAID("Paid"),
+    FAILED("Failed");
+
+    private final String label;
+
+    PaymentStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** True if the stored value is this status; see {@link BookingStatus#matches(String)}. */
+    public boolean matches(String value) {
+        return value == label || label.equalsIgnoreCase(value);
+    }
+}
@@ -4,16 +4,26 @@ import javafx.beans.property.*;
 
 /**
  * Schedule Model - Represents a train schedule
+ *
+ * <p>Properties are created on first use, as in {@link Booking}.</p>
  */
 public class Schedule {
-    private final StringProperty id;
-    private final StringProperty trainNumber;
-    private final StringProperty trainName;
-    private final StringProperty departureTime;
-    private final StringProperty arrivalTime;
-    private final StringProperty route;
-    private final StringProperty days;
-    private final StringProperty status;
+    private String id;
+    private StringProperty idProperty;
+    private String trainNumber;
+    private StringProperty trainNumberProperty;
+    private String trainName;
+    private StringProperty trainNameProperty;
+    private String departureTime;
+    private StringProperty departureTimeProperty;
+    private String arrivalTime;
+    private StringProperty arrivalTimeProperty;
+    private String route;
+    private StringProperty routeProperty;
+    private String days;
+    private StringProperty daysProperty;
+    private String status;
+    private StringProperty statusProperty;
 
     public Schedule() {
         this("", "", "", "", "", "", "", "Active");
@@ -22,46 +32,134 @@ public class Schedule {
     public Schedule(String id, String trainNumber, String trainName,
                     String departureTime, String arrivalTime, String route,
                     String days, String status) {
-        this.id = new SimpleStringProperty(id);
-        this.trainNumber = new SimpleStringProperty(trainNumber);
-        this.trainName = new SimpleStringProperty(trainName);
-        this.departureTime = new SimpleStringProperty(departureTime);
-        this.arrivalTime = new SimpleStringProperty(arrivalTime);
-        this.route = new SimpleStringProperty(route);
-        this.days = new SimpleStringProperty(days);
-        this.status = new SimpleStringProperty(status);
+        this.id = id;
+        this.trainNumber = trainNumber;
+        this.trainName = trainName;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.route = route;
+        this.days = days;
+        this.status = status;
     }
 
     // Getters and setters
-    public String getId() { return id.get(); }
-    public void setId(String value) { id.set(value); }
-    public StringProperty idProperty() { return id; }
+    public String getId() { return idProperty == null ? id : idProperty.get(); }
+    public void setId(String value) {
+        if (idProperty == null) {
+            id = value;
+        } else {
+            idProperty.set(value);
+        }
+    }
+    public StringProperty idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleStringProperty(id);
+        }
+        return idProperty;
+    }
 
-    public String getTrainNumber() { return trainNumber.get(); }
-    public void setTrainNumber(String value) { trainNumber.set(value); }
-    public StringProperty trainNumberProperty() { return trainNumber; }
+    public String getTrainNumber() { return trainNumberProperty == null ? trainNumber : trainNumberProperty.get(); }
+    public void setTrainNumber(String value) {
+        if (trainNumberProperty == null) {
+            trainNumber = value;
+        } else {
+            trainNumberProperty.set(value);
+        }
+    }
+    public StringProperty trainNumberProperty() {
+        if (trainNumberProperty == null) {
+            trainNumberProperty = new SimpleStringProperty(trainNumber);
+        }
+        return trainNumberProperty;
+    }
 
-    public String getTrainName() { return trainName.get(); }
-    public void setTrainName(String value) { trainName.set(value); }
-    public StringProperty trainNameProperty() { return trainName; }
+    public String getTrainName() { return trainNameProperty == null ? trainName : trainNameProperty.get(); }
+    public void setTrainName(String value) {
+        if (trainNameProperty == null) {
+            trainName = value;
+        } else {
+            trainNameProperty.set(value);
+        }
+    }
+    public StringProperty trainNameProperty() {
+        if (trainNameProperty == null) {
+            trainNameProperty = new SimpleStringProperty(trainName);
+        }
+        return trainNameProperty;
+    }
 
-    public String getDepartureTime() { return departureTime.get(); }
-    public void setDepartureTime(String value) { departureTime.set(value); }
-    public StringProperty departureTimeProperty() { return departureTime; }
+    public String getDepartureTime() { return departureTimeProperty == null ? departureTime : departureTimeProperty.get(); }
+    public void setDepartureTime(String value) {
+        if (departureTimeProperty == null) {
+            departureTime = value;
+        } else {
+            departureTimeProperty.set(value);
+        }
+    }
+    public StringProperty departureTimeProperty() {
+        if (departureTimeProperty == null) {
+            departureTimeProperty = new SimpleStringProperty(departureTime);
+        }
+        return departureTimeProperty;
+    }
 
-    public String getArrivalTime() { return arrivalTime.get(); }
-    public void setArrivalTime(String value) { arrivalTime.set(value); }
-    public StringProperty arrivalTimeProperty() { return arrivalTime; }
+    public String getArrivalTime() { return arrivalTimeProperty == null ? arrivalTime : arrivalTimeProperty.get(); }
+    public void setArrivalTime(String value) {
+        if (arrivalTimeProperty == null) {
+            arrivalTime = value;
+        } else {
+            arrivalTimeProperty.set(value);
+        }
+    }
+    public StringProperty arrivalTimeProperty() {
+        if (arrivalTimeProperty == null) {
+            arrivalTimeProperty = new SimpleStringProperty(arrivalTime);
+        }
+        return arrivalTimeProperty;
+    }
 
-    public String getRoute() { return route.get(); }
-    public void setRoute(String value) { route.set(value); }
-    public StringProperty routeProperty() { return route; }
+    public String getRoute() { return routeProperty == null ? route : routeProperty.get(); }
+    public void setRoute(String value) {
+        if (routeProperty == null) {
+            route = value;
+        } else {
+            routeProperty.set(value);
+        }
+    }
+    public StringProperty routeProperty() {
+        if (routeProperty == null) {
+            routeProperty = new SimpleStringProperty(route);
+        }
+        return routeProperty;
+    }
 
-    public String getDays() { return days.get(); }
-    public void setDays(String value) { days.set(value); }
-    public StringProperty daysProperty() { return days; }
+    public String getDays() { return daysProperty == null ? days : daysProperty.get(); }
+    public void setDays(String value) {
+        if (daysProperty == null) {
+            days = value;
+        } else {
+            daysProperty.set(value);
+        }
+    }
+    public StringProperty daysProperty() {
+        if (daysProperty == null) {
+            daysProperty = new SimpleStringProperty(days);
+        }
+        return daysProperty;
+    }
 
-    public String getStatus() { return status.get(); }
-    public void setStatus(String value) { status.set(value); }
-    public StringProperty statusProperty() { return status; }
+    public String getStatus() { return statusProperty == null ? status : statusProperty.get(); }
+    public void setStatus(String value) {
+        if (statusProperty == null) {
+            status = value;
+        } else {
+            statusProperty.set(value);
+        }
+    }
+    public StringProperty statusProperty() {
+        if (statusProperty == null) {
+            statusProperty = new SimpleStringProperty(status);
+        }
+        return statusProperty;
+    }
 }
@@ -4,14 +4,22 @@ import javafx.beans.property.*;
 
 /**
  * Train Model - Represents a train in the railway system
+ *
+ * <p>Properties are created on first use, as in {@link Booking}.</p>
  */
 public class Train {
-    private final StringProperty id;
-    private final StringProperty trainNumber;
-    private final StringProperty trainName;
-    private final StringProperty type;
-    private final StringProperty route;
-    private final StringProperty status;
+    private String id;
+    private StringProperty idProperty;
+    private String trainNumber;
+    private StringProperty trainNumberProperty;
+    private String trainName;
+    private StringProperty trainNameProperty;
+    private String type;
+    private StringProperty typeProperty;
+    private String route;
+    private StringProperty routeProperty;
+    private String status;
+    private StringProperty statusProperty;
 
     public Train() {
         this("", "", "", "", "", "");
@@ -19,41 +27,107 @@ public class Train {
 
     public Train(String id, String trainNumber, String trainName,
                  String type, String route, String status) {
-        this.id = new SimpleStringProperty(id);
-        this.trainNumber = new SimpleStringProperty(trainNumber);
-        this.trainName = new SimpleStringProperty(trainName);
-        this.type = new SimpleStringProperty(type);
-        this.route = new SimpleStringProperty(route);
-        this.status = new SimpleStringProperty(status);
+        this.id = id;
+        this.trainNumber = trainNumber;
+        this.trainName = trainName;
+        this.type = type;
+        this.route = route;
+        this.status = status;
     }
 
     // ID
-    public String getId() { return id.get(); }
-    public void setId(String value) { id.set(value); }
-    public StringProperty idProperty() { return id; }
+    public String getId() { return idProperty == null ? id : idProperty.get(); }
+    public void setId(String value) {
+        if (idProperty == null) {
+            id = value;
+        } else {
+            idProperty.set(value);
+        }
+    }
+    public StringProperty idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleStringProperty(id);
+        }
+        return idProperty;
+    }
 
     // Train Number
-    public String getTrainNumber() { return trainNumber.get(); }
-    public void setTrainNumber(String value) { trainNumber.set(value); }
-    public StringProperty trainNumberProperty() { return trainNumber; }
+    public String getTrainNumber() { return trainNumberProperty == null ? trainNumber : trainNumberProperty.get(); }
+    public void setTrainNumber(String value) {
+        if (trainNumberProperty == null) {
+            trainNumber = value;
+        } else {
+            trainNumberProperty.set(value);
+        }
+    }
+    public StringProperty trainNumberProperty() {
+        if (trainNumberProperty == null) {
+            trainNumberProperty = new SimpleStringProperty(trainNumber);
+        }
+        return trainNumberProperty;
+    }
 
     // Train Name
-    public String getTrainName() { return trainName.get(); }
-    public void setTrainName(String value) { trainName.set(value); }
-    public StringProperty trainNameProperty() { return trainName; }
+    public String getTrainName() { return trainNameProperty == null ? trainName : trainNameProperty.get(); }
+    public void setTrainName(String value) {
+        if (trainNameProperty == null) {
+            trainName = value;
+        } else {
+            trainNameProperty.set(value);
+        }
+    }
+    public StringProperty trainNameProperty() {
+        if (trainNameProperty == null) {
+            trainNameProperty = new SimpleStringProperty(trainName);
+        }
+        return trainNameProperty;
+    }
 
     // Type
-    public String getType() { return type.get(); }
-    public void setType(String value) { type.set(value); }
-    public StringProperty typeProperty() { return type; }
+    public String getType() { return typeProperty == null ? type : typeProperty.get(); }
+    public void setType(String value) {
+        if (typeProperty == null) {
+            type = value;
+        } else {
+            typeProperty.set(value);
+        }
+    }
+    public StringProperty typeProperty() {
+        if (typeProperty == null) {
+            typeProperty = new SimpleStringProperty(type);
+        }
+        return typeProperty;
+    }
 
     // Route
-    public String getRoute() { return route.get(); }
-    public void setRoute(String value) { route.set(value); }
-    public StringProperty routeProperty() { return route; }
+    public String getRoute() { return routeProperty == null ? route : routeProperty.get(); }
+    public void setRoute(String value) {
+        if (routeProperty == null) {
+            route = value;
+        } else {
+            routeProperty.set(value);
+        }
+    }
+    public StringProperty routeProperty() {
+        if (routeProperty == null) {
+            routeProperty = new SimpleStringProperty(route);
+        }
+        return routeProperty;
+    }
 
     // Status
-    public String getStatus() { return status.get(); }
-    public void setStatus(String value) { status.set(value); }
-    public StringProperty statusProperty() { return status; }
+    public String getStatus() { return statusProperty == null ? status : statusProperty.get(); }
+    public void setStatus(String value) {
+        if (statusProperty == null) {
+            status = value;
+        } else {
+            statusProperty.set(value);
+        }
+    }
+    public StringProperty statusProperty() {
+        if (statusProperty == null) {
+            statusProperty = new SimpleStringProperty(status);
+        }
+        return statusProperty;
+    }
 }
@@ -6,20 +6,34 @@ import java.time.LocalDate;
 
 /**
  * User Model - Represents a user (passenger or admin) in the system
+ *
+ * <p>Properties are created on first use, as in {@link Booking}.</p>
  */
 public class User {
-    private final StringProperty id;
-    private final StringProperty name;
-    private final StringProperty email;
-    private final StringProperty phone;
-    private final StringProperty role; // "passenger" or "admin"
-    private final StringProperty password; // In production, this would be hashed
-    private final StringProperty cnic;
-    private final ObjectProperty<LocalDate> dateOfBirth;
-    private final StringProperty gender;
-    private final StringProperty address;
-    private final StringProperty city;
-    private final StringProperty postalCode;
+    private String id;
+    private StringProperty idProperty;
+    private String name;
+    private StringProperty nameProperty;
+    private String email;
+    private StringProperty emailProperty;
+    private String phone;
+    private StringProperty phoneProperty;
+    private String role; // "passenger" or "admin"
+    private StringProperty roleProperty;
+    private String password; // In production, this would be hashed
+    private StringProperty passwordProperty;
+    private String cnic;
+    private StringProperty cnicProperty;
+    private LocalDate dateOfBirth;
+    private ObjectProperty<LocalDate> dateOfBirthProperty;
+    private String gender;
+    private StringProperty genderProperty;
+    private String address;
+    private StringProperty addressProperty;
+    private String city;
+    private StringProperty cityProperty;
+    private String postalCode;
+    private StringProperty postalCodeProperty;
 
     public User() {
         this("", "", "", "", "passenger", "");
@@ -27,77 +41,209 @@ public class User {
 
     public User(String id, String name, String email, String phone,
                 String role, String password) {
-        this.id = new SimpleStringProperty(id);
-        this.name = new SimpleStringProperty(name);
-        this.email = new SimpleStringProperty(email);
-        this.phone = new SimpleStringProperty(phone);
-        this.role = new SimpleStringProperty(role);
-        this.password = new SimpleStringProperty(password);
-        this.cnic = new SimpleStringProperty("");
-        this.dateOfBirth = new SimpleObjectProperty<>(null);
-        this.gender = new SimpleStringProperty("Unspecified");
-        this.address = new SimpleStringProperty("");
-        this.city = new SimpleStringProperty("");
-        this.postalCode = new SimpleStringProperty("");
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.role = role;
+        this.password = password;
+        this.cnic = "";
+        this.dateOfBirth = null;
+        this.gender = "Unspecified";
+        this.address = "";
+        this.city = "";
+        this.postalCode = "";
     }
 
     // ID
-    public String getId() { return id.get(); }
-    public void setId(String value) { id.set(value); }
-    public StringProperty idProperty() { return id; }
+    public String getId() { return idProperty == null ? id : idProperty.get(); }
+    public void setId(String value) {
+        if (idProperty == null) {
+            id = value;
+        } else {
+            idProperty.set(value);
+        }
+    }
+    public StringProperty idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleStringProperty(id);
+        }
+        return idProperty;
+    }
 
     // Name
-    public String getName() { return name.get(); }
-    public void setName(String value) { name.set(value); }
-    public StringProperty nameProperty() { return name; }
+    public String getName() { return nameProperty == null ? name : nameProperty.get(); }
+    public void setName(String value) {
+        if (nameProperty == null) {
+            name = value;
+        } else {
+            nameProperty.set(value);
+        }
+    }
+    public StringProperty nameProperty() {
+        if (nameProperty == null) {
+            nameProperty = new SimpleStringProperty(name);
+        }
+        return nameProperty;
+    }
 
     // Email
-    public String getEmail() { return email.get(); }
-    public void setEmail(String value) { email.set(value); }
-    public StringProperty emailProperty() { return email; }
+    public String getEmail() { return emailProperty == null ? email : emailProperty.get(); }
+    public void setEmail(String value) {
+        if (emailProperty == null) {
+            email = value;
+        } else {
+            emailProperty.set(value);
+        }
+    }
+    public StringProperty emailProperty() {
+        if (emailProperty == null) {
+            emailProperty = new SimpleStringProperty(email);
+        }
+        return emailProperty;
+    }
 
     // Phone
-    public String getPhone() { return phone.get(); }
-    public void setPhone(String value) { phone.set(value); }
-    public StringProperty phoneProperty() { return phone; }
+    public String getPhone() { return phoneProperty == null ? phone : phoneProperty.get(); }
+    public void setPhone(String value) {
+        if (phoneProperty == null) {
+            phone = value;
+        } else {
+            phoneProperty.set(value);
+        }
+    }
+    public StringProperty phoneProperty() {
+        if (phoneProperty == null) {
+            phoneProperty = new SimpleStringProperty(phone);
+        }
+        return phoneProperty;
+    }
 
     // Role
-    public String getRole() { return role.get(); }
-    public void setRole(String value) { role.set(value); }
-    public StringProperty roleProperty() { return role; }
+    public String getRole() { return roleProperty == null ? role : roleProperty.get(); }
+    public void setRole(String value) {
+        if (roleProperty == null) {
+            role = value;
+        } else {
+            roleProperty.set(value);
+        }
+    }
+    public StringProperty roleProperty() {
+        if (roleProperty == null) {
+            roleProperty = new SimpleStringProperty(role);
+        }
+        return roleProperty;
+    }
 
     // Password
-    public String getPassword() { return password.get(); }
-    public void setPassword(String value) { password.set(value); }
-    public StringProperty passwordProperty() { return password; }
+    public String getPassword() { return passwordProperty == null ? password : passwordProperty.get(); }
+    public void setPassword(String value) {
+        if (passwordProperty == null) {
+            password = value;
+        } else {
+            passwordProperty.set(value);
+        }
+    }
+    public StringProperty passwordProperty() {
+        if (passwordProperty == null) {
+            passwordProperty = new SimpleStringProperty(password);
+        }
+        return passwordProperty;
+    }
 
     // CNIC
-    public String getCnic() { return cnic.get(); }
-    public void setCnic(String value) { cnic.set(value); }
-    public StringProperty cnicProperty() { return cnic; }
+    public String getCnic() { return cnicProperty == null ? cnic : cnicProperty.get(); }
+    public void setCnic(String value) {
+        if (cnicProperty == null) {
+            cnic = value;
+        } else {
+            cnicProperty.set(value);
+        }
+    }
+    public StringProperty cnicProperty() {
+        if (cnicProperty == null) {
+            cnicProperty = new SimpleStringProperty(cnic);
+        }
+        return cnicProperty;
+    }
 
     // Date of Birth
-    public LocalDate getDateOfBirth() { return dateOfBirth.get(); }
-    public void setDateOfBirth(LocalDate value) { dateOfBirth.set(value); }
-    public ObjectProperty<LocalDate> dateOfBirthProperty() { return dateOfBirth; }
+    public LocalDate getDateOfBirth() { return dateOfBirthProperty == null ? dateOfBirth : dateOfBirthProperty.get(); }
+    public void setDateOfBirth(LocalDate value) {
+        if (dateOfBirthProperty == null) {
+            dateOfBirth = value;
+        } else {
+            dateOfBirthProperty.set(value);
+        }
+    }
+    public ObjectProperty<LocalDate> dateOfBirthProperty() {
+        if (dateOfBirthProperty == null) {
+            dateOfBirthProperty = new SimpleObjectProperty<>(dateOfBirth);
+        }
+        return dateOfBirthProperty;
+    }
 
     // Gender
-    public String getGender() { return gender.get(); }
-    public void setGender(String value) { gender.set(value); }
-    public StringProperty genderProperty() { return gender; }
+    public String getGender() { return genderProperty == null ? gender : genderProperty.get(); }
+    public void setGender(String value) {
+        if (genderProperty == null) {
+            gender = value;
+        } else {
+            genderProperty.set(value);
+        }
+    }
+    public StringProperty genderProperty() {
+        if (genderProperty == null) {
+            genderProperty = new SimpleStringProperty(gender);
+        }
+        return genderProperty;
+    }
 
     // Address
-    public String getAddress() { return address.get(); }
-    public void setAddress(String value) { address.set(value); }
-    public StringProperty addressProperty() { return address; }
+    public String getAddress() { return addressProperty == null ? address : addressProperty.get(); }
+    public void setAddress(String value) {
+        if (addressProperty == null) {
+            address = value;
+        } else {
+            addressProperty.set(value);
+        }
+    }
+    public StringProperty addressProperty() {
+        if (addressProperty == null) {
+            addressProperty = new SimpleStringProperty(address);
+        }
+        return addressProperty;
+    }
 
     // City
-    public String getCity() { return city.get(); }
-    public void setCity(String value) { city.set(value); }
-    public StringProperty cityProperty() { return city; }
+    public String getCity() { return cityProperty == null ? city : cityProperty.get(); }
+    public void setCity(String value) {
+        if (cityProperty == null) {
+            city = value;
+        } else {
+            cityProperty.set(value);
+        }
+    }
+    public StringProperty cityProperty() {
+        if (cityProperty == null) {
+            cityProperty = new SimpleStringProperty(city);
+        }
+        return cityProperty;
+    }
 
     // Postal Code
-    public String getPostalCode() { return postalCode.get(); }
-    public void setPostalCode(String value) { postalCode.set(value); }
-    public StringProperty postalCodeProperty() { return postalCode; }
+    public String getPostalCode() { return postalCodeProperty == null ? postalCode : postalCodeProperty.get(); }
+    public void setPostalCode(String value) {
+        if (postalCodeProperty == null) {
+            postalCode = value;
+        } else {
+            postalCodeProperty.set(value);
+        }
+    }
+    public StringProperty postalCodeProperty() {
+        if (postalCodeProperty == null) {
+            postalCodeProperty = new SimpleStringProperty(postalCode);
+        }
+        return postalCodeProperty;
+    }
 }
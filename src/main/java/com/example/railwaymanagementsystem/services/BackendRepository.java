@@ -1,7 +1,14 @@
 package com.example.railwaymanagementsystem.services;
 
+import com.example.railwaymanagementsystem.dao.BookingDAO;
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
+import com.example.railwaymanagementsystem.dao.SqlWork;
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
 import com.example.railwaymanagementsystem.models.Notification;
+import com.example.railwaymanagementsystem.models.PaymentCapture;
+import com.example.railwaymanagementsystem.models.PaymentStatus;
 import com.example.railwaymanagementsystem.models.Schedule;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.models.User;
@@ -9,113 +16,294 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Repository layer that delegates to DatabaseService for persistent storage
+ * Repository layer that delegates to DatabaseService for persistent storage.
+ *
+ * <p>In-memory state lives in thread-safe {@link EntityStore}s, so lookups
+ * and writes may come from any thread. The {@code ObservableList}s handed to
+ * screens are mirrors of those stores that are only ever changed on the FX
+ * thread, in coalesced batches.</p>
+ *
+ * <p>In {@link RepositoryMode#LAZY} mode only trains and schedules are held in
+ * full. Users and bookings are looked up in SQLite on demand and the hot ones
+ * kept in a bounded cache; {@link #getUsers()} and {@link #getBookings()} load
+ * the complete tables the first time they are called.</p>
  */
 public final class BackendRepository {
+    private static final Logger LOGGER = Logger.getLogger(BackendRepository.class.getName());
+    private static final int STREAM_FETCH_SIZE = Integer.getInteger("railsafar.db.fetchSize", BookingDAO.DEFAULT_FETCH_SIZE);
+    private static final int CACHE_SIZE = Integer.getInteger("railsafar.repository.cacheSize", 10_000);
     private static final BackendRepository INSTANCE = new BackendRepository();
     private final DatabaseService db = new DatabaseService();
-    private static final Logger LOGGER = Logger.getLogger(BackendRepository.class.getName());
-
-    private final ObservableList<User> users;
-    private final ObservableList<Train> trains;
-    private final ObservableList<Schedule> schedules;
-    private final ObservableList<Booking> bookings;
-    private final ObservableList<Notification> notifications;
+    private final RepositoryMode mode = RepositoryMode.fromSystemProperties();
+    private final FxDispatcher fxDispatcher = new FxDispatcher();
+
+    private final EntityStore<User> users = new EntityStore<>(User::getId, fxDispatcher);
+    private final EntityStore<Train> trains = new EntityStore<>(Train::getId, fxDispatcher);
+    private final EntityStore<Schedule> schedules = new EntityStore<>(Schedule::getId, fxDispatcher);
+    // Booking ids double as the PNR
+    private final EntityStore<Booking> bookings = new EntityStore<>(Booking::getId, fxDispatcher);
+    private final ObservableList<Notification> notifications = FXCollections.observableArrayList();
+
+    private final UniqueIndex<User> usersByEmail = users.uniqueIndex(User::getEmail, email -> email.toLowerCase(Locale.ROOT));
+    private final UniqueIndex<Train> trainsByNumber = trains.uniqueIndex(Train::getTrainNumber, number -> number.toUpperCase(Locale.ROOT));
+    private final UniqueIndex<Schedule> schedulesByTrainNumber = schedules.uniqueIndex(Schedule::getTrainNumber, number -> number.toUpperCase(Locale.ROOT));
+    private final MultiIndex<Booking> bookingsByUser = bookings.multiIndex(Booking::getUserId);
+    private final MultiIndex<Booking> bookingsByTrainDate = bookings.multiIndex(booking -> trainDateKey(booking.getTrainId(), booking.getTravelDate()));
+    private final MultiIndex<Booking> bookingsByPaymentStatus = bookings.multiIndex(Booking::getPaymentStatus);
+
+    private final SeatInventory seatInventory = new SeatInventory(db);
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(db);
+    private final PnrGenerator pnrGenerator = new PnrGenerator(db);
+
+    private final BoundedCache<String, User> userCache = new BoundedCache<>(CACHE_SIZE);
+    private final BoundedCache<String, Booking> bookingCache = new BoundedCache<>(CACHE_SIZE);
+    // Lower-cased email -> user id; entries are checked against userCache, so stale ones just miss
+    private final BoundedCache<String, String> userIdsByEmail = new BoundedCache<>(CACHE_SIZE);
+    // Writes hold the read side so a full-table load never misses a concurrent write
+    private final ReadWriteLock usersLoadGuard = new ReentrantReadWriteLock();
+    private final ReadWriteLock bookingsLoadGuard = new ReentrantReadWriteLock();
+    private volatile boolean usersLoaded;
+    private volatile boolean bookingsLoaded;
+    private final RepositoryStartupStats startupStats;
 
     private BackendRepository() {
-        users = FXCollections.observableArrayList();
-        trains = FXCollections.observableArrayList();
-        schedules = FXCollections.observableArrayList();
-        bookings = FXCollections.observableArrayList();
-        notifications = FXCollections.observableArrayList();
-        loadInitialData();
+        startupStats = loadInitialData();
+        LOGGER.info(startupStats.toString());
     }
 
-    private void loadInitialData() {
+    private RepositoryStartupStats loadInitialData() {
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
         try {
-            users.setAll(db.getAllUsers());
-            trains.setAll(db.getAllTrains());
-            schedules.setAll(db.getAllSchedules());
-            bookings.setAll(db.getAllBookings());
+            trains.putAll(db.getAllTrains());
+            schedules.putAll(db.getAllSchedules());
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error loading initial data", e);
         }
+        if (mode == RepositoryMode.EAGER) {
+            ensureUsersLoaded();
+            ensureBookingsLoaded();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long heapDelta = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+        return new RepositoryStartupStats(mode, elapsed, Math.max(heapDelta, 0),
+                users.size(), trains.size(), schedules.size(), bookings.size());
+    }
+
+    private void ensureUsersLoaded() {
+        if (usersLoaded) {
+            return;
+        }
+        usersLoadGuard.writeLock().lock();
+        try {
+            if (!usersLoaded) {
+                users.putAll(db.getAllUsers());
+                usersLoaded = true;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading users", e);
+        } finally {
+            usersLoadGuard.writeLock().unlock();
+        }
+    }
+
+    private void ensureBookingsLoaded() {
+        if (bookingsLoaded) {
+            return;
+        }
+        bookingsLoadGuard.writeLock().lock();
+        try {
+            if (!bookingsLoaded) {
+                bookings.putAll(db.getAllBookings());
+                bookingsLoaded = true;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading bookings", e);
+        } finally {
+            bookingsLoadGuard.writeLock().unlock();
+        }
     }
 
     public static BackendRepository getInstance() {
         return INSTANCE;
     }
 
+    public RepositoryMode getMode() {
+        return mode;
+    }
+
+    public RepositoryStartupStats getStartupStats() {
+        return startupStats;
+    }
+
     // User operations
     public Optional<User> findUserByEmail(String email) {
-        return users.stream()
-                .filter(user -> user.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        if (usersLoaded) {
+            return usersByEmail.find(email);
+        }
+        String key = emailKey(email);
+        String id = userIdsByEmail.get(key);
+        if (id != null) {
+            User cached = userCache.get(id);
+            if (cached != null && key.equals(emailKey(cached.getEmail()))) {
+                return Optional.of(cached);
+            }
+            userIdsByEmail.remove(key);
+        }
+        try {
+            return db.findUserByEmail(email).map(this::cacheUser);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding user by email", e);
+            return Optional.empty();
+        }
     }
 
     public Optional<User> findUserById(String id) {
-        return users.stream()
-                .filter(user -> user.getId().equals(id))
-                .findFirst();
+        if (usersLoaded) {
+            return users.get(id);
+        }
+        User cached = userCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            return db.findUserById(id).map(this::cacheUser);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding user by id", e);
+            return Optional.empty();
+        }
     }
 
+    /** FX-thread view of every user; loads the users table on first call in lazy mode. */
     public ObservableList<User> getUsers() {
-        return users;
+        ensureUsersLoaded();
+        return users.view();
+    }
+
+    private User cacheUser(User user) {
+        // Keep handing out the instance callers already hold
+        User cached = userCache.get(user.getId());
+        if (cached != null) {
+            rememberEmail(cached);
+            return cached;
+        }
+        userCache.put(user.getId(), user);
+        rememberEmail(user);
+        return user;
+    }
+
+    private void rememberEmail(User user) {
+        if (user.getEmail() != null) {
+            userIdsByEmail.put(emailKey(user.getEmail()), user.getId());
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
     }
 
     public User addUser(User user) {
+        usersLoadGuard.readLock().lock();
         try {
             User newUser = db.addUser(user);
-            users.add(newUser);
+            if (usersLoaded) {
+                users.put(newUser);
+            }
+            userCache.put(newUser.getId(), newUser);
+            rememberEmail(newUser);
             return newUser;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error adding user", e);
             return user;
+        } finally {
+            usersLoadGuard.readLock().unlock();
         }
     }
 
     public boolean updateUser(User user) {
+        usersLoadGuard.readLock().lock();
         try {
             if (db.updateUser(user)) {
-                int index = -1;
-                for (int i = 0; i < users.size(); i++) {
-                    if (users.get(i).getId().equals(user.getId())) {
-                        index = i;
-                        break;
-                    }
-                }
-                if (index != -1) {
-                    users.set(index, user);
+                if (usersLoaded) {
+                    users.put(user);
                 }
+                userCache.put(user.getId(), user);
+                rememberEmail(user);
                 return true;
             }
             return false;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating user", e);
             return false;
+        } finally {
+            usersLoadGuard.readLock().unlock();
         }
     }
 
     public void removeUser(String id) {
+        usersLoadGuard.readLock().lock();
         try {
             if (db.removeUser(id)) {
-                users.removeIf(user -> user.getId().equals(id));
+                users.remove(id);
+                userCache.remove(id);
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error removing user", e);
+        } finally {
+            usersLoadGuard.readLock().unlock();
         }
     }
 
     public boolean emailExists(String email, String excludeUserId) {
-        return users.stream()
-                .anyMatch(user -> user.getEmail().equalsIgnoreCase(email) && !user.getId().equals(excludeUserId));
+        if (usersLoaded) {
+            return usersByEmail.find(email)
+                    .filter(user -> !user.getId().equals(excludeUserId))
+                    .isPresent();
+        }
+        try {
+            return db.emailExists(email, excludeUserId);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error checking email", e);
+            return false;
+        }
+    }
+
+    public Page<User> findUsersPage(PageRequest request) {
+        try {
+            return db.findUsersPage(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading page of users", e);
+            return Page.empty();
+        }
+    }
+
+    public long countUsers(PageRequest request) {
+        try {
+            return db.countUsers(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting users", e);
+            return 0;
+        }
     }
 
     public String nextUserId() {
@@ -128,26 +316,28 @@ public final class BackendRepository {
     }
 
     // Train operations
+    /** FX-thread view of every train. */
     public ObservableList<Train> getTrains() {
-        return trains;
+        return trains.view();
+    }
+
+    /** Point-in-time copy of every train, safe to use off the FX thread. */
+    public List<Train> snapshotTrains() {
+        return trains.snapshot();
     }
 
     public Optional<Train> findTrainById(String id) {
-        return trains.stream()
-                .filter(train -> train.getId().equals(id))
-                .findFirst();
+        return trains.get(id);
     }
 
     public Optional<Train> findTrainByNumber(String trainNumber) {
-        return trains.stream()
-                .filter(train -> train.getTrainNumber().equalsIgnoreCase(trainNumber))
-                .findFirst();
+        return trainsByNumber.find(trainNumber);
     }
 
     public Train addTrain(Train train) {
         try {
             Train newTrain = db.addTrain(train);
-            trains.add(newTrain);
+            trains.put(newTrain);
             return newTrain;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error adding train", e);
@@ -158,16 +348,7 @@ public final class BackendRepository {
     public boolean updateTrain(Train train) {
         try {
             if (db.updateTrain(train)) {
-                int index = -1;
-                for (int i = 0; i < trains.size(); i++) {
-                    if (trains.get(i).getId().equals(train.getId())) {
-                        index = i;
-                        break;
-                    }
-                }
-                if (index != -1) {
-                    trains.set(index, train);
-                }
+                trains.put(train);
                 return true;
             }
             return false;
@@ -177,16 +358,56 @@ public final class BackendRepository {
         }
     }
 
+    public List<Train> addTrains(List<Train> newTrains) {
+        try {
+            List<Train> added = db.addTrains(newTrains);
+            trains.putAll(added);
+            return added;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error adding trains", e);
+            return Collections.emptyList();
+        }
+    }
+
+    public boolean updateTrains(List<Train> changed) {
+        try {
+            db.updateTrains(changed);
+            trains.putAll(changed);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating trains", e);
+            return false;
+        }
+    }
+
     public void removeTrain(String id) {
         try {
             if (db.removeTrain(id)) {
-                trains.removeIf(train -> train.getId().equals(id));
+                trains.remove(id);
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error removing train", e);
         }
     }
 
+    public Page<Train> findTrainsPage(PageRequest request) {
+        try {
+            return db.findTrainsPage(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading page of trains", e);
+            return Page.empty();
+        }
+    }
+
+    public long countTrains(PageRequest request) {
+        try {
+            return db.countTrains(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting trains", e);
+            return 0;
+        }
+    }
+
     public String nextTrainId() {
         try {
             return db.getNextTrainId();
@@ -197,20 +418,19 @@ public final class BackendRepository {
     }
 
     // Schedule operations
+    /** FX-thread view of every schedule. */
     public ObservableList<Schedule> getSchedules() {
-        return schedules;
+        return schedules.view();
     }
 
     public Optional<Schedule> findScheduleByTrainNumber(String trainNumber) {
-        return schedules.stream()
-                .filter(schedule -> schedule.getTrainNumber().equalsIgnoreCase(trainNumber))
-                .findFirst();
+        return schedulesByTrainNumber.find(trainNumber);
     }
 
     public Schedule addSchedule(Schedule schedule) {
         try {
             Schedule newSchedule = db.addSchedule(schedule);
-            schedules.add(newSchedule);
+            schedules.put(newSchedule);
             return newSchedule;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error adding schedule", e);
@@ -221,16 +441,7 @@ public final class BackendRepository {
     public boolean updateSchedule(Schedule schedule) {
         try {
             if (db.updateSchedule(schedule)) {
-                int index = -1;
-                for (int i = 0; i < schedules.size(); i++) {
-                    if (schedules.get(i).getId().equals(schedule.getId())) {
-                        index = i;
-                        break;
-                    }
-                }
-                if (index != -1) {
-                    schedules.set(index, schedule);
-                }
+                schedules.put(schedule);
                 return true;
             }
             return false;
@@ -240,16 +451,56 @@ public final class BackendRepository {
         }
     }
 
+    public List<Schedule> addSchedules(List<Schedule> newSchedules) {
+        try {
+            List<Schedule> added = db.addSchedules(newSchedules);
+            schedules.putAll(added);
+            return added;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error adding schedules", e);
+            return Collections.emptyList();
+        }
+    }
+
+    public boolean updateSchedules(List<Schedule> changed) {
+        try {
+            db.updateSchedules(changed);
+            schedules.putAll(changed);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating schedules", e);
+            return false;
+        }
+    }
+
     public void removeSchedule(Schedule schedule) {
         try {
             if (db.removeSchedule(schedule.getId())) {
-                schedules.removeIf(s -> s.getId().equals(schedule.getId()));
+                schedules.remove(schedule.getId());
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error removing schedule", e);
         }
     }
 
+    public Page<Schedule> findSchedulesPage(PageRequest request) {
+        try {
+            return db.findSchedulesPage(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading page of schedules", e);
+            return Page.empty();
+        }
+    }
+
+    public long countSchedules(PageRequest request) {
+        try {
+            return db.countSchedules(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting schedules", e);
+            return 0;
+        }
+    }
+
     public String nextScheduleId() {
         try {
             return db.getNextScheduleId();
@@ -260,55 +511,432 @@ public final class BackendRepository {
     }
 
     // Booking operations
+    /** FX-thread view of every booking; loads the bookings table on first call in lazy mode. */
     public ObservableList<Booking> getBookings() {
-        return bookings;
+        ensureBookingsLoaded();
+        return bookings.view();
+    }
+
+    /**
+     * Visit every stored booking straight from the database in constant memory.
+     * Intended for reports and exports over the full booking history.
+     */
+    public void forEachBooking(Consumer<Booking> visitor) {
+        try {
+            db.forEachBooking(STREAM_FETCH_SIZE, visitor);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming bookings", e);
+        }
+    }
+
+    /**
+     * Lazily mapped stream of every stored booking. Holds a database connection
+     * until closed, so use it in try-with-resources.
+     */
+    public Stream<Booking> streamBookings() {
+        try {
+            return db.streamBookings(STREAM_FETCH_SIZE);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming bookings", e);
+            return Stream.empty();
+        }
     }
 
     public Optional<Booking> findBookingById(String id) {
-        return bookings.stream()
-                .filter(booking -> booking.getId().equals(id))
-                .findFirst();
+        if (bookingsLoaded) {
+            return bookings.get(id);
+        }
+        Booking cached = bookingCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            return db.findBookingById(id).map(this::cacheBooking);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding booking", e);
+            return Optional.empty();
+        }
+    }
+
+    public List<Booking> findBookingsForUser(String userId) {
+        if (bookingsLoaded) {
+            return bookingsByUser.find(userId);
+        }
+        try {
+            return cacheBookings(db.findBookingsByUserId(userId));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading bookings for user", e);
+            return Collections.emptyList();
+        }
+    }
+
+    public List<Booking> findBookingsForTrainOnDate(String trainId, LocalDate travelDate) {
+        if (bookingsLoaded) {
+            return bookingsByTrainDate.find(trainDateKey(trainId, travelDate));
+        }
+        try {
+            return cacheBookings(db.findBookingsByTrainAndDate(trainId, travelDate));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading bookings for train", e);
+            return Collections.emptyList();
+        }
+    }
+
+    public List<Booking> findBookingsByPaymentStatus(String paymentStatus) {
+        if (bookingsLoaded) {
+            return bookingsByPaymentStatus.find(paymentStatus);
+        }
+        try {
+            return cacheBookings(db.findBookingsByPaymentStatus(paymentStatus));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading bookings by payment status", e);
+            return Collections.emptyList();
+        }
+    }
+
+    // Seat inventory operations
+    public int availableSeats(Train train, LocalDate travelDate, String seatClass, String fromStation, String toStation) {
+        return seatInventory.available(train, travelDate, seatClass, fromStation, toStation);
+    }
+
+    public double loadFactor(Train train, LocalDate travelDate, String seatClass) {
+        return seatInventory.loadFactor(train, travelDate, seatClass);
+    }
+
+    /**
+     * Runs a request made with a client-supplied idempotency key, or returns
+     * the result of an earlier run with the same key and operation. A null
+     * result is not remembered.
+     */
+    public String runIdempotent(String key, String operation, Supplier<String> request) {
+        return idempotencyStore.execute(key, operation, request);
+    }
+
+    /** As {@link #runIdempotent} for a request that completes later. */
+    public CompletableFuture<String> runIdempotentAsync(String key, String operation,
+                                                        Supplier<CompletableFuture<String>> request) {
+        return idempotencyStore.executeAsync(key, operation, request);
+    }
+
+    private static String trainDateKey(String trainId, LocalDate travelDate) {
+        return trainId + '|' + travelDate;
+    }
+
+    private List<Booking> cacheBookings(List<Booking> loaded) {
+        return loaded.stream()
+                .map(this::cacheBooking)
+                .collect(Collectors.toList());
+    }
+
+    private Booking cacheBooking(Booking booking) {
+        Booking cached = bookingCache.get(booking.getId());
+        if (cached != null) {
+            return cached;
+        }
+        bookingCache.put(booking.getId(), booking);
+        return booking;
+    }
+
+    /** Most recently made bookings, newest first. */
+    public List<Booking> findRecentBookings(int limit) {
+        return findBookingsPage(PageRequest.firstPage("booking_date_time", false, limit)).items();
     }
 
     public Booking addBooking(Booking booking) {
+        bookingsLoadGuard.readLock().lock();
         try {
             Booking newBooking = db.addBooking(booking);
-            bookings.add(newBooking);
+            if (bookingsLoaded) {
+                bookings.put(newBooking);
+            }
+            bookingCache.put(newBooking.getId(), newBooking);
             return newBooking;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error adding booking", e);
-            return booking;
+            return null;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
         }
     }
 
     public boolean updateBooking(Booking booking) {
+        bookingsLoadGuard.readLock().lock();
         try {
             if (db.updateBooking(booking)) {
-                int index = -1;
-                for (int i = 0; i < bookings.size(); i++) {
-                    if (bookings.get(i).getId().equals(booking.getId())) {
-                        index = i;
-                        break;
-                    }
-                }
-                if (index != -1) {
-                    bookings.set(index, booking);
+                if (bookingsLoaded) {
+                    bookings.put(booking);
                 }
+                bookingCache.put(booking.getId(), booking);
                 return true;
             }
             return false;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating booking", e);
             return false;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saves a booking whose status has been set to cancelled and hands its
+     * seats down the waitlist in the same transaction. Returns the bookings
+     * promoted off the waitlist; null if the booking was already cancelled or
+     * the save failed. Promoted bookings are updated on the FX thread.
+     */
+    public List<WaitlistPromotion> cancelBooking(Booking booking) {
+        return releaseAndPromote(booking, conn -> db.cancelBooking(booking), () -> { });
+    }
+
+    /**
+     * Cancels a pending booking whose payment window ran out and hands its
+     * seats down the waitlist. Returns the promoted bookings, or null if the
+     * booking was no longer pending and unpaid; otherwise the booking is
+     * updated to match on the FX thread.
+     */
+    public List<WaitlistPromotion> expireBooking(Booking booking) {
+        return releaseAndPromote(booking, conn -> db.expireBooking(booking.getId()), () -> {
+            booking.setStatus(BookingStatus.CANCELLED.label());
+            booking.setPaymentStatus(PaymentStatus.FAILED.label());
+        });
+    }
+
+    /**
+     * Confirms a booking whose payment the gateway captured and records the
+     * capture, in one transaction. Returns false, saving nothing, if the
+     * booking is no longer Pending/Pending, e.g. it expired; otherwise
+     * the booking is updated to match on the FX thread.
+     */
+    public boolean recordPayment(Booking booking, String paymentMethod, PaymentCapture capture) {
+        bookingsLoadGuard.readLock().lock();
+        try {
+            boolean paid = db.inTransaction(conn -> {
+                if (!db.markBookingPaid(booking.getId(), paymentMethod)) {
+                    return false;
+                }
+                db.savePaymentCapture(capture);
+                return true;
+            });
+            if (paid) {
+                // Runs on the payment pipeline's thread; the booking may be on screen
+                applyBookingEdits(List.of(booking), () -> {
+                    booking.setPaymentMethod(paymentMethod);
+                    booking.setPaymentStatus(PaymentStatus.PAID.label());
+                    booking.setStatus(BookingStatus.CONFIRMED.label());
+                });
+            }
+            return paid;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error recording payment", e);
+            return false;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
         }
     }
 
+    public List<PaymentCapture> findUnsettledCaptures() {
+        try {
+            return db.findUnsettledPaymentCaptures();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading unsettled payments", e);
+            return Collections.emptyList();
+        }
+    }
+
+    public void markSettled(List<PaymentCapture> captures) {
+        try {
+            db.markPaymentsSettled(captures, LocalDateTime.now());
+        } catch (SQLException e) {
+            // Settled at the gateway; reconciliation will show them as unsettled here
+            LOGGER.log(Level.SEVERE, "Error recording settled payments", e);
+        }
+    }
+
+    private List<WaitlistPromotion> releaseAndPromote(Booking booking, SqlWork<Boolean> statusChange, Runnable onChanged) {
+        bookingsLoadGuard.readLock().lock();
+        try {
+            Train train = findTrainById(booking.getTrainId()).orElse(null);
+            List<WaitlistPromotion> promoted = seatInventory.releaseAndPromote(booking, train, statusChange);
+            if (promoted == null) {
+                return null;
+            }
+            List<Booking> changed = new ArrayList<>(promoted.size() + 1);
+            promoted.forEach(promotion -> changed.add(promotion.booking()));
+            changed.add(booking);
+            applyBookingEdits(changed, () -> {
+                onChanged.run();
+                for (WaitlistPromotion promotion : promoted) {
+                    Booking waiting = promotion.booking();
+                    waiting.setStatus(BookingStatus.PENDING.label());
+                    waiting.setSeatNumbers(promotion.seatNumbers());
+                    waiting.setBookingDateTime(promotion.promotedAt());
+                }
+            });
+            return promoted;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs an edit to bookings the screens may be showing and then saves them
+     * back to the store, on the FX thread like the store's own view updates,
+     * so bound properties never change under the UI from a background thread.
+     * Only call this once the change is committed to the database.
+     */
+    private void applyBookingEdits(List<Booking> changed, Runnable edit) {
+        fxDispatcher.submit(() -> {
+            edit.run();
+            bookingsLoadGuard.readLock().lock();
+            try {
+                if (bookingsLoaded) {
+                    bookings.putAll(changed);
+                }
+                changed.forEach(booking -> bookingCache.put(booking.getId(), booking));
+            } finally {
+                bookingsLoadGuard.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Saves a waitlisted booking and puts it at the back of its run's
+     * waitlist. Returns its place in the queue counting from 1, or 0 if it
+     * could not be saved.
+     */
+    public int addToWaitlist(Booking booking, Train train) {
+        bookingsLoadGuard.readLock().lock();
+        try {
+            int position = seatInventory.enqueue(booking, train, conn -> db.addBooking(booking));
+            if (position > 0) {
+                if (bookingsLoaded) {
+                    bookings.put(booking);
+                }
+                bookingCache.put(booking.getId(), booking);
+            }
+            return position;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
+        }
+    }
+
+    /** Place of a waitlisted booking in its queue counting from 1, or 0 if it is not waiting. */
+    public int waitlistPosition(Booking booking) {
+        return findTrainById(booking.getTrainId())
+                .map(train -> seatInventory.waitlistPosition(booking, train))
+                .orElse(0);
+    }
+
+    public List<Booking> addBookings(List<Booking> newBookings) {
+        bookingsLoadGuard.readLock().lock();
+        try {
+            List<Booking> added = db.addBookings(newBookings);
+            if (bookingsLoaded) {
+                bookings.putAll(added);
+            }
+            added.forEach(booking -> bookingCache.put(booking.getId(), booking));
+            return added;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error adding bookings", e);
+            return Collections.emptyList();
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
+        }
+    }
+
+    /**
+     * Seats and saves one new booking in the same way as
+     * {@link #addBookingsWithSeats}. Returns it with its seat numbers filled
+     * in, or null if it could not be seated or saved.
+     */
+    public Booking addBookingWithSeats(Booking newBooking, Train train) {
+        List<Booking> saved = addBookingsWithSeats(List.of(newBooking), List.of(train));
+        return saved == null ? null : newBooking;
+    }
+
+    /**
+     * Seats and saves a group of new bookings in one transaction, all or
+     * nothing: seats are held on every train run involved and the rows are
+     * inserted with one batched statement. Bookings are matched to trains by
+     * index and get their seat numbers filled in. Returns the saved bookings,
+     * or null if any could not be seated or the save failed.
+     */
+    public List<Booking> addBookingsWithSeats(List<Booking> newBookings, List<Train> bookedTrains) {
+        bookingsLoadGuard.readLock().lock();
+        try {
+            if (!seatInventory.reserveAll(newBookings, bookedTrains, conn -> db.addBookings(newBookings))) {
+                return null;
+            }
+            if (bookingsLoaded) {
+                bookings.putAll(newBookings);
+            }
+            newBookings.forEach(booking -> bookingCache.put(booking.getId(), booking));
+            return newBookings;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
+        }
+    }
+
+    public boolean updateBookings(List<Booking> changed) {
+        bookingsLoadGuard.readLock().lock();
+        try {
+            db.updateBookings(changed);
+            if (bookingsLoaded) {
+                bookings.putAll(changed);
+            }
+            changed.forEach(booking -> bookingCache.put(booking.getId(), booking));
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating bookings", e);
+            return false;
+        } finally {
+            bookingsLoadGuard.readLock().unlock();
+        }
+    }
+
+    public Page<Booking> findBookingsPage(PageRequest request) {
+        try {
+            return db.findBookingsPage(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading page of bookings", e);
+            return Page.empty();
+        }
+    }
+
+    public long countBookings(PageRequest request) {
+        try {
+            return db.countBookings(request);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting bookings", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Booking ids (PNRs) for a group, see {@link PnrGenerator}; take them
+     * before opening a transaction. Returns an empty list if they could not
+     * be reserved.
+     */
+    public List<String> nextBookingIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                ids.add(pnrGenerator.next());
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reserving booking references", e);
+            return Collections.emptyList();
+        }
+        return ids;
+    }
+
+    /** A booking id (PNR), or null if none could be reserved; see {@link #nextBookingIds}. */
     public String nextBookingId() {
         try {
-            return db.getNextBookingId();
+            return pnrGenerator.next();
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error getting next booking id", e);
-            return "1";
+            LOGGER.log(Level.SEVERE, "Error reserving a booking reference", e);
+            return null;
         }
     }
 
@@ -318,6 +946,17 @@ public final class BackendRepository {
     }
 
     public void addNotification(Notification notification) {
-        notifications.add(0, notification); // Add to the top of the list
+        // May be raised by background booking work; the list is FX-bound
+        fxDispatcher.submit(() -> notifications.add(0, notification)); // Add to the top of the list
+    }
+
+    /** Adds several notifications in one FX update, newest at the top. */
+    public void addNotifications(List<Notification> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Notification> newestFirst = new ArrayList<>(batch);
+        Collections.reverse(newestFirst);
+        fxDispatcher.submit(() -> notifications.addAll(0, newestFirst));
     }
 }
@@ -1,5 +1,7 @@
 package com.example.railwaymanagementsystem.services;
 
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.Booking;
 import com.example.railwaymanagementsystem.models.Notification;
 import com.example.railwaymanagementsystem.models.Schedule;
@@ -7,9 +9,13 @@ import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.models.User;
 import javafx.collections.ObservableList;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 /**
  * Facade over the other services that provides a single point of access for the UI.
@@ -21,6 +27,7 @@ public final class BackendService {
     private final ScheduleService scheduleService = new ScheduleService();
     private final BookingService bookingService = new BookingService();
     private final NotificationService notificationService = new NotificationService();
+    private final FareService fareService = new FareService();
 
     private BackendService() {}
 
@@ -57,11 +64,27 @@ public final class BackendService {
         return userService.getUsers();
     }
 
+    public Page<User> getUsersPage(PageRequest request) {
+        return userService.getUsersPage(request);
+    }
+
+    public long countUsers(PageRequest request) {
+        return userService.countUsers(request);
+    }
+
     // Train Service Methods
     public ObservableList<Train> getTrains() {
         return trainService.getTrains();
     }
 
+    public Page<Train> getTrainsPage(PageRequest request) {
+        return trainService.getTrainsPage(request);
+    }
+
+    public long countTrains(PageRequest request) {
+        return trainService.countTrains(request);
+    }
+
     public List<Train> searchTrains(String from, String to) {
         return trainService.searchTrains(from, to);
     }
@@ -91,6 +114,14 @@ public final class BackendService {
         return scheduleService.getSchedules();
     }
 
+    public Page<Schedule> getSchedulesPage(PageRequest request) {
+        return scheduleService.getSchedulesPage(request);
+    }
+
+    public long countSchedules(PageRequest request) {
+        return scheduleService.countSchedules(request);
+    }
+
     public Optional<Schedule> getScheduleForTrain(String trainNumber) {
         return scheduleService.getScheduleForTrain(trainNumber);
     }
@@ -114,6 +145,58 @@ public final class BackendService {
         return bookingService.bookTicket(user, train, from, to, date, seats, seatClass, totalAmount);
     }
 
+    public Booking bookTicket(String idempotencyKey, User user, Train train, String from, String to,
+                              LocalDate date, int seats, String seatClass, double totalAmount) {
+        return bookingService.bookTicket(idempotencyKey, user, train, from, to, date, seats, seatClass, totalAmount);
+    }
+
+    public List<Booking> bookTickets(List<BookingRequest> requests) {
+        return bookingService.bookTickets(requests);
+    }
+
+    public Booking joinWaitlist(User user, Train train, String from, String to,
+                                LocalDate date, int seats, String seatClass, double totalAmount) {
+        return bookingService.joinWaitlist(user, train, from, to, date, seats, seatClass, totalAmount);
+    }
+
+    public int getWaitlistPosition(Booking booking) {
+        return bookingService.getWaitlistPosition(booking);
+    }
+
+    public Duration getPaymentWindow() {
+        return bookingService.getPaymentWindow();
+    }
+
+    public int getAvailableSeats(Train train, LocalDate date, String seatClass, String from, String to) {
+        return bookingService.getAvailableSeats(train, date, seatClass, from, to);
+    }
+
+    /** Current fare per passenger, priced for how full the train already is that day. */
+    public int quoteFare(Train train, String from, String to, String seatClass, LocalDate travelDate) {
+        return quoteFare(train, from, to, seatClass, travelDate, Concession.NONE);
+    }
+
+    public int quoteFare(Train train, String from, String to, String seatClass, LocalDate travelDate, Concession concession) {
+        return fareService.quote(train, from, to, seatClass, travelDate, concession,
+                bookingService.getLoadFactor(train, travelDate, seatClass));
+    }
+
+    public FareRules getFareRules() {
+        return fareService.getRules();
+    }
+
+    public void updateFareRules(UnaryOperator<FareRules> change) {
+        fareService.updateRules(change);
+    }
+
+    public CompletableFuture<Boolean> processPaymentAsync(String idempotencyKey, String bookingId, String paymentMethod) {
+        return bookingService.processPaymentAsync(idempotencyKey, bookingId, paymentMethod);
+    }
+
+    public boolean processPayment(String idempotencyKey, String bookingId, String paymentMethod) {
+        return bookingService.processPayment(idempotencyKey, bookingId, paymentMethod);
+    }
+
     public boolean processPayment(String bookingId, String paymentMethod) {
         return bookingService.processPayment(bookingId, paymentMethod);
     }
@@ -130,14 +213,42 @@ public final class BackendService {
         return bookingService.getBookingsForUser(userId);
     }
 
+    public List<Booking> getBookingsForTrainOnDate(String trainId, LocalDate travelDate) {
+        return bookingService.getBookingsForTrainOnDate(trainId, travelDate);
+    }
+
+    public List<Booking> getBookingsByPaymentStatus(String paymentStatus) {
+        return bookingService.getBookingsByPaymentStatus(paymentStatus);
+    }
+
+    public List<Booking> getRecentBookings(int limit) {
+        return bookingService.getRecentBookings(limit);
+    }
+
     public ObservableList<Booking> getAllBookings() {
         return bookingService.getAllBookings();
     }
 
+    public Page<Booking> getBookingsPage(PageRequest request) {
+        return bookingService.getBookingsPage(request);
+    }
+
+    public long countBookings(PageRequest request) {
+        return bookingService.countBookings(request);
+    }
+
     public Optional<Booking> getBookingById(String bookingId) {
         return bookingService.getBookingById(bookingId);
     }
 
+    public Map<String, Long> countBookingsByTrain() {
+        return bookingService.countBookingsByTrain();
+    }
+
+    public Map<String, Long> countBookingsByUser() {
+        return bookingService.countBookingsByUser();
+    }
+
     // Notification Service Methods
     public void createNotification(String userId, String message) {
         notificationService.createNotification(userId, message);
@@ -0,0 +1,14 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.Train;
+import com.example.railwaymanagementsystem.models.User;
+
+import java.time.LocalDate;
+
+/**
+ * One ticket in a group booking, see {@link BookingService#bookTickets}.
+ * Holds the same details a single {@code bookTicket} call takes.
+ */
+public record BookingRequest(User user, Train train, String from, String to,
+                             LocalDate date, int seats, String seatClass, double totalAmount) {
+}
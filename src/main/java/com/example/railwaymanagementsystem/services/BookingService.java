@@ -1,24 +1,83 @@
 package com.example.railwaymanagementsystem.services;
 
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
+import com.example.railwaymanagementsystem.models.Notification;
+import com.example.railwaymanagementsystem.models.PaymentCapture;
+import com.example.railwaymanagementsystem.models.PaymentStatus;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.models.User;
 import javafx.collections.ObservableList;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class BookingService {
+    private static final Logger LOGGER = Logger.getLogger(BookingService.class.getName());
     private final BackendRepository repo = BackendRepository.getInstance();
     private final NotificationService notificationService = new NotificationService();
+    private final HoldExpiry holds = new HoldExpiry(this::expireHold);
+    private final PaymentPipeline payments = new PaymentPipeline(PaymentPipeline.loadGateway(), repo::markSettled);
+    private final Map<String, CompletableFuture<Boolean>> paymentsInFlight = new ConcurrentHashMap<>();
 
+    public BookingService() {
+        // Pending bookings made before a restart still get their deadline
+        holds.submit(() -> repo.findBookingsByPaymentStatus(PaymentStatus.PENDING.label()).stream()
+                .filter(booking -> BookingStatus.PENDING.matches(booking.getStatus()))
+                .forEach(booking -> holds.track(booking.getId(), booking.getBookingDateTime())));
+        // As do captures that had not been settled
+        payments.submit(() -> payments.settle(repo.findUnsettledCaptures()));
+    }
+
+    /**
+     * Books as {@link #bookTicket(User, Train, String, String, LocalDate, int, String, double)}
+     * once per idempotency key: a repeat with the same key, e.g. from a
+     * double-click, returns the booking the first call made.
+     */
+    public Booking bookTicket(String idempotencyKey, User user, Train train, String from, String to,
+                              LocalDate date, int seats, String seatClass, double totalAmount) {
+        String bookingId = repo.runIdempotent(idempotencyKey, "book-ticket", () -> {
+            Booking booking = bookTicket(user, train, from, to, date, seats, seatClass, totalAmount);
+            return booking == null ? null : booking.getId();
+        });
+        return bookingId == null ? null : repo.findBookingById(bookingId).orElse(null);
+    }
+
+    /**
+     * Reserves the seats and records a pending booking, in one transaction
+     * with the seat count. Returns null if not enough seats are free between
+     * the two stations on that date and class, or the booking could not be
+     * saved.
+     */
     public Booking bookTicket(User user, Train train, String from, String to,
                               LocalDate date, int seats, String seatClass, double totalAmount) {
+        if (seats <= 0) {
+            return null;
+        }
+        String bookingId = repo.nextBookingId();
+        if (bookingId == null) {
+            return null;
+        }
         Booking booking = new Booking(
-                repo.nextBookingId(),
+                bookingId,
                 user.getId(),
                 train.getId(),
                 train.getTrainNumber(),
@@ -29,65 +88,356 @@ public class BookingService {
                 seats,
                 seatClass,
                 totalAmount,
-                "Pending",
+                BookingStatus.PENDING.label(),
                 LocalDateTime.now(),
                 "",
-                "Pending"
+                PaymentStatus.PENDING.label()
         );
-        Booking newBooking = repo.addBooking(booking);
+        Booking newBooking = repo.addBookingWithSeats(booking, train);
         if (newBooking != null) {
-            String message = String.format("Your ticket for %s from %s to %s has been booked with PNR %s. Please complete the payment.",
-                    train.getTrainName(), from, to, newBooking.getId());
+            holds.track(newBooking.getId(), newBooking.getBookingDateTime());
+            String message = String.format("Your ticket for %s from %s to %s has been booked with PNR %s, seats %s. Please complete the payment.",
+                    train.getTrainName(), from, to, newBooking.getId(), newBooking.getSeatNumbers());
             notificationService.createNotification(user.getId(), message);
         }
         return newBooking;
     }
 
+    /**
+     * Books a group of tickets, possibly on several trains, all or nothing.
+     * Booking ids are allocated as one block, seats are held on every train
+     * run involved and all bookings are inserted with one batched statement
+     * in a single transaction. Each passenger gets one notification listing
+     * their tickets. Returns the bookings in request order, or null if any
+     * ticket could not be seated or the group could not be saved.
+     */
+    public List<Booking> bookTickets(List<BookingRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = repo.nextBookingIds(requests.size());
+        if (ids.size() != requests.size()) {
+            return null;
+        }
+        LocalDateTime bookedAt = LocalDateTime.now();
+        List<Booking> drafts = new ArrayList<>(requests.size());
+        List<Train> trains = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            if (request.seats() <= 0) {
+                return null;
+            }
+            drafts.add(new Booking(
+                    ids.get(i),
+                    request.user().getId(),
+                    request.train().getId(),
+                    request.train().getTrainNumber(),
+                    request.train().getTrainName(),
+                    request.from(),
+                    request.to(),
+                    request.date(),
+                    request.seats(),
+                    request.seatClass(),
+                    request.totalAmount(),
+                    BookingStatus.PENDING.label(),
+                    bookedAt,
+                    "",
+                    PaymentStatus.PENDING.label()
+            ));
+            trains.add(request.train());
+        }
+        List<Booking> booked = repo.addBookingsWithSeats(drafts, trains);
+        if (booked == null) {
+            return null;
+        }
+
+        Map<String, List<Booking>> byUser = new LinkedHashMap<>();
+        for (Booking booking : booked) {
+            holds.track(booking.getId(), booking.getBookingDateTime());
+            byUser.computeIfAbsent(booking.getUserId(), id -> new ArrayList<>()).add(booking);
+        }
+        List<Notification> batch = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, tickets) -> {
+            StringJoiner lines = new StringJoiner("; ");
+            for (Booking booking : tickets) {
+                lines.add(String.format("PNR %s, %s from %s to %s, seats %s",
+                        booking.getId(), booking.getTrainName(), booking.getFromStation(),
+                        booking.getToStation(), booking.getSeatNumbers()));
+            }
+            batch.add(new Notification(userId, String.format(
+                    "Your group booking of %d ticket(s) has been made: %s. Please complete the payment.",
+                    tickets.size(), lines)));
+        });
+        notificationService.createNotifications(batch);
+        return booked;
+    }
+
+    /**
+     * Records a waitlisted booking for a run that has too few seats. It holds
+     * no seats and cannot be paid for until a cancellation frees enough for
+     * its journey, when it is promoted to pending. Returns null if it could
+     * not be saved.
+     */
+    public Booking joinWaitlist(User user, Train train, String from, String to,
+                                LocalDate date, int seats, String seatClass, double totalAmount) {
+        String bookingId = repo.nextBookingId();
+        if (bookingId == null) {
+            return null;
+        }
+        Booking booking = new Booking(
+                bookingId,
+                user.getId(),
+                train.getId(),
+                train.getTrainNumber(),
+                train.getTrainName(),
+                from,
+                to,
+                date,
+                seats,
+                seatClass,
+                totalAmount,
+                BookingStatus.WAITLISTED.label(),
+                LocalDateTime.now(),
+                "",
+                PaymentStatus.PENDING.label()
+        );
+        int position = repo.addToWaitlist(booking, train);
+        if (position == 0) {
+            return null;
+        }
+        String message = String.format("Your booking for %s from %s to %s is waitlisted at position %d with PNR %s. We will let you know when seats are free.",
+                train.getTrainName(), from, to, position, booking.getId());
+        notificationService.createNotification(user.getId(), message);
+        return booking;
+    }
+
+    /** Place of a waitlisted booking in its queue counting from 1, or 0 if it is not waiting. */
+    public int getWaitlistPosition(Booking booking) {
+        return repo.waitlistPosition(booking);
+    }
+
+    /**
+     * Takes the payment once per idempotency key; a repeat with the same key
+     * reports the first call's success without charging again.
+     */
+    public CompletableFuture<Boolean> processPaymentAsync(String idempotencyKey, String bookingId, String paymentMethod) {
+        return repo.runIdempotentAsync(idempotencyKey, "process-payment",
+                        () -> processPaymentAsync(bookingId, paymentMethod).thenApply(paid -> paid ? bookingId : null))
+                .thenApply(Objects::nonNull);
+    }
+
+    /**
+     * Sends the payment to the gateway and returns at once. The future
+     * completes with true once the capture is recorded and the booking
+     * confirmed, or false if the booking cannot be paid, the gateway declined
+     * or could not be reached, or the booking was cancelled while the gateway
+     * was working, in which case the capture is refunded. The passenger is
+     * notified either way. A second payment for a booking whose first is
+     * still running gets the first's future.
+     */
+    public CompletableFuture<Boolean> processPaymentAsync(String bookingId, String paymentMethod) {
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = paymentsInFlight.putIfAbsent(bookingId, mine);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Boolean> payment;
+        try {
+            payment = startPayment(bookingId, paymentMethod);
+        } catch (RuntimeException e) {
+            payment = CompletableFuture.failedFuture(e);
+        }
+        payment.whenComplete((paid, error) -> {
+            paymentsInFlight.remove(bookingId, mine);
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Error processing payment for booking " + bookingId, error);
+            }
+            mine.complete(error == null && paid);
+        });
+        return mine;
+    }
+
+    /** Waits for {@link #processPaymentAsync(String, String, String)}; not for the FX thread. */
+    public boolean processPayment(String idempotencyKey, String bookingId, String paymentMethod) {
+        return processPaymentAsync(idempotencyKey, bookingId, paymentMethod).join();
+    }
+
+    /** Waits for {@link #processPaymentAsync(String, String)}; not for the FX thread. */
     public boolean processPayment(String bookingId, String paymentMethod) {
+        return processPaymentAsync(bookingId, paymentMethod).join();
+    }
+
+    private CompletableFuture<Boolean> startPayment(String bookingId, String paymentMethod) {
         Optional<Booking> bookingOpt = repo.findBookingById(bookingId);
         if (bookingOpt.isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         Booking booking = bookingOpt.get();
-        booking.setPaymentMethod(paymentMethod);
-        booking.setPaymentStatus("Paid");
-        booking.setStatus("Confirmed");
-        boolean success = repo.updateBooking(booking);
-        if (success) {
-            String message = String.format("Payment of PKR %.2f for PNR %s was successful. Your ticket is confirmed.",
-                    booking.getTotalAmount(), booking.getId());
-            notificationService.createNotification(booking.getUserId(), message);
+        if (BookingStatus.CANCELLED.matches(booking.getStatus()) || BookingStatus.WAITLISTED.matches(booking.getStatus())
+                || !PaymentStatus.PENDING.matches(booking.getPaymentStatus())) {
+            // Cancelled, its payment window ran out, it has no seats yet or it is already paid
+            return CompletableFuture.completedFuture(false);
         }
-        return success;
+        PaymentRequest request = new PaymentRequest(UUID.randomUUID().toString(), bookingId,
+                booking.getTotalAmount(), paymentMethod);
+        return payments.capture(request).handle((result, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Payment gateway unavailable for booking " + bookingId, error);
+                // A capture that went through after its attempt timed out must not be kept
+                payments.refund(request);
+                notificationService.createNotification(booking.getUserId(), String.format(
+                        "We could not reach the payment provider for PNR %s. You have not been charged; please try again.",
+                        bookingId));
+                return false;
+            }
+            if (!result.approved()) {
+                notificationService.createNotification(booking.getUserId(), String.format(
+                        "Payment for PNR %s was not successful: %s.", bookingId, result.reason()));
+                return false;
+            }
+            return recordPayment(booking, request, result.reference());
+        });
+    }
+
+    /** Runs on the payment pipeline thread once the gateway has taken the money. */
+    private boolean recordPayment(Booking booking, PaymentRequest request, String reference) {
+        PaymentCapture capture = new PaymentCapture(booking.getId(), payments.gatewayName(), reference,
+                request.amount(), LocalDateTime.now());
+        if (!repo.recordPayment(booking, request.paymentMethod(), capture)) {
+            // Cancelled or expired while the gateway was working
+            payments.refund(request);
+            notificationService.createNotification(booking.getUserId(), String.format(
+                    "Your payment of PKR %.2f for PNR %s has been refunded because the booking is no longer awaiting payment.",
+                    request.amount(), booking.getId()));
+            return false;
+        }
+        holds.release(booking.getId());
+        payments.settle(List.of(capture));
+        String message = String.format("Payment of PKR %.2f for PNR %s was successful. Your ticket is confirmed.",
+                booking.getTotalAmount(), booking.getId());
+        notificationService.createNotification(booking.getUserId(), message);
+        return true;
     }
 
     public boolean updateBooking(Booking booking) {
-        boolean success = repo.updateBooking(booking);
-        if (success && "Cancelled".equalsIgnoreCase(booking.getStatus())) {
-            String message = String.format("Your booking with PNR %s for train %s has been cancelled.",
-                    booking.getId(), booking.getTrainName());
-            notificationService.createNotification(booking.getUserId(), message);
+        if (!BookingStatus.CANCELLED.matches(booking.getStatus())) {
+            return repo.updateBooking(booking);
+        }
+        // Only the save that actually cancels the booking gives its seats back;
+        // a plain update would mark it cancelled and leave its seats held
+        List<WaitlistPromotion> promoted = repo.cancelBooking(booking);
+        if (promoted == null) {
+            return false;
+        }
+        holds.release(booking.getId());
+        String message = String.format("Your booking with PNR %s for train %s has been cancelled.",
+                booking.getId(), booking.getTrainName());
+        notificationService.createNotification(booking.getUserId(), message);
+        notifyPromoted(promoted);
+        return true;
+    }
+
+    /** How long a pending booking holds its seats before it is cancelled unpaid. */
+    public Duration getPaymentWindow() {
+        return holds.window();
+    }
+
+    /**
+     * Cancels a booking still unpaid at the end of its payment window and
+     * gives its seats back. A booking paid or cancelled in the meantime is
+     * left alone.
+     */
+    private void expireHold(String bookingId) {
+        Optional<Booking> found = repo.findBookingById(bookingId);
+        List<WaitlistPromotion> promoted = found.map(repo::expireBooking).orElse(null);
+        if (promoted == null) {
+            return;
         }
-        return success;
+        Booking booking = found.get();
+        String message = String.format("Your booking with PNR %s for train %s was cancelled because payment was not received within %d minutes.",
+                booking.getId(), booking.getTrainName(), holds.window().toMinutes());
+        notificationService.createNotification(booking.getUserId(), message);
+        notifyPromoted(promoted);
+    }
+
+    /** Starts the payment window for bookings promoted off a waitlist and tells their passengers, in one batch. */
+    private void notifyPromoted(List<WaitlistPromotion> promoted) {
+        List<Notification> batch = new ArrayList<>(promoted.size());
+        for (WaitlistPromotion promotion : promoted) {
+            Booking booking = promotion.booking();
+            holds.track(booking.getId(), promotion.promotedAt());
+            batch.add(new Notification(booking.getUserId(), String.format(
+                    "Good news! Seats %s are now held for your waitlisted booking with PNR %s for %s. Please complete the payment within %d minutes; the booking is cancelled if it is not paid by then.",
+                    promotion.seatNumbers(), booking.getId(), booking.getTrainName(), holds.window().toMinutes())));
+        }
+        notificationService.createNotifications(batch);
+    }
+
+    public int getAvailableSeats(Train train, LocalDate date, String seatClass, String from, String to) {
+        return repo.availableSeats(train, date, seatClass, from, to);
+    }
+
+    /** Share of seats sold on the train's busiest segment that day, 0 to 1. */
+    public double getLoadFactor(Train train, LocalDate date, String seatClass) {
+        return repo.loadFactor(train, date, seatClass);
     }
 
     public List<Booking> getPendingPaymentsForUser(String userId) {
-        return repo.getBookings().stream()
-                .filter(booking -> booking.getUserId().equals(userId))
-                .filter(booking -> "Pending".equals(booking.getPaymentStatus()))
+        return repo.findBookingsForUser(userId).stream()
+                .filter(booking -> PaymentStatus.PENDING.matches(booking.getPaymentStatus()))
+                .filter(booking -> !BookingStatus.WAITLISTED.matches(booking.getStatus()))
                 .collect(Collectors.toList());
     }
 
     public List<Booking> getBookingsForUser(String userId) {
-        return repo.getBookings().stream()
-                .filter(booking -> booking.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        return repo.findBookingsForUser(userId);
+    }
+
+    public List<Booking> getBookingsForTrainOnDate(String trainId, LocalDate travelDate) {
+        return repo.findBookingsForTrainOnDate(trainId, travelDate);
+    }
+
+    public List<Booking> getBookingsByPaymentStatus(String paymentStatus) {
+        return repo.findBookingsByPaymentStatus(paymentStatus);
+    }
+
+    public List<Booking> getRecentBookings(int limit) {
+        return repo.findRecentBookings(limit);
+    }
+
+    /**
+     * Booking counts per train, aggregated by streaming the bookings table so
+     * memory use depends on the number of trains, not the number of bookings.
+     */
+    public Map<String, Long> countBookingsByTrain() {
+        return countBookingsBy(Booking::getTrainId);
+    }
+
+    /**
+     * Booking counts per user, aggregated by streaming the bookings table.
+     */
+    public Map<String, Long> countBookingsByUser() {
+        return countBookingsBy(Booking::getUserId);
+    }
+
+    private Map<String, Long> countBookingsBy(Function<Booking, String> key) {
+        Map<String, Long> counts = new HashMap<>();
+        repo.forEachBooking(booking -> counts.merge(key.apply(booking), 1L, Long::sum));
+        return counts;
     }
 
     public ObservableList<Booking> getAllBookings() {
         return repo.getBookings();
     }
 
+    public Page<Booking> getBookingsPage(PageRequest request) {
+        return repo.findBookingsPage(request);
+    }
+
+    public long countBookings(PageRequest request) {
+        return repo.countBookings(request);
+    }
+
     public Optional<Booking> getBookingById(String bookingId) {
         return repo.findBookingById(bookingId);
     }
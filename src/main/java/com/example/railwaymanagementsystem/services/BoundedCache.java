@@ -0,0 +1,37 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU map used by the lazy repository for hot users and
+ * bookings. Once full, the least recently read entry is evicted.
+ */
+final class BoundedCache<K, V> {
+    private final int maxEntries;
+    private final Map<K, V> entries;
+
+    BoundedCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > BoundedCache.this.maxEntries;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        if (maxEntries > 0) {
+            entries.put(key, value);
+        }
+    }
+
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Seat plan shared by every coach of a class. A coach has exactly 64 seats,
+ * so one coach is one {@code long} in {@link SegmentOccupancy}'s bitsets,
+ * split into compartments (sleeper bays or chair rows) that a group should
+ * sit together in.
+ *
+ * <p>Seat indexes run through the train: index 70 is coach 2, seat 7, and is
+ * labelled {@code C2-7}. Labels are what bookings store.</p>
+ */
+public final class CoachLayout {
+    public static final int SEATS_PER_COACH = Long.SIZE;
+
+    public enum Berth { LOWER, MIDDLE, UPPER, SIDE_LOWER, SIDE_UPPER, WINDOW, AISLE }
+
+    /** Eight bays of six berths plus two side berths. */
+    static final CoachLayout SLEEPER = new CoachLayout(new Berth[]{
+            Berth.LOWER, Berth.MIDDLE, Berth.UPPER, Berth.LOWER, Berth.MIDDLE, Berth.UPPER,
+            Berth.SIDE_LOWER, Berth.SIDE_UPPER});
+    /** Sixteen rows of two-and-two seating. */
+    static final CoachLayout CHAIR = new CoachLayout(new Berth[]{
+            Berth.WINDOW, Berth.AISLE, Berth.AISLE, Berth.WINDOW});
+
+    private final Berth[] compartment;
+
+    private CoachLayout(Berth[] compartment) {
+        this.compartment = compartment;
+    }
+
+    /** Passenger trains run chair cars; everything else runs sleepers. */
+    static CoachLayout forClass(String seatClass) {
+        return "Passenger".equalsIgnoreCase(seatClass) ? CHAIR : SLEEPER;
+    }
+
+    /** Seats per bay or row; always divides {@link #SEATS_PER_COACH}. */
+    int compartmentSize() {
+        return compartment.length;
+    }
+
+    Berth berthOf(int seat) {
+        return compartment[seat % SEATS_PER_COACH % compartment.length];
+    }
+
+    static String label(int seat) {
+        return "C" + (seat / SEATS_PER_COACH + 1) + "-" + (seat % SEATS_PER_COACH + 1);
+    }
+
+    /** Seat index for a label, or -1 if it is not one. */
+    static int indexOf(String label) {
+        String trimmed = label.trim();
+        int dash = trimmed.indexOf('-');
+        if (!trimmed.startsWith("C") || dash < 2) {
+            return -1;
+        }
+        try {
+            int coach = Integer.parseInt(trimmed.substring(1, dash));
+            int seat = Integer.parseInt(trimmed.substring(dash + 1));
+            if (coach < 1 || seat < 1 || seat > SEATS_PER_COACH) {
+                return -1;
+            }
+            return (coach - 1) * SEATS_PER_COACH + seat - 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static String join(int[] seats) {
+        StringJoiner joined = new StringJoiner(", ");
+        for (int seat : seats) {
+            joined.add(label(seat));
+        }
+        return joined.toString();
+    }
+
+    /** Seat indexes from a stored list, or null if any entry is not a seat label. */
+    static int[] parse(String seatNumbers) {
+        if (seatNumbers == null || seatNumbers.isBlank()) {
+            return null;
+        }
+        String[] labels = seatNumbers.split(",");
+        int[] seats = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            seats[i] = indexOf(labels[i]);
+            if (seats[i] < 0) {
+                return null;
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Stored seat numbers with their berth types for display, e.g.
+     * {@code "C2-7 Lower, C2-8 Side Upper"}.
+     */
+    public static String describe(String seatNumbers, String seatClass) {
+        int[] seats = parse(seatNumbers);
+        if (seats == null) {
+            return seatNumbers == null || seatNumbers.isBlank() ? "Not assigned" : seatNumbers;
+        }
+        CoachLayout layout = forClass(seatClass);
+        List<String> described = new ArrayList<>(seats.length);
+        for (int seat : seats) {
+            String berth = layout.berthOf(seat).name().replace('_', ' ');
+            described.add(label(seat) + " " + berth.charAt(0) + berth.substring(1).toLowerCase(Locale.ROOT));
+        }
+        return String.join(", ", described);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.railwaymanagementsystem.services;
+
+/**
+ * Discounted fare categories; the discount for each is set in
+ * {@link FareRules}.
+ */
+public enum Concession {
+    NONE,
+    CHILD,
+    STUDENT,
+    SENIOR
+}
@@ -1,29 +1,57 @@
 package com.example.railwaymanagementsystem.services;
 
 import com.example.railwaymanagementsystem.dao.BookingDAO;
+import com.example.railwaymanagementsystem.dao.ConnectionManager;
+import com.example.railwaymanagementsystem.dao.IdSequenceDAO;
+import com.example.railwaymanagementsystem.dao.IdempotencyKeyDAO;
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
+import com.example.railwaymanagementsystem.dao.PaymentCaptureDAO;
 import com.example.railwaymanagementsystem.dao.ScheduleDAO;
+import com.example.railwaymanagementsystem.dao.SeatCount;
+import com.example.railwaymanagementsystem.dao.SeatInventoryDAO;
+import com.example.railwaymanagementsystem.dao.SqlWork;
 import com.example.railwaymanagementsystem.dao.TrainDAO;
 import com.example.railwaymanagementsystem.dao.UserDAO;
 import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.PaymentCapture;
 import com.example.railwaymanagementsystem.models.Schedule;
 import com.example.railwaymanagementsystem.models.Train;
 import com.example.railwaymanagementsystem.models.User;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class DatabaseService {
     private final UserDAO userDAO;
     private final TrainDAO trainDAO;
     private final ScheduleDAO scheduleDAO;
     private final BookingDAO bookingDAO;
+    private final SeatInventoryDAO seatInventoryDAO;
+    private final IdempotencyKeyDAO idempotencyKeyDAO;
+    private final PaymentCaptureDAO paymentCaptureDAO;
+    private final IdSequenceDAO idSequenceDAO;
 
     public DatabaseService() {
         this.userDAO = new UserDAO();
         this.trainDAO = new TrainDAO();
         this.scheduleDAO = new ScheduleDAO();
         this.bookingDAO = new BookingDAO();
+        this.seatInventoryDAO = new SeatInventoryDAO();
+        this.idempotencyKeyDAO = new IdempotencyKeyDAO();
+        this.paymentCaptureDAO = new PaymentCaptureDAO();
+        this.idSequenceDAO = new IdSequenceDAO();
+    }
+
+    /** Runs the work in one transaction; DAO calls made inside it join the transaction. */
+    public <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        return ConnectionManager.inTransaction(work);
     }
 
     // User operations
@@ -55,6 +83,14 @@ public class DatabaseService {
         return userDAO.emailExists(email, excludeUserId);
     }
 
+    public Page<User> findUsersPage(PageRequest request) throws SQLException {
+        return userDAO.findUsersPage(request);
+    }
+
+    public long countUsers(PageRequest request) throws SQLException {
+        return userDAO.countUsers(request);
+    }
+
     public String getNextUserId() throws SQLException {
         return userDAO.getNextUserId();
     }
@@ -80,10 +116,26 @@ public class DatabaseService {
         return trainDAO.updateTrain(train);
     }
 
+    public List<Train> addTrains(List<Train> trains) throws SQLException {
+        return trainDAO.addTrains(trains);
+    }
+
+    public void updateTrains(List<Train> trains) throws SQLException {
+        trainDAO.updateTrains(trains);
+    }
+
     public boolean removeTrain(String id) throws SQLException {
         return trainDAO.removeTrain(id);
     }
 
+    public Page<Train> findTrainsPage(PageRequest request) throws SQLException {
+        return trainDAO.findTrainsPage(request);
+    }
+
+    public long countTrains(PageRequest request) throws SQLException {
+        return trainDAO.countTrains(request);
+    }
+
     public String getNextTrainId() throws SQLException {
         return trainDAO.getNextTrainId();
     }
@@ -105,10 +157,26 @@ public class DatabaseService {
         return scheduleDAO.updateSchedule(schedule);
     }
 
+    public List<Schedule> addSchedules(List<Schedule> schedules) throws SQLException {
+        return scheduleDAO.addSchedules(schedules);
+    }
+
+    public void updateSchedules(List<Schedule> schedules) throws SQLException {
+        scheduleDAO.updateSchedules(schedules);
+    }
+
     public boolean removeSchedule(String id) throws SQLException {
         return scheduleDAO.removeSchedule(id);
     }
 
+    public Page<Schedule> findSchedulesPage(PageRequest request) throws SQLException {
+        return scheduleDAO.findSchedulesPage(request);
+    }
+
+    public long countSchedules(PageRequest request) throws SQLException {
+        return scheduleDAO.countSchedules(request);
+    }
+
     public String getNextScheduleId() throws SQLException {
         return scheduleDAO.getNextScheduleId();
     }
@@ -118,10 +186,46 @@ public class DatabaseService {
         return bookingDAO.getAllBookings();
     }
 
+    public void forEachBooking(int fetchSize, Consumer<Booking> visitor) throws SQLException {
+        bookingDAO.forEachBooking(fetchSize, visitor);
+    }
+
+    public Stream<Booking> streamBookings(int fetchSize) throws SQLException {
+        return bookingDAO.streamBookings(fetchSize);
+    }
+
+    public Stream<Booking> streamBookingsById(int fetchSize) throws SQLException {
+        return bookingDAO.streamBookingsById(fetchSize);
+    }
+
     public Optional<Booking> findBookingById(String id) throws SQLException {
         return bookingDAO.findBookingById(id);
     }
 
+    public List<Booking> findBookingsByUserId(String userId) throws SQLException {
+        return bookingDAO.findBookingsByUserId(userId);
+    }
+
+    public List<Booking> findBookingsByTrainAndDate(String trainId, LocalDate travelDate) throws SQLException {
+        return bookingDAO.findBookingsByTrainAndDate(trainId, travelDate);
+    }
+
+    public List<Booking> findBookingsByPaymentStatus(String paymentStatus) throws SQLException {
+        return bookingDAO.findBookingsByPaymentStatus(paymentStatus);
+    }
+
+    public List<Booking> findActiveBookings(String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        return bookingDAO.findActiveBookings(trainId, travelDate, seatClass);
+    }
+
+    public List<Booking> findWaitlist(String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        return bookingDAO.findWaitlist(trainId, travelDate, seatClass);
+    }
+
+    public void promoteFromWaitlist(Map<String, String> seatNumbersById, LocalDateTime promotedAt) throws SQLException {
+        bookingDAO.promoteFromWaitlist(seatNumbersById, promotedAt);
+    }
+
     public Booking addBooking(Booking booking) throws SQLException {
         return bookingDAO.addBooking(booking);
     }
@@ -130,7 +234,75 @@ public class DatabaseService {
         return bookingDAO.updateBooking(booking);
     }
 
-    public String getNextBookingId() throws SQLException {
-        return bookingDAO.getNextBookingId();
+    public boolean cancelBooking(Booking booking) throws SQLException {
+        return bookingDAO.cancelBooking(booking);
+    }
+
+    public boolean expireBooking(String bookingId) throws SQLException {
+        return bookingDAO.expireBooking(bookingId);
+    }
+
+    public boolean markBookingPaid(String bookingId, String paymentMethod) throws SQLException {
+        return bookingDAO.markPaid(bookingId, paymentMethod);
+    }
+
+    public List<Booking> addBookings(List<Booking> bookings) throws SQLException {
+        return bookingDAO.addBookings(bookings);
+    }
+
+    public void updateBookings(List<Booking> bookings) throws SQLException {
+        bookingDAO.updateBookings(bookings);
+    }
+
+    public Page<Booking> findBookingsPage(PageRequest request) throws SQLException {
+        return bookingDAO.findBookingsPage(request);
+    }
+
+    public long countBookings(PageRequest request) throws SQLException {
+        return bookingDAO.countBookings(request);
+    }
+
+    // Seat inventory operations
+    public Optional<SeatCount> findSeatCount(String trainId, LocalDate travelDate, String seatClass) throws SQLException {
+        return seatInventoryDAO.find(trainId, travelDate, seatClass);
+    }
+
+    public void saveSeatCount(String trainId, LocalDate travelDate, String seatClass, SeatCount count) throws SQLException {
+        seatInventoryDAO.save(trainId, travelDate, seatClass, count);
+    }
+
+    // Id sequence operations; each commits on its own, see IdSequenceDAO
+    public long findOrCreateSequence(String name, long initial) throws SQLException {
+        return idSequenceDAO.findOrCreate(name, initial);
+    }
+
+    public long reserveSequenceFrom(String name, long floor, long count) throws SQLException {
+        return idSequenceDAO.reserveFrom(name, floor, count);
+    }
+
+    // Idempotency key operations
+    public Optional<String> findIdempotentResult(String key, String operation, LocalDateTime notBefore) throws SQLException {
+        return idempotencyKeyDAO.find(key, operation, notBefore);
+    }
+
+    public void saveIdempotentResult(String key, String operation, String result, LocalDateTime createdAt) throws SQLException {
+        idempotencyKeyDAO.save(key, operation, result, createdAt);
+    }
+
+    public int deleteIdempotentResultsBefore(LocalDateTime cutoff) throws SQLException {
+        return idempotencyKeyDAO.deleteOlderThan(cutoff);
+    }
+
+    // Payment capture operations
+    public void savePaymentCapture(PaymentCapture capture) throws SQLException {
+        paymentCaptureDAO.save(capture);
+    }
+
+    public List<PaymentCapture> findUnsettledPaymentCaptures() throws SQLException {
+        return paymentCaptureDAO.findUnsettled();
+    }
+
+    public void markPaymentsSettled(List<PaymentCapture> captures, LocalDateTime settledAt) throws SQLException {
+        paymentCaptureDAO.markSettled(captures, settledAt);
     }
 }
@@ -0,0 +1,210 @@
+package com.example.railwaymanagementsystem.services;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe in-memory copy of one table, keyed by id. This is the source of
+ * truth for the repository: reads are lock-free, writes to the same id are
+ * serialized through a lock stripe, and secondary indexes are updated under
+ * that same stripe so they never disagree with the entry they point at.
+ *
+ * <p>{@link #view()} is an FX-bound mirror of the store. Changed ids are
+ * queued and the mirror is brought up to date through the shared
+ * {@link FxDispatcher}, so a burst of background writes costs one UI pass.</p>
+ */
+final class EntityStore<T> {
+    private static final int LOCK_STRIPES = 32;
+
+    private final Function<T, String> idOf;
+    private final FxDispatcher dispatcher;
+    private final Map<String, Slot<T>> slots = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private final List<UniqueIndex<T>> uniqueIndexes = new CopyOnWriteArrayList<>();
+    private final List<MultiIndex<T>> multiIndexes = new CopyOnWriteArrayList<>();
+
+    private final ObservableList<T> view = FXCollections.observableArrayList();
+    private final HashIndex<T> viewPositions;
+    private final Queue<String> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private final Set<String> dirtyIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean syncScheduled = new AtomicBoolean();
+
+    EntityStore(Function<T, String> idOf, FxDispatcher dispatcher) {
+        this.idOf = idOf;
+        this.dispatcher = dispatcher;
+        this.viewPositions = new HashIndex<>(view, idOf);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** Unique lookup by a derived key; register indexes before adding data. */
+    UniqueIndex<T> uniqueIndex(Function<T, String> keyOf, UnaryOperator<String> normalizer) {
+        UniqueIndex<T> index = new UniqueIndex<>(keyOf, normalizer);
+        uniqueIndexes.add(index);
+        return index;
+    }
+
+    UniqueIndex<T> uniqueIndex(Function<T, String> keyOf) {
+        return uniqueIndex(keyOf, UnaryOperator.identity());
+    }
+
+    MultiIndex<T> multiIndex(Function<T, String> keyOf) {
+        MultiIndex<T> index = new MultiIndex<>(keyOf);
+        multiIndexes.add(index);
+        return index;
+    }
+
+    Optional<T> get(String id) {
+        Slot<T> slot = id == null ? null : slots.get(id);
+        return slot == null ? Optional.empty() : Optional.of(slot.value);
+    }
+
+    /** Adds the entity, or replaces the one with the same id. */
+    void put(T entity) {
+        String id = idOf.apply(entity);
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            Slot<T> slot = slots.get(id);
+            if (slot == null) {
+                slot = new Slot<>(id, sequence.getAndIncrement(), entity);
+                slots.put(id, slot);
+            } else {
+                slot.value = entity;
+            }
+            for (UniqueIndex<T> index : uniqueIndexes) {
+                index.update(slot);
+            }
+            for (MultiIndex<T> index : multiIndexes) {
+                index.update(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+        markDirty(id);
+    }
+
+    void putAll(Collection<T> entities) {
+        entities.forEach(this::put);
+    }
+
+    void remove(String id) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            Slot<T> slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            for (UniqueIndex<T> index : uniqueIndexes) {
+                index.remove(slot);
+            }
+            for (MultiIndex<T> index : multiIndexes) {
+                index.remove(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+        markDirty(id);
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    /** Point-in-time copy of every entity, in the order they were first added. */
+    List<T> snapshot() {
+        List<Slot<T>> ordered = new ArrayList<>(slots.values());
+        ordered.sort(Comparator.naturalOrder());
+        List<T> entities = new ArrayList<>(ordered.size());
+        for (Slot<T> slot : ordered) {
+            entities.add(slot.value);
+        }
+        return entities;
+    }
+
+    /** FX-thread mirror of the store; read it on the FX thread only. */
+    ObservableList<T> view() {
+        return view;
+    }
+
+    private ReentrantLock stripeFor(String id) {
+        return stripes[(id.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private void markDirty(String id) {
+        if (dirtyIds.add(id)) {
+            dirtyQueue.add(id);
+        }
+        if (syncScheduled.compareAndSet(false, true)) {
+            dispatcher.submit(this::syncView);
+        }
+    }
+
+    private void syncView() {
+        syncScheduled.set(false);
+        // New rows are appended in one change so the table re-lays out once
+        Map<String, T> appended = new LinkedHashMap<>();
+        String id;
+        while ((id = dirtyQueue.poll()) != null) {
+            dirtyIds.remove(id);
+            Slot<T> slot = slots.get(id);
+            int index = viewPositions.indexOf(id);
+            if (slot == null) {
+                appended.remove(id);
+                if (index >= 0) {
+                    view.remove(index);
+                }
+            } else if (index >= 0) {
+                view.set(index, slot.value);
+            } else {
+                appended.put(id, slot.value);
+            }
+        }
+        if (!appended.isEmpty()) {
+            view.addAll(appended.values());
+        }
+        // Ids marked while the queue was being drained may have missed the pass
+        if (!dirtyQueue.isEmpty() && syncScheduled.compareAndSet(false, true)) {
+            dispatcher.submit(this::syncView);
+        }
+    }
+
+    /** One stored entity plus the order it was first added in. */
+    static final class Slot<T> implements Comparable<Slot<T>> {
+        final String id;
+        final long sequence;
+        volatile T value;
+
+        Slot(String id, long sequence, T value) {
+            this.id = id;
+            this.sequence = sequence;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Slot<T> other) {
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.railwaymanagementsystem.services;
+
+/**
+ * Price of a journey in one train type and class: a boarding charge, a rate
+ * per kilometre travelled and a flat surcharge (e.g. for superfast
+ * services), all in rupees.
+ */
+public record FareRule(double baseFare, double perKm, double surcharge) {
+
+    double price(double km) {
+        return baseFare + perKm * km + surcharge;
+    }
+}
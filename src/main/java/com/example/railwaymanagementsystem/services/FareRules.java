@@ -0,0 +1,156 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * One immutable set of fare rules; changes make a new set, see
+ * {@link FareService#updateRules}.
+ *
+ * <p>Distance rules are looked up by train type and seat class, then by
+ * train type for any class, then fall back to a default; these are compiled
+ * into {@link FareService}'s fare tables. Day-of-week and short-notice
+ * surcharges, load buckets and concessions depend on the date, on how full
+ * the train is and on the passenger, so they are applied when a fare is
+ * quoted.</p>
+ *
+ * <p>Load buckets raise the fare as a train fills: each bucket starts at a
+ * share of seats sold and adds its surcharge from there up to the next.</p>
+ */
+public final class FareRules {
+    static final String ANY_CLASS = "*";
+
+    private final Map<String, FareRule> rules;
+    private final FareRule fallback;
+    private final EnumMap<DayOfWeek, Double> daySurchargePercent;
+    private final int lastMinuteDays;
+    private final double lastMinuteSurchargePercent;
+    private final NavigableMap<Double, Double> loadBucketPercent;
+    private final EnumMap<Concession, Double> concessionPercent;
+
+    private FareRules(Map<String, FareRule> rules, FareRule fallback, EnumMap<DayOfWeek, Double> daySurchargePercent,
+                      int lastMinuteDays, double lastMinuteSurchargePercent, NavigableMap<Double, Double> loadBucketPercent,
+                      EnumMap<Concession, Double> concessionPercent) {
+        this.rules = rules;
+        this.fallback = fallback;
+        this.daySurchargePercent = daySurchargePercent;
+        this.lastMinuteDays = lastMinuteDays;
+        this.lastMinuteSurchargePercent = lastMinuteSurchargePercent;
+        this.loadBucketPercent = loadBucketPercent;
+        this.concessionPercent = concessionPercent;
+    }
+
+    /**
+     * Rates that keep whole-route fares close to the old flat prices (Express
+     * 3500, Passenger 2200, Freight 1500, others 2500 between Karachi and
+     * Lahore), plus 10% at weekends and 15% within two days of travel. The
+     * fare rises by 10% once half the seats are sold, 25% at 70%, 40% at 85%
+     * and 60% at 95%.
+     */
+    public static FareRules defaults() {
+        Map<String, FareRule> rules = new HashMap<>();
+        rules.put(key("Express", ANY_CLASS), new FareRule(500, 2.5, 0));
+        rules.put(key("Passenger", ANY_CLASS), new FareRule(300, 1.6, 0));
+        rules.put(key("Freight", ANY_CLASS), new FareRule(200, 1.1, 0));
+        EnumMap<DayOfWeek, Double> days = new EnumMap<>(DayOfWeek.class);
+        days.put(DayOfWeek.SATURDAY, 10.0);
+        days.put(DayOfWeek.SUNDAY, 10.0);
+        NavigableMap<Double, Double> buckets = new TreeMap<>();
+        buckets.put(0.50, 10.0);
+        buckets.put(0.70, 25.0);
+        buckets.put(0.85, 40.0);
+        buckets.put(0.95, 60.0);
+        EnumMap<Concession, Double> concessions = new EnumMap<>(Concession.class);
+        concessions.put(Concession.CHILD, 50.0);
+        concessions.put(Concession.STUDENT, 25.0);
+        concessions.put(Concession.SENIOR, 30.0);
+        return new FareRules(rules, new FareRule(400, 1.75, 0), days, 2, 15.0, buckets, concessions);
+    }
+
+    /** The rule for a train type and class, see the class comment for the order. */
+    public FareRule rule(String trainType, String seatClass) {
+        FareRule rule = rules.get(key(trainType, seatClass));
+        if (rule == null) {
+            rule = rules.get(key(trainType, ANY_CLASS));
+        }
+        return rule == null ? fallback : rule;
+    }
+
+    /** Sets the rule for a train type and class; {@code "*"} as the class covers every class. */
+    public FareRules withRule(String trainType, String seatClass, FareRule rule) {
+        Map<String, FareRule> changed = new HashMap<>(rules);
+        changed.put(key(trainType, seatClass), Objects.requireNonNull(rule));
+        return new FareRules(changed, fallback, daySurchargePercent, lastMinuteDays, lastMinuteSurchargePercent,
+                loadBucketPercent, concessionPercent);
+    }
+
+    public FareRules withFallback(FareRule rule) {
+        return new FareRules(rules, Objects.requireNonNull(rule), daySurchargePercent, lastMinuteDays,
+                lastMinuteSurchargePercent, loadBucketPercent, concessionPercent);
+    }
+
+    public FareRules withDaySurcharge(DayOfWeek day, double percent) {
+        EnumMap<DayOfWeek, Double> changed = new EnumMap<>(daySurchargePercent);
+        changed.put(day, percent);
+        return new FareRules(rules, fallback, changed, lastMinuteDays, lastMinuteSurchargePercent,
+                loadBucketPercent, concessionPercent);
+    }
+
+    /** Surcharge for travel within {@code days} days of booking; 0 days turns it off. */
+    public FareRules withLastMinuteSurcharge(int days, double percent) {
+        return new FareRules(rules, fallback, daySurchargePercent, days, percent, loadBucketPercent, concessionPercent);
+    }
+
+    /**
+     * Adds or replaces the bucket starting once {@code fromLoadFactor} of the
+     * seats (0 to 1) are sold; a negative percent is a discount.
+     */
+    public FareRules withLoadBucket(double fromLoadFactor, double percent) {
+        if (fromLoadFactor < 0 || fromLoadFactor > 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + fromLoadFactor);
+        }
+        NavigableMap<Double, Double> changed = new TreeMap<>(loadBucketPercent);
+        changed.put(fromLoadFactor, percent);
+        return new FareRules(rules, fallback, daySurchargePercent, lastMinuteDays, lastMinuteSurchargePercent,
+                changed, concessionPercent);
+    }
+
+    public FareRules withConcession(Concession concession, double percent) {
+        EnumMap<Concession, Double> changed = new EnumMap<>(concessionPercent);
+        changed.put(concession, percent);
+        return new FareRules(rules, fallback, daySurchargePercent, lastMinuteDays, lastMinuteSurchargePercent,
+                loadBucketPercent, changed);
+    }
+
+    /** Multiplier for travel on the given date when booking today. */
+    double dateFactor(LocalDate travelDate, LocalDate today) {
+        double percent = daySurchargePercent.getOrDefault(travelDate.getDayOfWeek(), 0.0);
+        if (lastMinuteDays > 0 && ChronoUnit.DAYS.between(today, travelDate) < lastMinuteDays) {
+            percent += lastMinuteSurchargePercent;
+        }
+        return 1 + percent / 100;
+    }
+
+    /** Multiplier for the bucket a train with this share of seats sold is in. */
+    double bucketFactor(double loadFactor) {
+        Map.Entry<Double, Double> bucket = loadBucketPercent.floorEntry(loadFactor);
+        return bucket == null ? 1 : 1 + bucket.getValue() / 100;
+    }
+
+    double concessionFactor(Concession concession) {
+        return 1 - concessionPercent.getOrDefault(concession, 0.0) / 100;
+    }
+
+    private static String key(String trainType, String seatClass) {
+        return (trainType == null ? "" : trainType.toLowerCase(Locale.ROOT)) + '|'
+                + (seatClass == null ? "" : seatClass.toLowerCase(Locale.ROOT));
+    }
+}
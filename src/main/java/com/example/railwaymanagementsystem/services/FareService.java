@@ -0,0 +1,150 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.Train;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Quotes fares from {@link FareRules}. The distance rules are compiled into
+ * one table per train and seat class holding the fare between every pair of
+ * stops on the route, so a quote is two stop-index lookups and an array read
+ * plus the date, load and concession factors; nothing is computed per search.
+ *
+ * <p>Tables are built the first time a train and class are quoted. A table
+ * remembers the route and train type it was built for and is rebuilt when
+ * the train is edited. {@link #updateRules} keeps every table whose rule
+ * the change left alone and recompiles only the rest.</p>
+ */
+public class FareService {
+    private record TableKey(String trainId, String seatClass) {}
+
+    /** Fares between stops of one route in one class, rounded to 10 rupees. */
+    private static final class FareTable {
+        final String route;
+        final String trainType;
+        final FareRule rule;
+        // The rules this table is current for; compared by identity on every quote
+        final FareRules compiledFrom;
+        final Map<String, Integer> stopIndex;
+        final int stops;
+        final int[] fares;
+        final int wholeRun;
+
+        FareTable(String route, String trainType, FareRule rule, FareRules compiledFrom) {
+            this.route = route;
+            this.trainType = trainType;
+            this.rule = rule;
+            this.compiledFrom = compiledFrom;
+            List<String> names = SegmentOccupancy.stopsOf(route);
+            this.stopIndex = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                stopIndex.putIfAbsent(names.get(i), i);
+            }
+            double[] km = RouteDistances.cumulativeKm(names);
+            this.stops = names.size();
+            this.fares = new int[stops * stops];
+            for (int from = 0; from < stops; from++) {
+                for (int to = from + 1; to < stops; to++) {
+                    fares[from * stops + to] = roundFare(rule.price(km[to] - km[from]));
+                }
+            }
+            this.wholeRun = roundFare(rule.price(stops == 0 ? 0 : km[stops - 1]));
+        }
+
+        private FareTable(FareTable table, FareRules compiledFrom) {
+            this.route = table.route;
+            this.trainType = table.trainType;
+            this.rule = table.rule;
+            this.compiledFrom = compiledFrom;
+            this.stopIndex = table.stopIndex;
+            this.stops = table.stops;
+            this.fares = table.fares;
+            this.wholeRun = table.wholeRun;
+        }
+
+        /** This table under new rules: shared if its rule is unchanged, otherwise rebuilt. */
+        FareTable recompile(FareRules rules, String seatClass) {
+            FareRule current = rules.rule(trainType, seatClass);
+            return current.equals(rule) ? new FareTable(this, rules) : new FareTable(route, trainType, current, rules);
+        }
+
+        boolean isFor(Train train, FareRules rules) {
+            return compiledFrom == rules && Objects.equals(route, train.getRoute())
+                    && Objects.equals(trainType, train.getType());
+        }
+
+        /** As with seats, a station off the route or a trip against its direction is the whole run. */
+        int fare(String fromStation, String toStation) {
+            Integer from = fromStation == null ? null : stopIndex.get(fromStation.trim().toLowerCase(Locale.ROOT));
+            Integer to = toStation == null ? null : stopIndex.get(toStation.trim().toLowerCase(Locale.ROOT));
+            if (from == null || to == null || from >= to) {
+                return wholeRun;
+            }
+            return fares[from * stops + to];
+        }
+    }
+
+    private final Map<TableKey, FareTable> tables = new ConcurrentHashMap<>();
+    private volatile FareRules rules = FareRules.defaults();
+
+    FareService() {
+    }
+
+    /**
+     * Fare per passenger in rupees for travel on the given date, without a
+     * concession. {@code loadFactor} is the share of seats already sold, see
+     * {@link FareRules#withLoadBucket}.
+     */
+    public int quote(Train train, String from, String to, String seatClass, LocalDate travelDate, double loadFactor) {
+        return quote(train, from, to, seatClass, travelDate, Concession.NONE, loadFactor);
+    }
+
+    public int quote(Train train, String from, String to, String seatClass, LocalDate travelDate,
+                     Concession concession, double loadFactor) {
+        FareRules current = rules;
+        double fare = table(train, seatClass, current).fare(from, to)
+                * current.dateFactor(travelDate, LocalDate.now())
+                * current.bucketFactor(loadFactor)
+                * current.concessionFactor(concession);
+        return roundFare(fare);
+    }
+
+    public FareRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Applies a change to the rules, e.g. {@code r -> r.withRule("Express", "*", rule)},
+     * and recompiles the tables already built whose rule it changed. Tables
+     * for other trains and classes are kept as they are.
+     */
+    public synchronized void updateRules(UnaryOperator<FareRules> change) {
+        FareRules updated = Objects.requireNonNull(change.apply(rules));
+        rules = updated;
+        tables.replaceAll((key, table) -> table.recompile(updated, key.seatClass()));
+    }
+
+    private FareTable table(Train train, String seatClass, FareRules current) {
+        TableKey key = new TableKey(train.getId(), seatClass);
+        FareTable table = tables.get(key);
+        if (table == null || !table.isFor(train, current)) {
+            // A table built against rules replaced meanwhile is caught by the identity check next time
+            table = table != null && Objects.equals(table.route, train.getRoute()) && Objects.equals(table.trainType, train.getType())
+                    ? table.recompile(current, seatClass)
+                    : new FareTable(train.getRoute(), train.getType(), current.rule(train.getType(), seatClass), current);
+            tables.put(key, table);
+        }
+        return table;
+    }
+
+    private static int roundFare(double rupees) {
+        return (int) Math.round(rupees / 10) * 10;
+    }
+}
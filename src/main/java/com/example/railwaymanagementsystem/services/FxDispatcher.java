@@ -0,0 +1,78 @@
+package com.example.railwaymanagementsystem.services;
+
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Funnels updates to FX-bound collections onto the JavaFX thread. Updates
+ * submitted from background threads are queued and applied together in a
+ * single {@link Platform#runLater} pass, however many arrive before it runs.
+ * Updates submitted on the FX thread are applied immediately, after anything
+ * already queued, so screens still see their own changes synchronously.
+ *
+ * <p>When no FX toolkit is running (tools, batch jobs) updates are applied
+ * on the calling thread instead.</p>
+ */
+final class FxDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(FxDispatcher.class.getName());
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean toolkitRunning;
+
+    void submit(Runnable update) {
+        pending.add(update);
+        if (!isToolkitRunning() || Platform.isFxApplicationThread()) {
+            drain();
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                Platform.runLater(this::drainScheduled);
+            } catch (IllegalStateException e) {
+                // Toolkit already shut down
+                scheduled.set(false);
+                drain();
+            }
+        }
+    }
+
+    /**
+     * Probes with a no-op {@code runLater}, which fails fast when the toolkit
+     * has not been started; {@link Platform#isFxApplicationThread()} would
+     * start it instead.
+     */
+    private boolean isToolkitRunning() {
+        if (!toolkitRunning) {
+            try {
+                Platform.runLater(() -> { });
+                toolkitRunning = true;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drainScheduled() {
+        // Cleared first so anything queued while draining schedules a new pass
+        scheduled.set(false);
+        drain();
+    }
+
+    private synchronized void drain() {
+        Runnable update;
+        while ((update = pending.poll()) != null) {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error applying UI update", e);
+            }
+        }
+    }
+}
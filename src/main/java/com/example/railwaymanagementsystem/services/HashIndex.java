@@ -0,0 +1,63 @@
+package com.example.railwaymanagementsystem.services;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Maps each element's id to its position in an observable list. It listens
+ * to the list, so every add, set, remove or setAll keeps it current;
+ * appends and in-place replacements cost O(1) per element. Used on the FX
+ * thread only, to find the row to replace when a store entry changes.
+ */
+final class HashIndex<T> {
+    private final ObservableList<T> list;
+    private final Function<T, String> idOf;
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    HashIndex(ObservableList<T> list, Function<T, String> idOf) {
+        this.list = list;
+        this.idOf = idOf;
+        reindex(0, list.size());
+        list.addListener(this::onChanged);
+    }
+
+    /** Position of the element with this id in the list, or -1. */
+    int indexOf(String id) {
+        Integer index = id == null ? null : positions.get(id);
+        if (index == null) {
+            return -1;
+        }
+        if (index >= list.size() || !id.equals(idOf.apply(list.get(index)))) {
+            positions.remove(id);
+            return -1;
+        }
+        return index;
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends T> change) {
+        while (change.next()) {
+            for (T removed : change.getRemoved()) {
+                positions.remove(idOf.apply(removed));
+            }
+            if (change.wasPermutated() || change.getAddedSize() != change.getRemovedSize()) {
+                // Everything after the change point moved
+                reindex(change.getFrom(), list.size());
+            } else {
+                reindex(change.getFrom(), change.getTo());
+            }
+        }
+    }
+
+    private void reindex(int from, int to) {
+        for (int i = from; i < to; i++) {
+            String id = idOf.apply(list.get(i));
+            if (id != null) {
+                positions.put(id, i);
+            }
+        }
+    }
+}
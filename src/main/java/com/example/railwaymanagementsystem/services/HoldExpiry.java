@@ -0,0 +1,106 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Deadlines for unpaid bookings. Each pending booking holds its seats for the
+ * payment window from the time it was made; when that passes without the hold
+ * being released, the expiry handler is called with the booking id.
+ *
+ * <p>Holds are kept in a {@link TimerWheel} driven by one daemon thread, so
+ * tracking or releasing a hold is O(1) and no thread is tied up per hold.
+ * Handlers run on that thread, one at a time.</p>
+ */
+final class HoldExpiry {
+    private static final Logger LOGGER = Logger.getLogger(HoldExpiry.class.getName());
+    static final Duration PAYMENT_WINDOW = Duration.ofMinutes(Long.getLong("railsafar.holds.paymentWindowMinutes", 30));
+    private static final long TICK_MILLIS = Long.getLong("railsafar.holds.tickMillis", 1_000L);
+
+    private final Consumer<String> onExpired;
+    private final Duration window;
+    private final TimerWheel<String> wheel;
+    private final Map<String, TimerWheel.Timeout<String>> holds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    HoldExpiry(Consumer<String> onExpired) {
+        this(onExpired, PAYMENT_WINDOW, TICK_MILLIS);
+    }
+
+    HoldExpiry(Consumer<String> onExpired, Duration window, long tickMillis) {
+        this.onExpired = onExpired;
+        this.window = window;
+        this.wheel = new TimerWheel<>(tickMillis, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-hold-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    Duration window() {
+        return window;
+    }
+
+    int size() {
+        return holds.size();
+    }
+
+    /** Runs a task on the expiry thread, e.g. restoring holds at start-up. */
+    void submit(Runnable task) {
+        ticker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error in booking hold task", e);
+            }
+        });
+    }
+
+    /** Starts the payment window for a booking made at the given time; a repeat call is ignored. */
+    void track(String bookingId, LocalDateTime bookedAt) {
+        long deadline = bookedAt.plus(window).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            if (!holds.containsKey(bookingId)) {
+                holds.put(bookingId, wheel.schedule(bookingId, deadline));
+            }
+        }
+    }
+
+    /** Stops the clock for a booking that was paid or cancelled. */
+    void release(String bookingId) {
+        synchronized (wheel) {
+            TimerWheel.Timeout<String> timeout = holds.remove(bookingId);
+            if (timeout != null) {
+                wheel.cancel(timeout);
+            }
+        }
+    }
+
+    private void tick() {
+        List<String> expired;
+        synchronized (wheel) {
+            expired = wheel.advanceTo(System.currentTimeMillis());
+            expired.forEach(holds::remove);
+        }
+        for (String bookingId : expired) {
+            try {
+                onExpired.accept(bookingId);
+            } catch (RuntimeException e) {
+                // A failing handler must not stop the ticker
+                LOGGER.log(Level.SEVERE, "Error expiring booking hold " + bookingId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the results of requests made with a client-supplied idempotency
+ * key, so a retried or double-submitted request gets the first result back
+ * instead of running again.
+ *
+ * <p>Results are kept for a retention window both in a bounded in-memory map,
+ * oldest evicted first, and in {@code idempotency_keys}, so a retry still
+ * finds its result after eviction or a restart. A duplicate that arrives
+ * while the first request is still running waits for it rather than
+ * running alongside it. Failed requests (a null result) are not remembered
+ * and may be retried.</p>
+ */
+final class IdempotencyStore {
+    private static final Logger LOGGER = Logger.getLogger(IdempotencyStore.class.getName());
+    static final Duration RETENTION = Duration.ofMinutes(Long.getLong("railsafar.idempotency.retentionMinutes", 24 * 60));
+    private static final int MAX_ENTRIES = Integer.getInteger("railsafar.idempotency.maxEntries", 10_000);
+    private static final int PRUNE_EVERY = 1_024;
+
+    private record Entry(String result, long expiresAtNanos) {}
+
+    private final DatabaseService db;
+    private final Duration retention;
+    private final int maxEntries;
+    // Insertion order is expiry order, so expired entries are always at the head
+    private final LinkedHashMap<String, Entry> recent = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<String>> running = new ConcurrentHashMap<>();
+    private final AtomicInteger savesSincePrune = new AtomicInteger();
+
+    IdempotencyStore(DatabaseService db) {
+        this(db, RETENTION, MAX_ENTRIES);
+    }
+
+    IdempotencyStore(DatabaseService db, Duration retention, int maxEntries) {
+        this.db = db;
+        this.retention = retention;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs the request unless a result is already known for the key and
+     * operation, in which case that result is returned. A null key runs the
+     * request every time.
+     */
+    String execute(String key, String operation, Supplier<String> request) {
+        return executeAsync(key, operation, () -> CompletableFuture.completedFuture(request.get())).join();
+    }
+
+    /**
+     * As {@link #execute} for a request that completes later; the result is
+     * remembered when it completes, and duplicates arriving meanwhile get the
+     * same future.
+     */
+    CompletableFuture<String> executeAsync(String key, String operation, Supplier<CompletableFuture<String>> request) {
+        if (key == null || key.isBlank()) {
+            return request.get();
+        }
+        String id = operation + '\u0000' + key;
+        String known = recall(id);
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> first = running.putIfAbsent(id, mine);
+        if (first != null) {
+            return first;
+        }
+        try {
+            String result = recall(id);
+            if (result == null) {
+                result = stored(key, operation).orElse(null);
+                if (result != null) {
+                    remember(id, result);
+                }
+            }
+            if (result != null) {
+                running.remove(id, mine);
+                mine.complete(result);
+                return mine;
+            }
+            request.get().whenComplete((outcome, error) -> {
+                if (outcome != null) {
+                    remember(id, outcome);
+                    save(key, operation, outcome);
+                }
+                running.remove(id, mine);
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(outcome);
+                }
+            });
+            return mine;
+        } catch (RuntimeException e) {
+            running.remove(id, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private synchronized String recall(String id) {
+        long now = System.nanoTime();
+        Iterator<Entry> oldest = recent.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAtNanos() - now <= 0) {
+            oldest.remove();
+        }
+        Entry entry = recent.get(id);
+        return entry == null ? null : entry.result();
+    }
+
+    private synchronized void remember(String id, String result) {
+        recent.remove(id);
+        recent.put(id, new Entry(result, System.nanoTime() + retention.toNanos()));
+        if (recent.size() > maxEntries) {
+            Iterator<String> oldest = recent.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private Optional<String> stored(String key, String operation) {
+        try {
+            return db.findIdempotentResult(key, operation, LocalDateTime.now().minus(retention));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading idempotency key", e);
+            return Optional.empty();
+        }
+    }
+
+    private void save(String key, String operation, String result) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            db.saveIdempotentResult(key, operation, result, now);
+            if (savesSincePrune.incrementAndGet() >= PRUNE_EVERY) {
+                savesSincePrune.set(0);
+                db.deleteIdempotentResultsBefore(now.minus(retention));
+            }
+        } catch (SQLException e) {
+            // Still remembered in memory; only a retry after a restart could run twice
+            LOGGER.log(Level.SEVERE, "Error saving idempotency key", e);
+        }
+    }
+}
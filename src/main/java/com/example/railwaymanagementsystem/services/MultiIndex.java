@@ -0,0 +1,75 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Non-unique index over an {@link EntityStore}: key to every entity that has
+ * it, e.g. user id to that user's bookings. Maintained by the store under the
+ * entry's lock stripe, so each write only touches the buckets of the entity
+ * involved; safe to read from any thread.
+ *
+ * <p>The key each entity was filed under is remembered, so an entity edited
+ * in place and then saved moves from its old bucket to the new one.</p>
+ */
+final class MultiIndex<T> {
+    private final Function<T, String> keyOf;
+    private final Map<String, NavigableSet<EntityStore.Slot<T>>> buckets = new ConcurrentHashMap<>();
+    private final Map<String, String> keyById = new ConcurrentHashMap<>();
+
+    MultiIndex(Function<T, String> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    /** Entities currently filed under the key, in the order they were added to the store. */
+    List<T> find(String key) {
+        NavigableSet<EntityStore.Slot<T>> bucket = buckets.get(key);
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        List<T> matches = new ArrayList<>(bucket.size());
+        for (EntityStore.Slot<T> slot : bucket) {
+            T entity = slot.value;
+            // Skip entities edited in place but not yet saved back to the store
+            if (key.equals(keyOf.apply(entity))) {
+                matches.add(entity);
+            }
+        }
+        return matches;
+    }
+
+    void update(EntityStore.Slot<T> slot) {
+        String key = keyOf.apply(slot.value);
+        String previous = key == null ? keyById.remove(slot.id) : keyById.put(slot.id, key);
+        if (previous != null && !previous.equals(key)) {
+            removeFromBucket(previous, slot);
+        }
+        if (key != null) {
+            buckets.compute(key, (k, bucket) -> {
+                NavigableSet<EntityStore.Slot<T>> target = bucket == null ? new ConcurrentSkipListSet<>() : bucket;
+                target.add(slot);
+                return target;
+            });
+        }
+    }
+
+    void remove(EntityStore.Slot<T> slot) {
+        String previous = keyById.remove(slot.id);
+        if (previous != null) {
+            removeFromBucket(previous, slot);
+        }
+    }
+
+    private void removeFromBucket(String key, EntityStore.Slot<T> slot) {
+        buckets.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(slot);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+}
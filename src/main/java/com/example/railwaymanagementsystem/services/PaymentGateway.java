@@ -0,0 +1,31 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.PaymentCapture;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A payment provider, plugged in through {@link java.util.ServiceLoader} and
+ * chosen by name with {@code railsafar.payments.gateway}; without one the
+ * {@link SimulatedPaymentGateway} is used.
+ *
+ * <p>Every call returns at once and completes later, so a slow provider never
+ * holds up a caller's thread. A stage that completes exceptionally is treated
+ * as a transient failure and the call may be repeated; a capture must
+ * therefore be idempotent per {@link PaymentRequest#attemptKey()}.</p>
+ */
+public interface PaymentGateway {
+
+    /** Name matched against {@code railsafar.payments.gateway} and stored with each capture. */
+    String name();
+
+    /** Authorises and captures the amount; declines complete normally with a declined result. */
+    CompletionStage<PaymentResult> capture(PaymentRequest request);
+
+    /** Gives back whatever was captured under the request's attempt key; nothing if there was none. */
+    CompletionStage<Void> refund(PaymentRequest request);
+
+    /** Submits captured payments for settlement as one batch. */
+    CompletionStage<Void> settle(List<PaymentCapture> captures);
+}
@@ -0,0 +1,206 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.PaymentCapture;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Talks to the {@link PaymentGateway} without blocking anyone. Captures are
+ * given {@code railsafar.payments.attemptTimeoutMillis} per attempt and
+ * retried up to {@code railsafar.payments.maxAttempts} times with a growing
+ * pause; their results are handed over on the pipeline's own thread, so
+ * callers can record them there rather than on a gateway or UI thread.
+ *
+ * <p>Captured payments queue up for settlement and go to the gateway in
+ * batches of {@code railsafar.payments.settlementBatchSize}, or whatever has
+ * gathered every {@code railsafar.payments.settlementIntervalMillis}. One
+ * batch is outstanding at a time; a batch the gateway refuses goes back on
+ * the queue.</p>
+ */
+final class PaymentPipeline {
+    private static final Logger LOGGER = Logger.getLogger(PaymentPipeline.class.getName());
+    private static final long ATTEMPT_TIMEOUT_MILLIS = Long.getLong("railsafar.payments.attemptTimeoutMillis", 10_000L);
+    private static final int MAX_ATTEMPTS = Integer.getInteger("railsafar.payments.maxAttempts", 3);
+    private static final long RETRY_DELAY_MILLIS = Long.getLong("railsafar.payments.retryDelayMillis", 500L);
+    private static final int SETTLEMENT_BATCH_SIZE = Integer.getInteger("railsafar.payments.settlementBatchSize", 100);
+    private static final long SETTLEMENT_INTERVAL_MILLIS = Long.getLong("railsafar.payments.settlementIntervalMillis", 5_000L);
+
+    private final PaymentGateway gateway;
+    private final Consumer<List<PaymentCapture>> onSettled;
+    private final Duration attemptTimeout;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final int batchSize;
+    private final ScheduledExecutorService worker;
+    private final Queue<PaymentCapture> unsettled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean settling = new AtomicBoolean();
+
+    PaymentPipeline(PaymentGateway gateway, Consumer<List<PaymentCapture>> onSettled) {
+        this(gateway, onSettled, Duration.ofMillis(ATTEMPT_TIMEOUT_MILLIS), MAX_ATTEMPTS, RETRY_DELAY_MILLIS,
+                SETTLEMENT_BATCH_SIZE, SETTLEMENT_INTERVAL_MILLIS);
+    }
+
+    PaymentPipeline(PaymentGateway gateway, Consumer<List<PaymentCapture>> onSettled, Duration attemptTimeout,
+                    int maxAttempts, long retryDelayMillis, int batchSize, long settlementIntervalMillis) {
+        this.gateway = gateway;
+        this.onSettled = onSettled;
+        this.attemptTimeout = attemptTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-pipeline");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.scheduleWithFixedDelay(this::settleBatch, settlementIntervalMillis, settlementIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The gateway named by {@code railsafar.payments.gateway} among those
+     * provided through {@link ServiceLoader}, or the simulated gateway.
+     */
+    static PaymentGateway loadGateway() {
+        String wanted = System.getProperty("railsafar.payments.gateway", SimulatedPaymentGateway.NAME);
+        for (PaymentGateway gateway : ServiceLoader.load(PaymentGateway.class)) {
+            if (gateway.name().equalsIgnoreCase(wanted)) {
+                return gateway;
+            }
+        }
+        if (!SimulatedPaymentGateway.NAME.equalsIgnoreCase(wanted)) {
+            LOGGER.warning("Payment gateway " + wanted + " not found; using the simulated gateway");
+        }
+        return new SimulatedPaymentGateway();
+    }
+
+    String gatewayName() {
+        return gateway.name();
+    }
+
+    /** Runs a task on the pipeline thread, e.g. restoring unsettled captures at start-up. */
+    void submit(Runnable task) {
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error in payment pipeline task", e);
+            }
+        });
+    }
+
+    /**
+     * Captures the payment, retrying failed and timed-out attempts. Completes
+     * on the pipeline thread with the gateway's answer, or exceptionally with
+     * the last failure once every attempt has failed.
+     */
+    CompletableFuture<PaymentResult> capture(PaymentRequest request) {
+        CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        attempt(request, 1, result);
+        return result;
+    }
+
+    private void attempt(PaymentRequest request, int attempt, CompletableFuture<PaymentResult> result) {
+        call(() -> gateway.capture(request)).whenCompleteAsync((answer, error) -> {
+            if (error == null) {
+                result.complete(answer);
+            } else if (attempt >= maxAttempts) {
+                result.completeExceptionally(error);
+            } else {
+                LOGGER.log(Level.WARNING, "Payment attempt " + attempt + " for booking " + request.bookingId()
+                        + " failed, retrying", error);
+                worker.schedule(() -> attempt(request, attempt + 1, result), retryDelayMillis * attempt, TimeUnit.MILLISECONDS);
+            }
+        }, worker);
+    }
+
+    /** Asks the gateway to give the payment back, retrying like a capture; failures are only logged. */
+    void refund(PaymentRequest request) {
+        refund(request, 1);
+    }
+
+    private void refund(PaymentRequest request, int attempt) {
+        call(() -> gateway.refund(request)).whenCompleteAsync((ignored, error) -> {
+            if (error == null) {
+                return;
+            }
+            if (attempt >= maxAttempts) {
+                LOGGER.log(Level.SEVERE, "Could not refund payment for booking " + request.bookingId()
+                        + " (attempt key " + request.attemptKey() + ")", error);
+            } else {
+                worker.schedule(() -> refund(request, attempt + 1), retryDelayMillis * attempt, TimeUnit.MILLISECONDS);
+            }
+        }, worker);
+    }
+
+    /** Queues captured payments for the next settlement batch. */
+    void settle(List<PaymentCapture> captures) {
+        unsettled.addAll(captures);
+        if (queued.addAndGet(captures.size()) >= batchSize) {
+            worker.execute(this::settleBatch);
+        }
+    }
+
+    int unsettledCount() {
+        return queued.get();
+    }
+
+    private void settleBatch() {
+        if (!settling.compareAndSet(false, true)) {
+            return;
+        }
+        List<PaymentCapture> batch = new ArrayList<>(batchSize);
+        PaymentCapture capture;
+        while (batch.size() < batchSize && (capture = unsettled.poll()) != null) {
+            batch.add(capture);
+        }
+        queued.addAndGet(-batch.size());
+        if (batch.isEmpty()) {
+            settling.set(false);
+            return;
+        }
+        call(() -> gateway.settle(batch)).whenCompleteAsync((ignored, error) -> {
+            settling.set(false);
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Settlement of " + batch.size() + " payment(s) failed, will retry", error);
+                unsettled.addAll(batch);
+                queued.addAndGet(batch.size());
+                return;
+            }
+            try {
+                onSettled.accept(batch);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error recording settled payments", e);
+            }
+            if (queued.get() >= batchSize) {
+                settleBatch();
+            }
+        }, worker);
+    }
+
+    /** The gateway call with the per-attempt timeout; a call that throws counts as a failed attempt. */
+    private <T> CompletableFuture<T> call(Supplier<CompletionStage<T>> gatewayCall) {
+        try {
+            return gatewayCall.get().toCompletableFuture().copy()
+                    .orTimeout(attemptTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
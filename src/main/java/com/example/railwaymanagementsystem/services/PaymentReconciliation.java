@@ -0,0 +1,144 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.dao.BookingDAO;
+import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.BookingStatus;
+import com.example.railwaymanagementsystem.models.PaymentStatus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Matches paid bookings against a gateway settlement file. Both sides are
+ * read in booking id order, the bookings table along its primary key and the
+ * file as {@link SettlementFile} delivers it, and merge-joined one row at a
+ * time, so memory use stays flat however many rows there are.
+ *
+ * <p>Every mismatch is written to a CSV exceptions report as it is found: a
+ * paid booking the file does not settle, a settlement for a booking that is
+ * cancelled, unpaid or unknown, an amount that differs, or a booking settled
+ * more than once.</p>
+ */
+public class PaymentReconciliation {
+    private static final Logger LOGGER = Logger.getLogger(PaymentReconciliation.class.getName());
+    private static final int FETCH_SIZE = Integer.getInteger("railsafar.db.fetchSize", BookingDAO.DEFAULT_FETCH_SIZE);
+    // Amounts are rupees; anything under half a paisa is rounding
+    private static final double AMOUNT_TOLERANCE = 0.005;
+    private static final String REPORT_HEADER =
+            "booking_id,issue,booking_status,payment_status,payment_method,booked_amount,settled_amount,reference,settlement_line";
+
+    /** Kinds of mismatch, as written to the report. */
+    public enum Issue {
+        PAID_NOT_SETTLED,
+        SETTLED_BUT_CANCELLED,
+        SETTLED_NOT_PAID,
+        SETTLED_UNKNOWN_BOOKING,
+        AMOUNT_MISMATCH,
+        DUPLICATE_SETTLEMENT
+    }
+
+    private final DatabaseService db;
+
+    public PaymentReconciliation(DatabaseService db) {
+        this.db = db;
+    }
+
+    /** Reconciles the settlement file against the bookings table and writes the exceptions report. */
+    public ReconciliationReport run(Path settlementFile, Path reportFile) throws IOException, SQLException {
+        long started = System.nanoTime();
+        Map<Issue, Long> issues = new EnumMap<>(Issue.class);
+        long bookingsRead = 0;
+        long paidBookings = 0;
+        long matched = 0;
+        try (SettlementFile settlements = SettlementFile.open(settlementFile);
+             Stream<Booking> stream = db.streamBookingsById(FETCH_SIZE);
+             BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            report.write(REPORT_HEADER);
+            report.newLine();
+            Iterator<Booking> bookings = stream.iterator();
+            Booking booking = bookings.hasNext() ? bookings.next() : null;
+            SettlementFile.Row row = settlements.next();
+            String lastBookingId = null;
+            while (booking != null || row != null) {
+                int order = booking == null ? 1 : row == null ? -1 : booking.getId().compareTo(row.bookingId());
+                if (order <= 0) {
+                    bookingsRead++;
+                    if (isPaid(booking)) {
+                        paidBookings++;
+                    }
+                }
+                if (order < 0) {
+                    if (isPaid(booking)) {
+                        writeIssue(report, issues, Issue.PAID_NOT_SETTLED, booking, null);
+                    }
+                    booking = bookings.hasNext() ? bookings.next() : null;
+                } else if (order > 0) {
+                    Issue issue = row.bookingId().equals(lastBookingId) ? Issue.DUPLICATE_SETTLEMENT : Issue.SETTLED_UNKNOWN_BOOKING;
+                    writeIssue(report, issues, issue, null, row);
+                    lastBookingId = row.bookingId();
+                    row = settlements.next();
+                } else {
+                    Issue issue = compare(booking, row);
+                    if (issue == null) {
+                        matched++;
+                    } else {
+                        writeIssue(report, issues, issue, booking, row);
+                    }
+                    // Further rows for this booking are duplicates, reported against the unknown-id branch
+                    lastBookingId = row.bookingId();
+                    row = settlements.next();
+                    booking = bookings.hasNext() ? bookings.next() : null;
+                }
+            }
+            ReconciliationReport result = new ReconciliationReport(bookingsRead, paidBookings, settlements.rowsRead(),
+                    matched, issues, (System.nanoTime() - started) / 1_000_000);
+            LOGGER.info(result.toString());
+            return result;
+        }
+    }
+
+    private static boolean isPaid(Booking booking) {
+        return PaymentStatus.PAID.matches(booking.getPaymentStatus());
+    }
+
+    /** The mismatch between a booking and its settlement, or null if they agree. */
+    private static Issue compare(Booking booking, SettlementFile.Row row) {
+        if (BookingStatus.CANCELLED.matches(booking.getStatus())) {
+            return Issue.SETTLED_BUT_CANCELLED;
+        }
+        if (!isPaid(booking)) {
+            return Issue.SETTLED_NOT_PAID;
+        }
+        if (Math.abs(booking.getTotalAmount() - row.amount()) > AMOUNT_TOLERANCE) {
+            return Issue.AMOUNT_MISMATCH;
+        }
+        return null;
+    }
+
+    private static void writeIssue(BufferedWriter report, Map<Issue, Long> issues, Issue issue,
+                                   Booking booking, SettlementFile.Row row) throws IOException {
+        issues.merge(issue, 1L, Long::sum);
+        String bookingId = booking != null ? booking.getId() : row.bookingId();
+        report.write(String.join(",",
+                SettlementFile.quote(bookingId),
+                issue.name(),
+                booking == null ? "" : SettlementFile.quote(booking.getStatus()),
+                booking == null ? "" : SettlementFile.quote(booking.getPaymentStatus()),
+                booking == null ? "" : SettlementFile.quote(booking.getPaymentMethod()),
+                booking == null ? "" : String.format(Locale.ROOT, "%.2f", booking.getTotalAmount()),
+                row == null ? "" : String.format(Locale.ROOT, "%.2f", row.amount()),
+                row == null ? "" : SettlementFile.quote(row.reference()),
+                row == null ? "" : Long.toString(row.line())));
+        report.newLine();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.railwaymanagementsystem.services;
+
+/**
+ * One payment for a booking, see {@link PaymentGateway#capture}. The attempt
+ * key stays the same across retries of the same payment.
+ */
+public record PaymentRequest(String attemptKey, String bookingId, double amount, String paymentMethod) {
+}
@@ -0,0 +1,16 @@
+package com.example.railwaymanagementsystem.services;
+
+/**
+ * A gateway's answer to a capture: approved with the gateway's reference for
+ * the money taken, or declined with a reason to show the passenger.
+ */
+public record PaymentResult(boolean approved, String reference, String reason) {
+
+    public static PaymentResult approved(String reference) {
+        return new PaymentResult(true, reference, null);
+    }
+
+    public static PaymentResult declined(String reason) {
+        return new PaymentResult(false, null, reason);
+    }
+}
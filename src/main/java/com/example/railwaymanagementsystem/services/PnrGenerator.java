@@ -0,0 +1,176 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking references (PNRs). A PNR is ten characters from the Crockford
+ * base-32 alphabet (digits and letters without I, L, O and U): nine carry a
+ * 45-bit value, the tenth is a Luhn mod 32 check character that catches any
+ * single mistyped character and most swapped neighbours.
+ *
+ * <p>The value packs a tick, seconds since 2025 (30 bits) with a per-second
+ * sequence (10 bits), around the install's node number (5 bits). Ticks are
+ * reserved a minute's worth at a time from the {@code pnr_clock} row of
+ * {@code id_sequences}, never below the clock and never below any tick
+ * reserved before, then handed out from memory with one atomic counter.
+ * No two processes sharing the database, and no restart, can issue the same
+ * tick; past 1024 PNRs in a second the counter borrows from the next second.
+ * The node number is drawn once per install and kept in the
+ * {@code pnr_node} row; set {@code railsafar.pnr.node} to give installs
+ * whose bookings are merged distinct numbers. The value is then scrambled by
+ * a fixed bijection, so consecutive PNRs do not look consecutive and cannot
+ * be guessed by counting.</p>
+ *
+ * <p>Bookings made before PNRs existed have short all-digit ids; those are
+ * still accepted as references, without a check character.</p>
+ */
+public final class PnrGenerator {
+    public static final int LENGTH = 10;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int BASE = ALPHABET.length();
+    private static final int SEQUENCE_BITS = 10;
+    private static final int NODE_BITS = 5;
+    private static final int VALUE_BITS = 45;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long EPOCH_SECOND = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    private static final String NODE_SEQUENCE = "pnr_node";
+    private static final String CLOCK_SEQUENCE = "pnr_clock";
+    private static final long BLOCK_TICKS = 60L << SEQUENCE_BITS;
+
+    private final DatabaseService db;
+    private volatile Block current = Block.EMPTY;
+
+    PnrGenerator(DatabaseService db) {
+        this.db = db;
+    }
+
+    /**
+     * A new PNR, never issued before on this install. Reserving the next
+     * block of ticks commits on its own, so this cannot be called inside a
+     * transaction.
+     */
+    String next() throws SQLException {
+        long now = (System.currentTimeMillis() / 1000 - EPOCH_SECOND) << SEQUENCE_BITS;
+        while (true) {
+            Block block = current;
+            long tick = block.last.accumulateAndGet(now, (last, floor) -> Math.max(last + 1, floor));
+            if (tick < block.end) {
+                return format(tick, block.node);
+            }
+            refill(block, now);
+        }
+    }
+
+    private synchronized void refill(Block exhausted, long now) throws SQLException {
+        if (current != exhausted) {
+            return; // another thread already refilled
+        }
+        long node = exhausted == Block.EMPTY ? node() : exhausted.node;
+        long start = db.reserveSequenceFrom(CLOCK_SEQUENCE, now, BLOCK_TICKS);
+        current = new Block(start - 1, start + BLOCK_TICKS, node);
+    }
+
+    private long node() throws SQLException {
+        Long configured = Long.getLong("railsafar.pnr.node");
+        if (configured != null) {
+            return configured & NODE_MASK;
+        }
+        return db.findOrCreateSequence(NODE_SEQUENCE, ThreadLocalRandom.current().nextLong(NODE_MASK + 1)) & NODE_MASK;
+    }
+
+    private static String format(long tick, long node) {
+        long second = tick >>> SEQUENCE_BITS;
+        long sequence = tick & (1L << SEQUENCE_BITS) - 1;
+        long value = second << NODE_BITS + SEQUENCE_BITS | node << SEQUENCE_BITS | sequence;
+
+        char[] pnr = new char[LENGTH];
+        long scrambled = scramble(value & VALUE_MASK);
+        for (int i = LENGTH - 2; i >= 0; i--) {
+            pnr[i] = ALPHABET.charAt((int) (scrambled % BASE));
+            scrambled /= BASE;
+        }
+        pnr[LENGTH - 1] = ALPHABET.charAt(checkDigit(pnr, LENGTH - 1));
+        return new String(pnr);
+    }
+
+    /**
+     * Upper-cases a typed reference and reads the look-alike letters O, I
+     * and L as the digits 0, 1 and 1.
+     */
+    public static String normalize(String typed) {
+        String upper = typed.trim().toUpperCase(Locale.ROOT);
+        return upper.length() == LENGTH
+                ? upper.replace('O', '0').replace('I', '1').replace('L', '1')
+                : upper;
+    }
+
+    /**
+     * True if the reference could be a booking: a PNR whose check character
+     * matches, or an older all-digit booking id. Use it to turn away typing
+     * mistakes before looking anything up.
+     */
+    public static boolean isWellFormed(String typed) {
+        if (typed == null) {
+            return false;
+        }
+        String pnr = normalize(typed);
+        if (pnr.length() < LENGTH) {
+            return !pnr.isEmpty() && pnr.chars().allMatch(c -> c >= '0' && c <= '9');
+        }
+        if (pnr.length() > LENGTH) {
+            return false;
+        }
+        char[] chars = pnr.toCharArray();
+        for (char c : chars) {
+            if (ALPHABET.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return checkDigit(chars, LENGTH - 1) == ALPHABET.indexOf(chars[LENGTH - 1]);
+    }
+
+    /** Luhn mod 32 check character over the first {@code length} characters. */
+    private static int checkDigit(char[] chars, int length) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(chars[i]);
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / BASE + addend % BASE;
+        }
+        return (BASE - sum % BASE) % BASE;
+    }
+
+    /**
+     * Bijection on 45-bit values: multiplying by an odd constant and
+     * xor-shifting right can both be undone, so distinct inputs stay distinct.
+     */
+    private static long scramble(long value) {
+        long x = value * 0x1C3F0A4B7D5L & VALUE_MASK;
+        x ^= x >>> 22;
+        x = x * 0x0F2A9C6E3B1L & VALUE_MASK;
+        x ^= x >>> 19;
+        return x;
+    }
+
+    /** Ticks reserved in the database, handed out up to {@code end}. */
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0, 0);
+
+        final AtomicLong last;
+        final long end;
+        final long node;
+
+        Block(long last, long end, long node) {
+            this.last = new AtomicLong(last);
+            this.end = end;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.Map;
+
+/**
+ * Totals from one {@link PaymentReconciliation} run; the mismatches
+ * themselves are in its exceptions report.
+ */
+public record ReconciliationReport(
+        long bookingsRead,
+        long paidBookings,
+        long settlementRows,
+        long matched,
+        Map<PaymentReconciliation.Issue, Long> issues,
+        long durationMillis
+) {
+    public long issueCount() {
+        return issues.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Reconciled %d settlement rows against %d bookings (%d paid) in %d ms: %d matched, %d exceptions %s",
+                settlementRows, bookingsRead, paidBookings, durationMillis, matched, issueCount(), issues);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.railwaymanagementsystem.services;
+
+/**
+ * How {@link BackendRepository} fills its in-memory state at startup.
+ * Selected with {@code -Drailsafar.repository.mode=eager|lazy}.
+ */
+public enum RepositoryMode {
+    /** Every user, train, schedule and booking is loaded before the first screen. */
+    EAGER,
+    /**
+     * Only trains and schedules are preloaded. Users and bookings are fetched
+     * on demand and kept in a bounded cache; the full lists are only built if
+     * a screen actually asks for them.
+     */
+    LAZY;
+
+    public static RepositoryMode fromSystemProperties() {
+        String value = System.getProperty("railsafar.repository.mode", "lazy");
+        return "eager".equalsIgnoreCase(value.trim()) ? EAGER : LAZY;
+    }
+}
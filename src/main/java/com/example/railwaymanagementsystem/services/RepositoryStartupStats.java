@@ -0,0 +1,22 @@
+package com.example.railwaymanagementsystem.services;
+
+/**
+ * What {@link BackendRepository} did before it was ready to serve the first
+ * screen. Run once with each {@link RepositoryMode} to compare them.
+ */
+public record RepositoryStartupStats(
+        RepositoryMode mode,
+        long durationMillis,
+        long heapDeltaBytes,
+        int usersLoaded,
+        int trainsLoaded,
+        int schedulesLoaded,
+        int bookingsLoaded
+) {
+    @Override
+    public String toString() {
+        return String.format("Repository ready in %d ms (%s mode): %d users, %d trains, %d schedules, %d bookings loaded, heap +%d KB",
+                durationMillis, mode.name().toLowerCase(), usersLoaded, trainsLoaded, schedulesLoaded, bookingsLoaded,
+                heapDeltaBytes / 1024);
+    }
+}
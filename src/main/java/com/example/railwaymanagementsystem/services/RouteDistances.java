@@ -0,0 +1,62 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Approximate rail distances between stations. There is no distance table
+ * in the database, so a leg is the great-circle distance between its two
+ * stations, lengthened by {@link #DETOUR_FACTOR} for the way the line
+ * actually runs. A station missing from the list counts
+ * {@code railsafar.fares.unknownLegKm} per leg.
+ */
+final class RouteDistances {
+    private static final Logger LOGGER = Logger.getLogger(RouteDistances.class.getName());
+    private static final double DETOUR_FACTOR = 1.2;
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double UNKNOWN_LEG_KM = Double.parseDouble(System.getProperty("railsafar.fares.unknownLegKm", "250"));
+
+    // Latitude and longitude in degrees
+    private static final Map<String, double[]> STATIONS = Map.ofEntries(
+            Map.entry("karachi", new double[]{24.8607, 67.0011}),
+            Map.entry("hyderabad", new double[]{25.3960, 68.3578}),
+            Map.entry("rohri", new double[]{27.6920, 68.8950}),
+            Map.entry("quetta", new double[]{30.1798, 66.9750}),
+            Map.entry("bahawalpur", new double[]{29.3956, 71.6836}),
+            Map.entry("multan", new double[]{30.1575, 71.5249}),
+            Map.entry("faisalabad", new double[]{31.4504, 73.1350}),
+            Map.entry("lahore", new double[]{31.5204, 74.3587}),
+            Map.entry("rawalpindi", new double[]{33.5651, 73.0169}),
+            Map.entry("islamabad", new double[]{33.6844, 73.0479}),
+            Map.entry("peshawar", new double[]{34.0151, 71.5249})
+    );
+
+    private RouteDistances() {}
+
+    /** Kilometres from the first stop to each stop, for stops as {@link SegmentOccupancy#stopsOf} gives them. */
+    static double[] cumulativeKm(List<String> stops) {
+        double[] km = new double[stops.size()];
+        for (int i = 1; i < km.length; i++) {
+            km[i] = km[i - 1] + legKm(stops.get(i - 1), stops.get(i));
+        }
+        return km;
+    }
+
+    static double legKm(String from, String to) {
+        double[] a = STATIONS.get(from.toLowerCase(Locale.ROOT));
+        double[] b = STATIONS.get(to.toLowerCase(Locale.ROOT));
+        if (a == null || b == null) {
+            LOGGER.fine(() -> "No location for " + (a == null ? from : to) + "; counting " + UNKNOWN_LEG_KM + " km");
+            return UNKNOWN_LEG_KM;
+        }
+        double lat1 = Math.toRadians(a[0]);
+        double lat2 = Math.toRadians(b[0]);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(b[1] - a[1]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(h)) * DETOUR_FACTOR;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.railwaymanagementsystem.services;
 
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.Schedule;
 import javafx.collections.ObservableList;
 
@@ -8,10 +10,21 @@ import java.util.Optional;
 public class ScheduleService {
     private final BackendRepository repo = BackendRepository.getInstance();
 
+    ScheduleService() {
+    }
+
     public ObservableList<Schedule> getSchedules() {
         return repo.getSchedules();
     }
 
+    public Page<Schedule> getSchedulesPage(PageRequest request) {
+        return repo.findSchedulesPage(request);
+    }
+
+    public long countSchedules(PageRequest request) {
+        return repo.countSchedules(request);
+    }
+
     public Optional<Schedule> getScheduleForTrain(String trainNumber) {
         return repo.findScheduleByTrainNumber(trainNumber);
     }
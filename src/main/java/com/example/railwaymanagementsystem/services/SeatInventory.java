@@ -0,0 +1,416 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.dao.SeatCount;
+import com.example.railwaymanagementsystem.dao.SqlWork;
+import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.Train;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Seat capacity per train, travel date and class, tracked per route segment
+ * (see {@link SegmentOccupancy}) and laid out in coaches (see
+ * {@link CoachLayout}).
+ *
+ * <p>Each run is locked on its own, so bookings for different trains or
+ * dates never contend. A run's occupancy is rebuilt from its active bookings
+ * the first time it is touched, without writing anything; after each change
+ * the busiest segment's load is written to {@code seat_inventory} alongside
+ * the capacity, in the transaction that saves the change.</p>
+ *
+ * <p>Editing a train's route replaces its runs. The replacement is built
+ * under the old run's lock and takes over its holds, and every change checks
+ * after locking that its run is still current, retrying on the new one if
+ * not.</p>
+ *
+ * <p>Each run also keeps its waitlist: bookings taken while the run was full,
+ * in the order they joined. Seats given back by a cancellation are offered
+ * down the waitlist in that order, in the same transaction as the
+ * cancellation itself.</p>
+ */
+final class SeatInventory {
+    private static final Logger LOGGER = Logger.getLogger(SeatInventory.class.getName());
+    static final int DEFAULT_CAPACITY = Integer.getInteger("railsafar.inventory.capacity", 500);
+
+    private record Key(String trainId, LocalDate travelDate, String seatClass) {}
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::trainId)
+            .thenComparing(Key::travelDate)
+            .thenComparing(Key::seatClass);
+
+    private final DatabaseService db;
+    /** A run's seats and waitlist; both are guarded by the instance's lock. */
+    private static final class Run {
+        final SegmentOccupancy seats;
+        final Map<String, Booking> waitlist = new LinkedHashMap<>();
+
+        Run(SegmentOccupancy seats) {
+            this.seats = seats;
+        }
+    }
+
+    private final Map<Key, Run> runs = new ConcurrentHashMap<>();
+    // Loads runs asked for by loadFactor, off the caller's thread
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "seat-inventory-warmer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<Key> warming = ConcurrentHashMap.newKeySet();
+
+    SeatInventory(DatabaseService db) {
+        this.db = db;
+    }
+
+    /** Seats free for the whole journey, or 0 if the inventory could not be read. */
+    int available(Train train, LocalDate travelDate, String seatClass, String fromStation, String toStation) {
+        Run run = runFor(train, travelDate, seatClass);
+        if (run == null) {
+            return 0;
+        }
+        synchronized (run) {
+            int[] range = run.seats.segmentsBetween(fromStation, toStation);
+            return run.seats.countFree(range[0], range[1]);
+        }
+    }
+
+    /**
+     * Share of seats sold on the run's busiest segment, kept current by every
+     * hold and release. Reading it takes no lock and runs no query, so fares
+     * can be quoted on the FX thread: a run not loaded yet reads as 0 and is
+     * loaded in the background for later quotes. A run whose route was
+     * edited reads its old figure until it is rebuilt.
+     */
+    double loadFactor(Train train, LocalDate travelDate, String seatClass) {
+        Key key = new Key(train.getId(), travelDate, seatClass);
+        Run run = runs.get(key);
+        if (run == null || !Objects.equals(run.seats.route(), train.getRoute())) {
+            warm(key, train);
+        }
+        return run == null ? 0 : run.seats.loadFactor();
+    }
+
+    private void warm(Key key, Train train) {
+        if (warming.add(key)) {
+            warmer.execute(() -> {
+                try {
+                    runFor(train, key.travelDate(), key.seatClass());
+                } finally {
+                    warming.remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Holds seats for every booking, all or nothing, fills in their seat
+     * numbers, and runs {@code save} in the same transaction as the seat
+     * counts. Bookings are matched to trains by index. Returns false, with no
+     * seats held, if any booking could not be seated or the transaction
+     * failed.
+     *
+     * <p>The runs involved are locked in key order before the writer is
+     * taken, so bookings that share runs cannot deadlock.</p>
+     */
+    boolean reserveAll(List<Booking> bookings, List<Train> trains, SqlWork<?> save) {
+        while (true) {
+            Map<Key, Run> involved = new TreeMap<>(KEY_ORDER);
+            for (int i = 0; i < bookings.size(); i++) {
+                Booking booking = bookings.get(i);
+                Run run = runFor(trains.get(i), booking.getTravelDate(), booking.getSeatClass());
+                if (run == null) {
+                    return false;
+                }
+                involved.put(keyOf(booking), run);
+            }
+            Boolean reserved = withLocks(new ArrayList<>(involved.values()), 0,
+                    () -> allCurrent(involved) ? holdAndSave(bookings, involved, save) : null);
+            if (reserved != null) {
+                return reserved;
+            }
+        }
+    }
+
+    private boolean holdAndSave(List<Booking> bookings, Map<Key, Run> involved, SqlWork<?> save) {
+        for (Booking booking : bookings) {
+            SegmentOccupancy seats = involved.get(keyOf(booking)).seats;
+            int[] range = seats.segmentsBetween(booking.getFromStation(), booking.getToStation());
+            int[] held = seats.hold(booking.getId(), range[0], range[1], booking.getNumberOfSeats());
+            if (held == null) {
+                undoHolds(bookings, involved);
+                return false;
+            }
+            booking.setSeatNumbers(CoachLayout.join(held));
+        }
+        try {
+            db.inTransaction(conn -> {
+                for (Map.Entry<Key, Run> entry : involved.entrySet()) {
+                    Key key = entry.getKey();
+                    SegmentOccupancy seats = entry.getValue().seats;
+                    db.saveSeatCount(key.trainId(), key.travelDate(), key.seatClass(),
+                            new SeatCount(seats.capacity(), seats.peakLoad()));
+                }
+                return save.execute(conn);
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error saving group booking", e);
+            undoHolds(bookings, involved);
+            return false;
+        }
+        return true;
+    }
+
+    private static <T> T withLocks(List<Run> runs, int next, Supplier<T> action) {
+        if (next == runs.size()) {
+            return action.get();
+        }
+        synchronized (runs.get(next)) {
+            return withLocks(runs, next + 1, action);
+        }
+    }
+
+    private static void undoHolds(List<Booking> bookings, Map<Key, Run> involved) {
+        for (Booking booking : bookings) {
+            involved.get(keyOf(booking)).seats.release(booking.getId());
+        }
+    }
+
+    /**
+     * Saves a waitlisted booking and adds it to the end of its run's
+     * waitlist. The save runs under the run's lock so no promotion can pass
+     * the booking over in between. Returns its place in the queue counting
+     * from 1, or 0 if it could not be saved.
+     */
+    int enqueue(Booking booking, Train train, SqlWork<?> save) {
+        Key key = keyOf(booking);
+        while (true) {
+            Run run = runFor(train, booking.getTravelDate(), booking.getSeatClass());
+            if (run == null) {
+                return 0;
+            }
+            synchronized (run) {
+                if (!isCurrent(key, run)) {
+                    continue;
+                }
+                try {
+                    db.inTransaction(save);
+                } catch (SQLException e) {
+                    LOGGER.log(Level.SEVERE, "Error adding booking to the waitlist", e);
+                    return 0;
+                }
+                run.waitlist.put(booking.getId(), booking);
+                return run.waitlist.size();
+            }
+        }
+    }
+
+    /** Place of a booking in its run's waitlist counting from 1, or 0 if it is not waiting. */
+    int waitlistPosition(Booking booking, Train train) {
+        Run run = runFor(train, booking.getTravelDate(), booking.getSeatClass());
+        if (run == null) {
+            return 0;
+        }
+        synchronized (run) {
+            return positionOf(run, booking.getId());
+        }
+    }
+
+    /**
+     * Takes a booking off its run, freeing its seats or its place in the
+     * waitlist, and offers any freed seats down the waitlist in order. A
+     * waiting booking is promoted if seats are free for its whole journey;
+     * the rest keep their places.
+     *
+     * <p>{@code statusChange} saves the booking's new status. It runs in one
+     * transaction with the promotions and the seat count, and returning
+     * false (e.g. the booking was already cancelled) rolls them all back.
+     * Returns the promotions, or null if nothing changed. The promoted
+     * bookings themselves are left for the caller to update.</p>
+     */
+    List<WaitlistPromotion> releaseAndPromote(Booking booking, Train train, SqlWork<Boolean> statusChange) {
+        Key key = keyOf(booking);
+        while (true) {
+            Run run = train != null ? runFor(train, key.travelDate(), key.seatClass()) : runs.get(key);
+            if (run == null) {
+                // Train removed or inventory unreadable; nothing to hand on
+                try {
+                    return db.inTransaction(statusChange) ? List.of() : null;
+                } catch (SQLException e) {
+                    LOGGER.log(Level.SEVERE, "Error saving booking status", e);
+                    return null;
+                }
+            }
+            synchronized (run) {
+                if (isCurrent(key, run)) {
+                    return releaseAndPromote(run, key, booking, statusChange);
+                }
+            }
+        }
+    }
+
+    /** Does the work of {@link #releaseAndPromote(Booking, Train, SqlWork)}; the caller holds the run's lock. */
+    private List<WaitlistPromotion> releaseAndPromote(Run run, Key key, Booking booking, SqlWork<Boolean> statusChange) {
+        SegmentOccupancy seats = run.seats;
+        int[] range = seats.segmentsBetween(booking.getFromStation(), booking.getToStation());
+        int[] freed = seats.release(booking.getId());
+        Map<String, String> promotions = new LinkedHashMap<>();
+        if (freed != null) {
+            for (Booking waiting : run.waitlist.values()) {
+                if (seats.isFull()) {
+                    break;
+                }
+                int[] journey = seats.segmentsBetween(waiting.getFromStation(), waiting.getToStation());
+                int[] held = seats.hold(waiting.getId(), journey[0], journey[1], waiting.getNumberOfSeats());
+                if (held != null) {
+                    promotions.put(waiting.getId(), CoachLayout.join(held));
+                }
+            }
+        }
+        LocalDateTime promotedAt = LocalDateTime.now();
+        boolean changed;
+        try {
+            changed = db.inTransaction(conn -> {
+                if (!statusChange.execute(conn)) {
+                    return false;
+                }
+                db.promoteFromWaitlist(promotions, promotedAt);
+                db.saveSeatCount(key.trainId(), key.travelDate(), key.seatClass(),
+                        new SeatCount(seats.capacity(), seats.peakLoad()));
+                return true;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error promoting waitlisted bookings", e);
+            changed = false;
+        }
+        if (!changed) {
+            promotions.keySet().forEach(seats::release);
+            if (freed != null) {
+                seats.holdExact(booking.getId(), range[0], range[1], freed);
+            }
+            return null;
+        }
+        run.waitlist.remove(booking.getId());
+        List<WaitlistPromotion> promoted = new ArrayList<>(promotions.size());
+        promotions.forEach((id, seatNumbers) ->
+                promoted.add(new WaitlistPromotion(run.waitlist.remove(id), seatNumbers, promotedAt)));
+        return promoted;
+    }
+
+    private static int positionOf(Run run, String bookingId) {
+        int position = 1;
+        for (String id : run.waitlist.keySet()) {
+            if (id.equals(bookingId)) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    private static Key keyOf(Booking booking) {
+        return new Key(booking.getTrainId(), booking.getTravelDate(), booking.getSeatClass());
+    }
+
+    private Run runFor(Train train, LocalDate travelDate, String seatClass) {
+        Key key = new Key(train.getId(), travelDate, seatClass);
+        try {
+            while (true) {
+                Run run = runs.get(key);
+                if (run == null) {
+                    // Built outside the map so a slow load never blocks other
+                    // runs; the first run stored wins
+                    Run loaded = load(key, train.getRoute());
+                    Run existing = runs.putIfAbsent(key, loaded);
+                    run = existing != null ? existing : loaded;
+                }
+                if (Objects.equals(run.seats.route(), train.getRoute())) {
+                    return run;
+                }
+                // A route edit changes the segments, so rebuild
+                Run rebuilt = rebuild(key, run, train.getRoute());
+                if (rebuilt != null) {
+                    return rebuilt;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading seat inventory", e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces a run with one built for a new route. This happens under the
+     * old run's lock, so no change can land on the old run meanwhile, and
+     * seats the old run holds for bookings not yet in the database are
+     * carried over. Returns null if another thread replaced the run first.
+     */
+    private Run rebuild(Key key, Run old, String route) throws SQLException {
+        synchronized (old) {
+            if (!isCurrent(key, old)) {
+                return null;
+            }
+            Run rebuilt = load(key, route);
+            old.seats.carryHoldsTo(rebuilt.seats);
+            runs.put(key, rebuilt);
+            return rebuilt;
+        }
+    }
+
+    /** Checked after locking a run: false if a route edit has replaced it since it was looked up. */
+    private boolean isCurrent(Key key, Run run) {
+        return runs.get(key) == run;
+    }
+
+    private boolean allCurrent(Map<Key, Run> involved) {
+        for (Map.Entry<Key, Run> entry : involved.entrySet()) {
+            if (!isCurrent(entry.getKey(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Run load(Key key, String route) throws SQLException {
+        Optional<SeatCount> stored = db.findSeatCount(key.trainId(), key.travelDate(), key.seatClass());
+        SegmentOccupancy run = new SegmentOccupancy(route, CoachLayout.forClass(key.seatClass()),
+                stored.map(SeatCount::capacity).orElse(DEFAULT_CAPACITY));
+        List<Booking> unplaced = new ArrayList<>();
+        for (Booking booking : db.findActiveBookings(key.trainId(), key.travelDate(), key.seatClass())) {
+            int[] range = run.segmentsBetween(booking.getFromStation(), booking.getToStation());
+            int[] seats = CoachLayout.parse(booking.getSeatNumbers());
+            if (seats == null || !run.holdExact(booking.getId(), range[0], range[1], seats)) {
+                unplaced.add(booking);
+            }
+        }
+        // Bookings without usable seat numbers predate allocation; placing
+        // them by boarding stop packs them into the fewest seats
+        unplaced.sort(Comparator.comparingInt(booking ->
+                run.segmentsBetween(booking.getFromStation(), booking.getToStation())[0]));
+        for (Booking booking : unplaced) {
+            int[] range = run.segmentsBetween(booking.getFromStation(), booking.getToStation());
+            run.holdGrowing(booking.getId(), range[0], range[1], booking.getNumberOfSeats());
+        }
+        Run loaded = new Run(run);
+        for (Booking waiting : db.findWaitlist(key.trainId(), key.travelDate(), key.seatClass())) {
+            loaded.waitlist.put(waiting.getId(), waiting);
+        }
+        return loaded;
+    }
+}
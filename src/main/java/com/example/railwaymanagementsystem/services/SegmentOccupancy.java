@@ -0,0 +1,362 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Which seats are taken on which legs of one train run. A route
+ * "Peshawar - Lahore - Karachi" has stops 0..2 and segments 0..1; a booking
+ * holds its seats only on the segments between its boarding and alighting
+ * stops, so a seat freed at Lahore can be sold again for Lahore - Karachi.
+ *
+ * <p>Occupancy is stored segment-major: one bitset over seats per segment.
+ * The seats free across segments {@code i..j} are the complement of the OR of
+ * those bitsets, computed 64 seats per word. With 64-seat coaches (see
+ * {@link CoachLayout}) each word is exactly one coach.</p>
+ *
+ * <p>Seats taken per segment are counted as seats are marked and freed, so
+ * the busiest segment's load is known without recounting the bitsets.</p>
+ *
+ * <p>Not thread-safe; the owning {@link SeatInventory} locks on the
+ * instance. Only {@link #loadFactor} may be read without the lock.</p>
+ */
+final class SegmentOccupancy {
+    private record Hold(int fromSegment, int toSegment, int[] seats) {}
+
+    private final String route;
+    private final CoachLayout layout;
+    private final List<String> stops;
+    private final int segments;
+    private int capacity;
+    private long[][] taken;
+    private final int[] load;
+    private int peakLoad;
+    private volatile double loadFactor;
+    private final Map<String, Hold> holds = new HashMap<>();
+
+    SegmentOccupancy(String route, CoachLayout layout, int capacity) {
+        this.route = route;
+        this.layout = layout;
+        this.stops = stopsOf(route);
+        this.segments = Math.max(stops.size() - 1, 1);
+        this.capacity = capacity;
+        this.taken = new long[segments][words(capacity)];
+        this.load = new int[segments];
+    }
+
+    /** Stops in travel order, read from a route written as "A - B - C". */
+    static List<String> stopsOf(String route) {
+        List<String> stops = new ArrayList<>();
+        if (route != null) {
+            for (String stop : route.split("\\s+-\\s+")) {
+                if (!stop.isBlank()) {
+                    stops.add(stop.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return stops;
+    }
+
+    String route() {
+        return route;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Segments {@code [from, to)} travelled between two stops. Stations that
+     * are not on the route, or a journey against its direction, count as the
+     * whole run.
+     */
+    int[] segmentsBetween(String fromStation, String toStation) {
+        int from = fromStation == null ? -1 : stops.indexOf(fromStation.trim().toLowerCase(Locale.ROOT));
+        int to = toStation == null ? -1 : stops.indexOf(toStation.trim().toLowerCase(Locale.ROOT));
+        if (from < 0 || to < 0 || from >= to) {
+            return new int[]{0, segments};
+        }
+        return new int[]{from, to};
+    }
+
+    int countFree(int fromSegment, int toSegment) {
+        int free = 0;
+        for (long word : freeSeats(fromSegment, toSegment)) {
+            free += Long.bitCount(word);
+        }
+        return free;
+    }
+
+    /**
+     * Takes {@code count} seats free on every segment in range and records
+     * them against the booking. Returns the seat indexes, or null if not
+     * enough seats are free.
+     *
+     * <p>Coaches are tried emptiest first so they fill evenly. A group goes
+     * into the fullest compartment that still seats all of it, leaving
+     * emptier bays for larger groups; failing that, into the fewest
+     * neighbouring compartments of one coach; failing that, it is split
+     * across coaches.</p>
+     */
+    int[] hold(String bookingId, int fromSegment, int toSegment, int count) {
+        int[] seats = allocate(freeSeats(fromSegment, toSegment), count);
+        if (seats == null) {
+            return null;
+        }
+        mark(seats, fromSegment, toSegment, true);
+        holds.put(bookingId, new Hold(fromSegment, toSegment, seats));
+        return seats;
+    }
+
+    /**
+     * Re-takes seats a booking already holds, e.g. when rebuilding from the
+     * database. Returns false, taking nothing, if any of them is not free.
+     */
+    boolean holdExact(String bookingId, int fromSegment, int toSegment, int[] seats) {
+        int highest = 0;
+        for (int seat : seats) {
+            highest = Math.max(highest, seat);
+        }
+        if (highest >= capacity) {
+            grow(highest + 1);
+        }
+        long[] free = freeSeats(fromSegment, toSegment);
+        for (int seat : seats) {
+            if ((free[seat / Long.SIZE] & 1L << (seat % Long.SIZE)) == 0) {
+                return false;
+            }
+        }
+        mark(seats, fromSegment, toSegment, true);
+        holds.put(bookingId, new Hold(fromSegment, toSegment, seats.clone()));
+        return true;
+    }
+
+    /**
+     * Like {@link #hold} but adds seats when the run is full. Used when
+     * rebuilding from bookings that were sold before capacity was tracked.
+     */
+    int[] holdGrowing(String bookingId, int fromSegment, int toSegment, int count) {
+        int free = countFree(fromSegment, toSegment);
+        if (free < count) {
+            grow(capacity + count - free);
+        }
+        return hold(bookingId, fromSegment, toSegment, count);
+    }
+
+    /** Frees the booking's seats and returns them, or null if it holds none here. */
+    int[] release(String bookingId) {
+        Hold hold = holds.remove(bookingId);
+        if (hold == null) {
+            return null;
+        }
+        mark(hold.seats(), hold.fromSegment(), hold.toSegment(), false);
+        return hold.seats();
+    }
+
+    /**
+     * Re-takes on {@code target} the seats of every booking held here but
+     * not there, e.g. when a run is rebuilt for an edited route. Journeys are
+     * matched by their stops; seats are kept where they are still free and
+     * allocated afresh, adding seats if need be, where not.
+     */
+    void carryHoldsTo(SegmentOccupancy target) {
+        holds.forEach((bookingId, hold) -> {
+            if (target.holds.containsKey(bookingId)) {
+                return;
+            }
+            int[] range = target.segmentsBetween(stopAt(hold.fromSegment()), stopAt(hold.toSegment()));
+            if (!target.holdExact(bookingId, range[0], range[1], hold.seats())) {
+                target.holdGrowing(bookingId, range[0], range[1], hold.seats().length);
+            }
+        });
+    }
+
+    private String stopAt(int index) {
+        return index < stops.size() ? stops.get(index) : null;
+    }
+
+    /** True if no seat is free on any segment, so no journey could be seated. */
+    boolean isFull() {
+        for (int s = 0; s < segments; s++) {
+            if (countFree(s, s + 1) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Seats taken on the busiest segment. */
+    int peakLoad() {
+        return peakLoad;
+    }
+
+    /** Share of seats taken on the busiest segment, 0 to 1; safe to read without the lock. */
+    double loadFactor() {
+        return loadFactor;
+    }
+
+    private int[] allocate(long[] free, int count) {
+        int total = 0;
+        for (long coach : free) {
+            total += Long.bitCount(coach);
+        }
+        if (total < count) {
+            return null;
+        }
+        int[] coaches = emptiestFirst(free);
+        int width = layout.compartmentSize();
+        int compartments = CoachLayout.SEATS_PER_COACH / width;
+        long compartmentMask = (1L << width) - 1;
+
+        if (count <= width) {
+            for (int coach : coaches) {
+                long seats = free[coach];
+                if (Long.bitCount(seats) < count) {
+                    break;
+                }
+                long best = 0;
+                int bestFree = Integer.MAX_VALUE;
+                for (int c = 0; c < compartments; c++) {
+                    long compartment = seats & compartmentMask << c * width;
+                    int n = Long.bitCount(compartment);
+                    if (n >= count && n < bestFree) {
+                        best = compartment;
+                        bestFree = n;
+                    }
+                }
+                if (best != 0) {
+                    int[] group = new int[count];
+                    take(best, coach, group, 0);
+                    return group;
+                }
+            }
+        }
+
+        for (int coach : coaches) {
+            long seats = free[coach];
+            if (Long.bitCount(seats) < count) {
+                break;
+            }
+            // Shortest run of neighbouring compartments holding the group
+            int bestStart = 0;
+            int bestSpan = Integer.MAX_VALUE;
+            int start = 0;
+            int inWindow = 0;
+            for (int end = 0; end < compartments; end++) {
+                inWindow += Long.bitCount(seats & compartmentMask << end * width);
+                while (inWindow - Long.bitCount(seats & compartmentMask << start * width) >= count) {
+                    inWindow -= Long.bitCount(seats & compartmentMask << start * width);
+                    start++;
+                }
+                if (inWindow >= count && end - start < bestSpan) {
+                    bestStart = start;
+                    bestSpan = end - start;
+                }
+            }
+            long window = bestSpan + 1 >= compartments
+                    ? -1L
+                    : ((1L << (bestSpan + 1) * width) - 1) << bestStart * width;
+            int[] group = new int[count];
+            take(seats & window, coach, group, 0);
+            return group;
+        }
+
+        int[] group = new int[count];
+        int found = 0;
+        for (int coach : coaches) {
+            found = take(free[coach], coach, group, found);
+            if (found == count) {
+                break;
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Fills {@code seats} from {@code offset} with the lowest free seats in
+     * one coach's bits; returns how many of {@code seats} are now filled.
+     */
+    private static int take(long bits, int coach, int[] seats, int offset) {
+        int found = offset;
+        while (bits != 0 && found < seats.length) {
+            seats[found++] = coach * CoachLayout.SEATS_PER_COACH + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+        }
+        return found;
+    }
+
+    /** Coach indexes ordered by free seats, most first; lowest index on ties. */
+    private static int[] emptiestFirst(long[] free) {
+        int[] order = new int[free.length];
+        for (int i = 0; i < order.length; i++) {
+            int j = i;
+            while (j > 0 && Long.bitCount(free[order[j - 1]]) < Long.bitCount(free[i])) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+
+    private long[] freeSeats(int fromSegment, int toSegment) {
+        long[] free = new long[words(capacity)];
+        for (int w = 0; w < free.length; w++) {
+            long used = 0;
+            for (int s = fromSegment; s < toSegment; s++) {
+                used |= taken[s][w];
+            }
+            free[w] = ~used & validBits(w);
+        }
+        return free;
+    }
+
+    private void mark(int[] seats, int fromSegment, int toSegment, boolean occupied) {
+        for (int seat : seats) {
+            int w = seat / Long.SIZE;
+            long bit = 1L << (seat % Long.SIZE);
+            for (int s = fromSegment; s < toSegment; s++) {
+                taken[s][w] = occupied ? taken[s][w] | bit : taken[s][w] & ~bit;
+            }
+        }
+        boolean peakFreed = false;
+        for (int s = fromSegment; s < toSegment; s++) {
+            if (occupied) {
+                load[s] += seats.length;
+                peakLoad = Math.max(peakLoad, load[s]);
+            } else {
+                peakFreed |= load[s] == peakLoad;
+                load[s] -= seats.length;
+            }
+        }
+        if (peakFreed) {
+            peakLoad = Arrays.stream(load).max().orElse(0);
+        }
+        updateLoadFactor();
+    }
+
+    private void updateLoadFactor() {
+        loadFactor = capacity == 0 ? 1 : Math.min(1, (double) peakLoad / capacity);
+    }
+
+    private void grow(int newCapacity) {
+        for (int s = 0; s < segments; s++) {
+            taken[s] = Arrays.copyOf(taken[s], words(newCapacity));
+        }
+        capacity = newCapacity;
+        updateLoadFactor();
+    }
+
+    private long validBits(int word) {
+        int remaining = capacity - word * Long.SIZE;
+        return remaining >= Long.SIZE ? -1L : (1L << remaining) - 1;
+    }
+
+    private static int words(int seats) {
+        return (seats + Long.SIZE - 1) / Long.SIZE;
+    }
+}
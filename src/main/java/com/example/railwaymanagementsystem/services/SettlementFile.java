@@ -0,0 +1,305 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+/**
+ * A gateway settlement file read back in booking id order, one row at a
+ * time. The file is CSV with a header naming at least {@code booking_id} and
+ * {@code amount}; {@code reference} is used when present and other columns
+ * are ignored.
+ *
+ * <p>A file that is already sorted is streamed as it is. Otherwise it is
+ * sorted externally: runs of {@code railsafar.reconciliation.sortRunRows}
+ * rows are sorted in memory and written to temporary files, which are then
+ * merged. Memory use depends on the run size, never on the file size.</p>
+ */
+final class SettlementFile implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(SettlementFile.class.getName());
+    private static final int SORT_RUN_ROWS = Integer.getInteger("railsafar.reconciliation.sortRunRows", 200_000);
+    // Sorted copies keep only the columns needed, plus the original line number for messages
+    private static final String SORTED_HEADER = "booking_id,amount,reference,line";
+
+    /** One settled payment; {@code line} is its line number in the original file. */
+    record Row(String bookingId, double amount, String reference, long line) {}
+
+    private record Columns(int bookingId, int amount, int reference) {}
+
+    private final Path source;
+    private final Columns columns;
+    private final List<Path> temporary = new ArrayList<>();
+    private BufferedReader reader;
+    private boolean readingSortedCopy;
+    private long lineNumber;
+    private long rowsRead;
+
+    private SettlementFile(Path source, Columns columns) {
+        this.source = source;
+        this.columns = columns;
+    }
+
+    /** Opens the file, sorting it first if it is not in booking id order. */
+    static SettlementFile open(Path path) throws IOException {
+        return open(path, SORT_RUN_ROWS);
+    }
+
+    static SettlementFile open(Path path, int sortRunRows) throws IOException {
+        SettlementFile file;
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            file = new SettlementFile(path, readHeader(path, in.readLine()));
+        }
+        try {
+            if (file.isSorted()) {
+                file.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+            } else {
+                LOGGER.info("Settlement file " + path + " is not in booking id order; sorting it");
+                file.reader = Files.newBufferedReader(file.sort(sortRunRows), StandardCharsets.UTF_8);
+                file.readingSortedCopy = true;
+            }
+            file.reader.readLine();
+            file.lineNumber = 1;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+        return file;
+    }
+
+    /** The next row in booking id order, or null at the end of the file. */
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        rowsRead++;
+        return readingSortedCopy ? parseSorted(line) : parse(line, lineNumber);
+    }
+
+    long rowsRead() {
+        return rowsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+        for (Path path : temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static Columns readHeader(Path path, String header) throws IOException {
+        if (header == null) {
+            throw new IOException("Settlement file " + path + " is empty");
+        }
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int bookingId = -1;
+        int amount = -1;
+        int reference = -1;
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "booking_id" -> bookingId = i;
+                case "amount" -> amount = i;
+                case "reference" -> reference = i;
+                default -> { }
+            }
+        }
+        if (bookingId < 0 || amount < 0) {
+            throw new IOException("Settlement file " + path + " needs booking_id and amount columns, found: " + header);
+        }
+        return new Columns(bookingId, amount, reference);
+    }
+
+    private boolean isSorted() throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            in.readLine();
+            String previous = null;
+            long lineNumber = 1;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String id = parse(line, lineNumber).bookingId();
+                if (previous != null && previous.compareTo(id) > 0) {
+                    return false;
+                }
+                previous = id;
+            }
+        }
+        return true;
+    }
+
+    /** Writes sorted runs to temporary files and merges them; returns the sorted copy. */
+    private Path sort(int runRows) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            in.readLine();
+            List<Row> run = new ArrayList<>(Math.min(runRows, 1 << 16));
+            long lineNumber = 1;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.add(parse(line, lineNumber));
+                if (run.size() >= runRows) {
+                    runs.add(writeRun(run));
+                    run.clear();
+                }
+            }
+            if (!run.isEmpty() || runs.isEmpty()) {
+                runs.add(writeRun(run));
+            }
+        }
+        return runs.size() == 1 ? runs.get(0) : merge(runs);
+    }
+
+    private Path writeRun(List<Row> run) throws IOException {
+        run.sort(Comparator.comparing(Row::bookingId).thenComparingLong(Row::line));
+        Path path = createTemporary();
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(SORTED_HEADER);
+            out.newLine();
+            for (Row row : run) {
+                writeRow(out, row);
+            }
+        }
+        return path;
+    }
+
+    private Path merge(List<Path> runs) throws IOException {
+        record Head(Row row, BufferedReader in) {}
+        PriorityQueue<Head> heads = new PriorityQueue<>(
+                Comparator.comparing((Head head) -> head.row().bookingId()).thenComparingLong(head -> head.row().line()));
+        List<BufferedReader> open = new ArrayList<>(runs.size());
+        Path merged = createTemporary();
+        try (BufferedWriter out = Files.newBufferedWriter(merged, StandardCharsets.UTF_8)) {
+            for (Path run : runs) {
+                BufferedReader in = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+                open.add(in);
+                in.readLine();
+                Row first = readSorted(in);
+                if (first != null) {
+                    heads.add(new Head(first, in));
+                }
+            }
+            out.write(SORTED_HEADER);
+            out.newLine();
+            Head head;
+            while ((head = heads.poll()) != null) {
+                writeRow(out, head.row());
+                Row next = readSorted(head.in());
+                if (next != null) {
+                    heads.add(new Head(next, head.in()));
+                }
+            }
+        } finally {
+            for (BufferedReader in : open) {
+                in.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        return merged;
+    }
+
+    private static void writeRow(BufferedWriter out, Row row) throws IOException {
+        out.write(quote(row.bookingId()) + ',' + row.amount() + ',' + quote(row.reference()) + ',' + row.line());
+        out.newLine();
+    }
+
+    private static Row readSorted(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        return line == null ? null : parseSorted(line);
+    }
+
+    private static Row parseSorted(String line) {
+        List<String> fields = splitCsv(line);
+        return new Row(fields.get(0), Double.parseDouble(fields.get(1)), fields.get(2), Long.parseLong(fields.get(3)));
+    }
+
+    private Path createTemporary() throws IOException {
+        Path path = Files.createTempFile("settlement-", ".csv");
+        temporary.add(path);
+        return path;
+    }
+
+    private Row parse(String line, long lineNumber) {
+        List<String> fields = splitCsv(line);
+        String bookingId = field(fields, columns.bookingId()).trim();
+        String amount = field(fields, columns.amount()).trim();
+        if (bookingId.isEmpty()) {
+            throw new UncheckedIOException(new IOException("Line " + lineNumber + ": missing booking_id"));
+        }
+        try {
+            return new Row(bookingId, Double.parseDouble(amount),
+                    columns.reference() < 0 ? "" : field(fields, columns.reference()).trim(), lineNumber);
+        } catch (NumberFormatException e) {
+            throw new UncheckedIOException(new IOException("Line " + lineNumber + ": amount is not a number: " + amount));
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    /** Splits one CSV line; fields may be quoted, with {@code ""} for a quote inside. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
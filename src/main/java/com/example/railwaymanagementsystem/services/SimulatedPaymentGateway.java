@@ -0,0 +1,85 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.PaymentCapture;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stand-in gateway that takes every payment locally after a delay. The
+ * delay ({@code railsafar.payments.simulated.latencyMillis}, varied by half
+ * either way), the share of calls that fail outright
+ * ({@code railsafar.payments.simulated.failureRate}) and the share of
+ * captures declined ({@code railsafar.payments.simulated.declineRate}) can
+ * be set to try out slow or unreliable providers.
+ *
+ * <p>References are derived from the attempt key, so a retried capture
+ * returns the reference of the first.</p>
+ */
+public final class SimulatedPaymentGateway implements PaymentGateway {
+    public static final String NAME = "simulated";
+    private static final long LATENCY_MILLIS = Long.getLong("railsafar.payments.simulated.latencyMillis", 300L);
+    private static final double FAILURE_RATE = Double.parseDouble(System.getProperty("railsafar.payments.simulated.failureRate", "0"));
+    private static final double DECLINE_RATE = Double.parseDouble(System.getProperty("railsafar.payments.simulated.declineRate", "0"));
+
+    private final long latencyMillis;
+    private final double failureRate;
+    private final double declineRate;
+    private final ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "simulated-payment-gateway");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SimulatedPaymentGateway() {
+        this(LATENCY_MILLIS, FAILURE_RATE, DECLINE_RATE);
+    }
+
+    public SimulatedPaymentGateway(long latencyMillis, double failureRate, double declineRate) {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public CompletionStage<PaymentResult> capture(PaymentRequest request) {
+        return later(() -> ThreadLocalRandom.current().nextDouble() < declineRate
+                ? PaymentResult.declined("The payment was declined by the issuer")
+                : PaymentResult.approved("SIM-" + request.attemptKey()));
+    }
+
+    @Override
+    public CompletionStage<Void> refund(PaymentRequest request) {
+        return later(() -> null);
+    }
+
+    @Override
+    public CompletionStage<Void> settle(List<PaymentCapture> captures) {
+        return later(() -> null);
+    }
+
+    private <T> CompletionStage<T> later(Supplier<T> answer) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long delay = latencyMillis <= 0 ? 0 : ThreadLocalRandom.current().nextLong(latencyMillis / 2, latencyMillis * 3 / 2 + 1);
+        clock.schedule(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                result.completeExceptionally(new IOException("Simulated gateway error"));
+            } else {
+                result.complete(answer.get());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel: four levels of 64 slots, each level's slot
+ * spanning a whole turn of the level below. A timeout is filed in one slot
+ * of the coarsest level it needs, so scheduling and cancelling are O(1)
+ * whatever the number outstanding. When a level's turn completes, the next
+ * slot up is cascaded: its timeouts are filed again, now in finer slots.
+ *
+ * <p>With one-second ticks the levels cover about a minute, an hour, three
+ * days and six months; later deadlines wait in the last level and are filed
+ * again until they fall due.</p>
+ *
+ * <p>Not thread-safe; the owning {@link HoldExpiry} locks around it.</p>
+ */
+final class TimerWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << SLOT_BITS * LEVELS;
+
+    /** A scheduled item; cancelled by unlinking it from its slot. */
+    static final class Timeout<T> {
+        final T item;
+        final long deadline;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Timeout<T>[] slots;
+        private int slot;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timeout<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimerWheel(long tickMillis, long originMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        this.wheels = new Timeout[LEVELS][SLOTS];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Schedules the item to fall due at the given time; past times fall due on the next tick. */
+    Timeout<T> schedule(T item, long deadlineMillis) {
+        long deadline = Math.max(Math.ceilDiv(deadlineMillis - originMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(item, deadline);
+        file(timeout);
+        size++;
+        return timeout;
+    }
+
+    /** Returns false if the timeout already fell due or was cancelled. */
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.slots == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /** Runs the wheel up to the given time and returns the items that fell due, earliest first. */
+    List<T> advanceTo(long nowMillis) {
+        long target = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        List<T> due = new ArrayList<>();
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & (1L << SLOT_BITS * level) - 1) != 0) {
+                    break;
+                }
+                cascade(wheels[level], (int) (currentTick >>> SLOT_BITS * level) & SLOTS - 1);
+            }
+            Timeout<T>[] slots = wheels[0];
+            int slot = (int) currentTick & SLOTS - 1;
+            Timeout<T> timeout = slots[slot];
+            slots[slot] = null;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.prev = timeout.next = null;
+                timeout.slots = null;
+                if (timeout.deadline > currentTick) {
+                    // Beyond the last level's reach when filed
+                    file(timeout);
+                } else {
+                    due.add(timeout.item);
+                    size--;
+                }
+                timeout = next;
+            }
+        }
+        return due;
+    }
+
+    private void cascade(Timeout<T>[] slots, int slot) {
+        Timeout<T> timeout = slots[slot];
+        slots[slot] = null;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = timeout.next = null;
+            timeout.slots = null;
+            file(timeout);
+            timeout = next;
+        }
+    }
+
+    private void file(Timeout<T> timeout) {
+        long delta = timeout.deadline - currentTick;
+        long tick = delta < MAX_SPAN ? timeout.deadline : currentTick + MAX_SPAN - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << SLOT_BITS * (level + 1)) {
+            level++;
+        }
+        Timeout<T>[] slots = wheels[level];
+        int slot = (int) (tick >>> SLOT_BITS * level) & SLOTS - 1;
+        Timeout<T> head = slots[slot];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[slot] = timeout;
+        timeout.slots = slots;
+        timeout.slot = slot;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            timeout.slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        timeout.slots = null;
+    }
+}
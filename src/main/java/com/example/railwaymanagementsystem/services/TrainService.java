@@ -1,5 +1,7 @@
 package com.example.railwaymanagementsystem.services;
 
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.Train;
 import javafx.collections.ObservableList;
 
@@ -11,14 +13,25 @@ public class TrainService {
     private final BackendRepository repo = BackendRepository.getInstance();
     private final ScheduleService scheduleService = new ScheduleService();
 
+    TrainService() {
+    }
+
     public ObservableList<Train> getTrains() {
         return repo.getTrains();
     }
 
+    public Page<Train> getTrainsPage(PageRequest request) {
+        return repo.findTrainsPage(request);
+    }
+
+    public long countTrains(PageRequest request) {
+        return repo.countTrains(request);
+    }
+
     public List<Train> searchTrains(String from, String to) {
         String normalizedFrom = from.toLowerCase();
         String normalizedTo = to.toLowerCase();
-        return repo.getTrains().stream()
+        return repo.snapshotTrains().stream()
                 .filter(train -> train.getRoute() != null && train.getRoute().toLowerCase().contains(normalizedFrom))
                 .filter(train -> train.getRoute() != null && train.getRoute().toLowerCase().contains(normalizedTo))
                 .collect(Collectors.toList());
@@ -35,9 +48,7 @@ public class TrainService {
 
     public void deleteTrain(Train train) {
         // Also remove associated schedule if it exists
-        repo.getSchedules().stream()
-                .filter(s -> s.getTrainNumber().equals(train.getTrainNumber()))
-                .findFirst()
+        repo.findScheduleByTrainNumber(train.getTrainNumber())
                 .ifPresent(scheduleService::removeSchedule);
         repo.removeTrain(train.getId());
     }
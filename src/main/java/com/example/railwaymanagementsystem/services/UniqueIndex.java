@@ -0,0 +1,64 @@
+package com.example.railwaymanagementsystem.services;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Unique-key index over an {@link EntityStore}, e.g. email or train number.
+ * Maintained by the store under the entry's lock stripe; safe to read from
+ * any thread.
+ *
+ * <p>Entities are sometimes edited in place before being saved, so a lookup
+ * re-checks the key of the entity it lands on rather than trusting the
+ * entry.</p>
+ */
+final class UniqueIndex<T> {
+    private final Function<T, String> keyOf;
+    private final UnaryOperator<String> normalizer;
+    private final Map<String, EntityStore.Slot<T>> slotsByKey = new ConcurrentHashMap<>();
+    private final Map<String, String> keyById = new ConcurrentHashMap<>();
+
+    UniqueIndex(Function<T, String> keyOf, UnaryOperator<String> normalizer) {
+        this.keyOf = keyOf;
+        this.normalizer = normalizer;
+    }
+
+    Optional<T> find(String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        String normalized = normalizer.apply(key);
+        EntityStore.Slot<T> slot = slotsByKey.get(normalized);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        T entity = slot.value;
+        return normalized.equals(normalizedKey(entity)) ? Optional.of(entity) : Optional.empty();
+    }
+
+    void update(EntityStore.Slot<T> slot) {
+        String key = normalizedKey(slot.value);
+        String previous = key == null ? keyById.remove(slot.id) : keyById.put(slot.id, key);
+        if (previous != null && !previous.equals(key)) {
+            slotsByKey.remove(previous, slot);
+        }
+        if (key != null) {
+            slotsByKey.put(key, slot);
+        }
+    }
+
+    void remove(EntityStore.Slot<T> slot) {
+        String previous = keyById.remove(slot.id);
+        if (previous != null) {
+            slotsByKey.remove(previous, slot);
+        }
+    }
+
+    private String normalizedKey(T entity) {
+        String key = keyOf.apply(entity);
+        return key == null ? null : normalizer.apply(key);
+    }
+}
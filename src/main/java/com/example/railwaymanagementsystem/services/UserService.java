@@ -1,5 +1,7 @@
 package com.example.railwaymanagementsystem.services;
 
+import com.example.railwaymanagementsystem.dao.Page;
+import com.example.railwaymanagementsystem.dao.PageRequest;
 import com.example.railwaymanagementsystem.models.User;
 import javafx.collections.ObservableList;
 
@@ -8,6 +10,9 @@ import java.util.Optional;
 public class UserService {
     private final BackendRepository repo = BackendRepository.getInstance();
 
+    UserService() {
+    }
+
     public Optional<User> authenticate(String email, String password, String role) {
         return repo.findUserByEmail(email)
                 .filter(user -> user.getPassword().equals(password))
@@ -52,4 +57,12 @@ public class UserService {
     public ObservableList<User> getUsers() {
         return repo.getUsers();
     }
+
+    public Page<User> getUsersPage(PageRequest request) {
+        return repo.findUsersPage(request);
+    }
+
+    public long countUsers(PageRequest request) {
+        return repo.countUsers(request);
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * A waitlisted booking moved to pending because seats were freed, see
+ * {@link BackendRepository#cancelBooking}. The booking object itself is
+ * updated on the FX thread, so read the new seats and time from here.
+ */
+public record WaitlistPromotion(Booking booking, String seatNumbers, LocalDateTime promotedAt) {
+}
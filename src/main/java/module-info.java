@@ -11,4 +11,7 @@ module com.example.railwaymanagementsystem {
     opens com.example.railwaymanagementsystem.controllers to javafx.fxml;
     exports com.example.railwaymanagementsystem.models;
     opens com.example.railwaymanagementsystem.models to javafx.fxml;
+    exports com.example.railwaymanagementsystem.services;
+
+    uses com.example.railwaymanagementsystem.services.PaymentGateway;
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.example.railwaymanagementsystem;
+
+import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.Schedule;
+import com.example.railwaymanagementsystem.models.Train;
+import com.example.railwaymanagementsystem.models.User;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the heap each model instance retains, run without the UI:
+ * {@code ModelFootprint [count]} (default 200000). Each model is measured
+ * as loaded, with its JavaFX properties not yet created, and again after
+ * every {@code xxxProperty()} has been called, as for a row on screen. For
+ * the footprint before properties were created lazily, run it against the
+ * models of that revision, where both columns are the same.
+ *
+ * <p>Field values are shared between instances so only the objects a model
+ * allocates itself are counted. Run with a fixed heap, e.g. {@code -Xms1g
+ * -Xmx1g}, for steadier numbers.</p>
+ *
+ * <p>Measured on JDK 21 with {@code -Xmx1g} over 200000 instances, in bytes
+ * per instance (as loaded / with properties; eager properties cost the
+ * second figure for every instance):</p>
+ * <pre>
+ * Booking   143 / 683
+ * Schedule   79 / 367
+ * Train      63 / 279
+ * User      111 / 543
+ * </pre>
+ */
+public final class ModelFootprint {
+    private ModelFootprint() {
+    }
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 1);
+    private static final LocalDateTime DATE_TIME = DATE.atStartOfDay();
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.out.printf(Locale.ROOT, "%-9s %12s %16s  (bytes per instance over %,d)%n",
+                "Model", "as loaded", "with properties", count);
+        report("Booking", count, i -> new Booking("B", "U", "T", "1001", "Express", "Karachi", "Lahore",
+                DATE, 2, "Express", 3500.0, "Confirmed", DATE_TIME, "Card", "Paid"));
+        report("Schedule", count, i -> new Schedule("S", "1001", "Express", "08:00 AM", "08:00 PM",
+                "Karachi - Lahore", "Daily", "Active"));
+        report("Train", count, i -> new Train("T", "1001", "Express", "Express", "Karachi - Lahore", "On Time"));
+        report("User", count, i -> new User("U", "Name", "name@example.com", "0300", "passenger", "secret"));
+    }
+
+    private static <T> void report(String name, int count, IntFunction<T> factory) throws Exception {
+        List<T> instances = new ArrayList<>(count);
+        long before = usedHeap();
+        for (int i = 0; i < count; i++) {
+            instances.add(factory.apply(i));
+        }
+        long loaded = usedHeap() - before;
+
+        List<Method> properties = propertyAccessors(instances.get(0).getClass());
+        for (T instance : instances) {
+            for (Method property : properties) {
+                property.invoke(instance);
+            }
+        }
+        long materialized = usedHeap() - before;
+
+        System.out.printf(Locale.ROOT, "%-9s %12d %16d%n", name, loaded / count, materialized / count);
+        instances.clear();
+    }
+
+    private static List<Method> propertyAccessors(Class<?> type) {
+        List<Method> accessors = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.getName().endsWith("Property") && method.getParameterCount() == 0
+                    && !Modifier.isStatic(method.getModifiers())) {
+                accessors.add(method);
+            }
+        }
+        return accessors;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Collect until the figure settles; one request is only a hint
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.railwaymanagementsystem.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Runs against a fresh database in the test working directory, see the surefire configuration. */
+class IdAllocatorTest {
+    private static final int BLOCK_SIZE = 10;
+
+    private static long sequenceValue(String name) throws SQLException {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement select = conn.prepareStatement("SELECT next_value FROM id_sequences WHERE name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                assertTrue(rs.next(), "no sequence " + name);
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static long maxId(String table) throws SQLException {
+        try (PooledConnection conn = ConnectionManager.getReadConnection();
+             PreparedStatement select = conn.prepareStatement("SELECT COALESCE(MAX(CAST(id AS INTEGER)), 0) FROM " + table);
+             ResultSet rs = select.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    void idsStayConsecutiveAcrossRefillsAndEachBlockIsReserved() throws SQLException {
+        IdAllocator allocator = IdAllocator.forTable("trains", BLOCK_SIZE);
+        long first = allocator.next();
+        assertTrue(first > maxId("trains"), "first id " + first);
+        assertEquals(first + BLOCK_SIZE, sequenceValue("trains"));
+
+        for (int i = 1; i < 2 * BLOCK_SIZE + 5; i++) {
+            assertEquals(first + i, allocator.next());
+        }
+
+        assertEquals(first + 3 * BLOCK_SIZE, sequenceValue("trains"));
+        assertEquals(String.valueOf(first + 2 * BLOCK_SIZE + 5), allocator.nextId());
+    }
+
+    @Test
+    void oneAllocatorPerTableWithOneBlockSize() {
+        assertSame(IdAllocator.forTable("schedules", BLOCK_SIZE), IdAllocator.forTable("schedules", BLOCK_SIZE));
+
+        assertThrows(IllegalArgumentException.class, () -> IdAllocator.forTable("schedules", BLOCK_SIZE + 1));
+    }
+
+    @Test
+    void idsCannotBeTakenInsideATransaction() throws SQLException {
+        IdAllocator allocator = IdAllocator.forTable("schedules", BLOCK_SIZE);
+        long before = allocator.next();
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> ConnectionManager.inTransaction(conn -> allocator.next()));
+
+        assertTrue(e.getMessage().contains("before opening a transaction"), e.getMessage());
+        assertEquals(before + 1, allocator.next());
+    }
+}
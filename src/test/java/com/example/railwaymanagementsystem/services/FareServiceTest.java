@@ -0,0 +1,85 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.Train;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FareServiceTest {
+    private static final String ROUTE = "Peshawar - Lahore - Karachi";
+    // A weekday well clear of the short-notice surcharge
+    private static final LocalDate WEEKDAY = LocalDate.now().plusWeeks(2).with(DayOfWeek.WEDNESDAY);
+    private static final FareRule FLAT = new FareRule(1000, 0, 0);
+
+    private final FareService fares = new FareService();
+    private final Train express = new Train("T1", "101", "Test Express", "Express", ROUTE, "On Time");
+    private final Train passenger = new Train("T2", "202", "Test Passenger", "Passenger", ROUTE, "On Time");
+
+    private int quote(Train train, String seatClass) {
+        return fares.quote(train, "Lahore", "Karachi", seatClass, WEEKDAY, 0);
+    }
+
+    @Test
+    void quoteIsTheDistanceRuleBetweenTheStops() {
+        double[] km = RouteDistances.cumulativeKm(SegmentOccupancy.stopsOf(ROUTE));
+
+        assertEquals(Math.round((500 + 2.5 * (km[2] - km[1])) / 10) * 10, quote(express, "Economy"));
+        assertEquals(Math.round((300 + 1.6 * (km[2] - km[1])) / 10) * 10, quote(passenger, "Economy"));
+    }
+
+    @Test
+    void updatedRuleRebuildsOnlyTheTablesItCovers() {
+        int passengerBefore = quote(passenger, "Economy");
+        int expressBefore = quote(express, "Economy");
+
+        fares.updateRules(r -> r.withRule("Express", "*", FLAT));
+
+        assertNotEquals(expressBefore, quote(express, "Economy"));
+        assertEquals(1000, quote(express, "Economy"));
+        assertEquals(1000, quote(express, "Business"));
+        assertEquals(passengerBefore, quote(passenger, "Economy"));
+    }
+
+    @Test
+    void classRuleOverridesTheRuleForAnyClass() {
+        fares.updateRules(r -> r.withRule("Express", "*", FLAT));
+        quote(express, "Business");
+
+        fares.updateRules(r -> r.withRule("Express", "Business", new FareRule(2000, 0, 0)));
+
+        assertEquals(2000, quote(express, "Business"));
+        assertEquals(1000, quote(express, "Economy"));
+    }
+
+    @Test
+    void editedTrainIsQuotedOnItsNewRouteAndType() {
+        int wholeRun = fares.quote(express, "Lahore", "Multan", "Economy", WEEKDAY, 0);
+        Train edited = new Train("T1", "101", "Test Express", "Express", "Peshawar - Lahore - Multan - Karachi", "On Time");
+
+        assertEquals(fares.quote(express, "Peshawar", "Karachi", "Economy", WEEKDAY, 0), wholeRun);
+        assertTrue(fares.quote(edited, "Lahore", "Multan", "Economy", WEEKDAY, 0) < wholeRun);
+
+        fares.updateRules(r -> r.withRule("Passenger", "*", FLAT));
+        Train retyped = new Train("T1", "101", "Test Express", "Passenger", ROUTE, "On Time");
+        assertEquals(1000, quote(retyped, "Economy"));
+    }
+
+    @Test
+    void dateLoadAndConcessionFactorsApplyAtQuoteTime() {
+        fares.updateRules(r -> r.withRule("Express", "*", FLAT));
+        LocalDate saturday = WEEKDAY.with(DayOfWeek.SATURDAY);
+
+        assertEquals(1100, fares.quote(express, "Lahore", "Karachi", "Economy", saturday, 0));
+        assertEquals(1100, fares.quote(express, "Lahore", "Karachi", "Economy", WEEKDAY, 0.5));
+        assertEquals(1600, fares.quote(express, "Lahore", "Karachi", "Economy", WEEKDAY, 0.95));
+        assertEquals(500, fares.quote(express, "Lahore", "Karachi", "Economy", WEEKDAY, Concession.CHILD, 0));
+
+        fares.updateRules(r -> r.withDaySurcharge(DayOfWeek.SATURDAY, 0).withDaySurcharge(DayOfWeek.SUNDAY, 0));
+        assertEquals(1150, fares.quote(express, "Lahore", "Karachi", "Economy", LocalDate.now().plusDays(1), 0));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.railwaymanagementsystem.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IdempotencyStoreTest {
+
+    /** The {@code idempotency_keys} table in memory. */
+    private static final class FakeDatabase extends DatabaseService {
+        private record Saved(String result, LocalDateTime createdAt) {}
+
+        final Map<String, Saved> rows = new HashMap<>();
+
+        @Override
+        public Optional<String> findIdempotentResult(String key, String operation, LocalDateTime notBefore) {
+            Saved saved = rows.get(operation + '/' + key);
+            return saved == null || saved.createdAt().isBefore(notBefore) ? Optional.empty() : Optional.of(saved.result());
+        }
+
+        @Override
+        public void saveIdempotentResult(String key, String operation, String result, LocalDateTime createdAt) {
+            rows.put(operation + '/' + key, new Saved(result, createdAt));
+        }
+
+        @Override
+        public int deleteIdempotentResultsBefore(LocalDateTime cutoff) {
+            int before = rows.size();
+            rows.values().removeIf(saved -> saved.createdAt().isBefore(cutoff));
+            return before - rows.size();
+        }
+    }
+
+    private final FakeDatabase db = new FakeDatabase();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private Supplier<String> request(String result) {
+        return () -> {
+            runs.incrementAndGet();
+            return result;
+        };
+    }
+
+    @Test
+    void repeatedKeyReplaysTheFirstResult() {
+        IdempotencyStore store = new IdempotencyStore(db);
+
+        assertEquals("B1", store.execute("key", "book", request("B1")));
+        assertEquals("B1", store.execute("key", "book", request("B2")));
+
+        assertEquals(1, runs.get());
+        assertEquals(1, db.rows.size());
+    }
+
+    @Test
+    void sameKeyForAnotherOperationRunsAgain() {
+        IdempotencyStore store = new IdempotencyStore(db);
+
+        store.execute("key", "book", request("B1"));
+
+        assertEquals("P1", store.execute("key", "pay", request("P1")));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void failedRequestIsNotRemembered() {
+        IdempotencyStore store = new IdempotencyStore(db);
+
+        store.execute("key", "book", request(null));
+
+        assertEquals("B1", store.execute("key", "book", request("B1")));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void missingKeyRunsEveryTime() {
+        IdempotencyStore store = new IdempotencyStore(db);
+
+        store.execute(null, "book", request("B1"));
+        store.execute(" ", "book", request("B1"));
+
+        assertEquals(2, runs.get());
+        assertEquals(0, db.rows.size());
+    }
+
+    @Test
+    void resultEvictedFromMemoryOrLostInARestartIsReadBack() {
+        IdempotencyStore store = new IdempotencyStore(db, Duration.ofHours(1), 1);
+        store.execute("first", "book", request("B1"));
+        store.execute("second", "book", request("B2"));
+
+        assertEquals("B1", store.execute("first", "book", request("B3")));
+        assertEquals("B2", new IdempotencyStore(db).execute("second", "book", request("B4")));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void duplicateArrivingWhileTheFirstRunsSharesItsResult() {
+        IdempotencyStore store = new IdempotencyStore(db);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = store.executeAsync("key", "pay", () -> {
+            runs.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> duplicate = store.executeAsync("key", "pay", () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+
+        assertSame(first, duplicate);
+        assertFalse(first.isDone());
+        pending.complete("P1");
+        assertEquals("P1", duplicate.join());
+        assertEquals(1, runs.get());
+        assertEquals("P1", store.execute("key", "pay", request("P2")));
+    }
+
+    @Test
+    void resultOlderThanTheRetentionRunsAgain() throws InterruptedException {
+        IdempotencyStore store = new IdempotencyStore(db, Duration.ofMillis(20), 10);
+        store.execute("key", "book", request("B1"));
+
+        Thread.sleep(50);
+
+        assertEquals("B2", store.execute("key", "book", request("B2")));
+        assertEquals(2, runs.get());
+    }
+}
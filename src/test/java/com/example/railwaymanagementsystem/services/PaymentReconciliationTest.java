@@ -0,0 +1,184 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.services.PaymentReconciliation.Issue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentReconciliationTest {
+
+    /** Bookings in id order, as the primary key scan returns them. */
+    private static final class FakeDatabase extends DatabaseService {
+        final List<Booking> bookings = new ArrayList<>();
+
+        @Override
+        public Stream<Booking> streamBookingsById(int fetchSize) {
+            return bookings.stream();
+        }
+    }
+
+    @TempDir
+    Path dir;
+
+    private final FakeDatabase db = new FakeDatabase();
+
+    private void booking(String id, double amount, String status, String paymentStatus) {
+        db.bookings.add(new Booking(id, "U1", "T1", "101", "Test Express", "Lahore", "Karachi",
+                LocalDate.of(2030, 6, 5), 1, "Economy", amount, status, LocalDateTime.of(2030, 6, 1, 9, 0),
+                "Card", paymentStatus));
+    }
+
+    private Path settlement(String... rows) throws IOException {
+        Path file = Files.createTempFile(dir, "settlement-", ".csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("settled_at,booking_id,amount,reference");
+        lines.addAll(List.of(rows));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /** One booking for each outcome, B06 settled twice and B99 unknown. */
+    private void bookings() {
+        booking("B01", 1000, "Confirmed", "Paid");
+        booking("B02", 500, "Confirmed", "Paid");
+        booking("B03", 800, "Cancelled", "Paid");
+        booking("B04", 900, "Confirmed", "Pending");
+        booking("B05", 700, "Confirmed", "Paid");
+        booking("B06", 300, "Confirmed", "Paid");
+    }
+
+    private static Map<Issue, Long> oneOfEach() {
+        Map<Issue, Long> issues = new EnumMap<>(Issue.class);
+        for (Issue issue : Issue.values()) {
+            issues.put(issue, 1L);
+        }
+        return issues;
+    }
+
+    @Test
+    void everyMismatchIsCountedAndReported() throws IOException, SQLException {
+        bookings();
+        Path file = settlement(
+                "2030-06-02,B01,1000.00,R1",
+                "2030-06-02,B03,800.00,R3",
+                "2030-06-02,B04,900.00,R4",
+                "2030-06-02,B05,650.00,R5",
+                "2030-06-02,B06,300.00,R6",
+                "2030-06-03,B06,300.00,\"R6, again\"",
+                "2030-06-03,B99,100.00,R99");
+        Path reportFile = dir.resolve("report.csv");
+
+        ReconciliationReport report = new PaymentReconciliation(db).run(file, reportFile);
+
+        assertEquals(6, report.bookingsRead());
+        assertEquals(5, report.paidBookings());
+        assertEquals(7, report.settlementRows());
+        assertEquals(2, report.matched());
+        assertEquals(oneOfEach(), report.issues());
+        List<String> lines = Files.readAllLines(reportFile, StandardCharsets.UTF_8);
+        assertEquals(1 + report.issueCount(), lines.size());
+        assertTrue(lines.contains("B02,PAID_NOT_SETTLED,Confirmed,Paid,Card,500.00,,,"), lines.toString());
+        assertTrue(lines.contains("B06,DUPLICATE_SETTLEMENT,,,,,300.00,\"R6, again\",7"), lines.toString());
+        assertTrue(lines.contains("B99,SETTLED_UNKNOWN_BOOKING,,,,,100.00,R99,8"), lines.toString());
+    }
+
+    @Test
+    void unsortedFileGivesTheSameResult() throws IOException, SQLException {
+        bookings();
+        Path file = settlement(
+                "2030-06-03,B99,100.00,R99",
+                "2030-06-02,B06,300.00,R6",
+                "2030-06-02,B04,900.00,R4",
+                "2030-06-02,B01,1000.00,R1",
+                "2030-06-03,B06,300.00,R6b",
+                "2030-06-02,B05,650.00,R5",
+                "2030-06-02,B03,800.00,R3");
+
+        ReconciliationReport report = new PaymentReconciliation(db).run(file, dir.resolve("report.csv"));
+
+        assertEquals(7, report.settlementRows());
+        assertEquals(2, report.matched());
+        assertEquals(oneOfEach(), report.issues());
+    }
+
+    @Test
+    void paidBookingsPastTheEndOfTheFileAreNotSettled() throws IOException, SQLException {
+        booking("B01", 1000, "Confirmed", "Paid");
+        booking("B02", 500, "Confirmed", "Pending");
+        booking("B03", 800, "Confirmed", "Paid");
+
+        ReconciliationReport report = new PaymentReconciliation(db).run(settlement(), dir.resolve("report.csv"));
+
+        assertEquals(3, report.bookingsRead());
+        assertEquals(0, report.settlementRows());
+        assertEquals(Map.of(Issue.PAID_NOT_SETTLED, 2L), report.issues());
+    }
+
+    @Test
+    void externalSortMergesRunsInIdThenLineOrder() throws IOException {
+        Path file = settlement(
+                "x,B05,5,e",
+                "x,B02,2,b",
+                "x,B09,9,i",
+                "x,B02,2.5,\"b, again\"",
+                "",
+                "x,B01,1,a",
+                "x,B07,7,g",
+                "x,B03,3,c");
+        List<SettlementFile.Row> rows = new ArrayList<>();
+
+        try (SettlementFile settlements = SettlementFile.open(file, 2)) {
+            SettlementFile.Row row;
+            while ((row = settlements.next()) != null) {
+                rows.add(row);
+            }
+            assertEquals(7, settlements.rowsRead());
+        }
+
+        assertEquals(List.of(
+                new SettlementFile.Row("B01", 1, "a", 7),
+                new SettlementFile.Row("B02", 2, "b", 3),
+                new SettlementFile.Row("B02", 2.5, "b, again", 5),
+                new SettlementFile.Row("B03", 3, "c", 9),
+                new SettlementFile.Row("B05", 5, "e", 2),
+                new SettlementFile.Row("B07", 7, "g", 8),
+                new SettlementFile.Row("B09", 9, "i", 4)), rows);
+    }
+
+    @Test
+    void sortedFileIsReadAsItIs() throws IOException {
+        Path file = settlement("x,B01,1,a", "x,B02,2,b");
+
+        try (SettlementFile settlements = SettlementFile.open(file, 1)) {
+            assertEquals(new SettlementFile.Row("B01", 1, "a", 2), settlements.next());
+            assertEquals(new SettlementFile.Row("B02", 2, "b", 3), settlements.next());
+            assertNull(settlements.next());
+        }
+    }
+
+    @Test
+    void fileWithoutTheNeededColumnsIsRefused() throws IOException {
+        Path file = Files.writeString(dir.resolve("bad.csv"), "booking_id,reference\nB01,a\n");
+
+        IOException e = assertThrows(IOException.class, () -> SettlementFile.open(file));
+        assertTrue(e.getMessage().contains("needs booking_id and amount"), e.getMessage());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.railwaymanagementsystem.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PnrGeneratorTest {
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    /** The {@code id_sequences} table in memory. */
+    private static final class FakeDatabase extends DatabaseService {
+        final Map<String, Long> sequences = new HashMap<>();
+        int reservations;
+
+        @Override
+        public long findOrCreateSequence(String name, long initial) {
+            return sequences.computeIfAbsent(name, n -> initial);
+        }
+
+        @Override
+        public long reserveSequenceFrom(String name, long floor, long count) {
+            reservations++;
+            long start = Math.max(sequences.getOrDefault(name, floor), floor);
+            sequences.put(name, start + count);
+            return start;
+        }
+    }
+
+    private final FakeDatabase db = new FakeDatabase();
+
+    @Test
+    void issuedPnrsAreWellFormedAndDistinctAcrossBlocks() throws SQLException {
+        PnrGenerator generator = new PnrGenerator(db);
+        Set<String> issued = new HashSet<>();
+
+        // A block is a minute of ticks, 61440 PNRs
+        for (int i = 0; i < 70_000; i++) {
+            String pnr = generator.next();
+            assertEquals(PnrGenerator.LENGTH, pnr.length());
+            assertTrue(PnrGenerator.isWellFormed(pnr), pnr);
+            assertTrue(issued.add(pnr), pnr);
+        }
+        assertEquals(2, db.reservations);
+    }
+
+    @Test
+    void restartedGeneratorNeverRepeatsAnEarlierPnr() throws SQLException {
+        Set<String> issued = new HashSet<>();
+        for (int restart = 0; restart < 3; restart++) {
+            PnrGenerator generator = new PnrGenerator(db);
+            for (int i = 0; i < 1_000; i++) {
+                assertTrue(issued.add(generator.next()));
+            }
+        }
+        assertEquals(3, db.reservations);
+        long node = db.sequences.get("pnr_node");
+        assertTrue(node >= 0 && node < 32, "node " + node);
+    }
+
+    @Test
+    void everySingleMistypedCharacterIsCaught() throws SQLException {
+        String pnr = new PnrGenerator(db).next();
+
+        for (int i = 0; i < pnr.length(); i++) {
+            for (char c : ALPHABET.toCharArray()) {
+                if (c != pnr.charAt(i)) {
+                    String typo = pnr.substring(0, i) + c + pnr.substring(i + 1);
+                    assertFalse(PnrGenerator.isWellFormed(typo), typo);
+                }
+            }
+        }
+    }
+
+    @Test
+    void lowerCaseAndLookAlikeLettersAreRead() throws SQLException {
+        String pnr = new PnrGenerator(db).next();
+        String typed = " " + pnr.toLowerCase(Locale.ROOT).replace('0', 'o').replace('1', 'l') + " ";
+
+        assertEquals(pnr, PnrGenerator.normalize(typed));
+        assertTrue(PnrGenerator.isWellFormed(typed));
+    }
+
+    @Test
+    void olderNumericIdsAreAcceptedAndJunkIsNot() {
+        assertTrue(PnrGenerator.isWellFormed("1042"));
+
+        assertFalse(PnrGenerator.isWellFormed(null));
+        assertFalse(PnrGenerator.isWellFormed(" "));
+        assertFalse(PnrGenerator.isWellFormed("10A2"));
+        assertFalse(PnrGenerator.isWellFormed("ABCDEFGHJKM"));
+        assertFalse(PnrGenerator.isWellFormed("ABCDEFGHJU"));
+    }
+}
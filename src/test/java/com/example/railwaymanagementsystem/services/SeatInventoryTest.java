@@ -0,0 +1,216 @@
+package com.example.railwaymanagementsystem.services;
+
+import com.example.railwaymanagementsystem.dao.SeatCount;
+import com.example.railwaymanagementsystem.dao.SqlWork;
+import com.example.railwaymanagementsystem.models.Booking;
+import com.example.railwaymanagementsystem.models.Train;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatInventoryTest {
+    private static final LocalDate DATE = LocalDate.of(2030, 6, 5);
+    private static final String SEAT_CLASS = "Economy";
+
+    /** Seat rows in memory; transactions just run their work. */
+    private static final class FakeDatabase extends DatabaseService {
+        final int capacity;
+        final List<Booking> active = new ArrayList<>();
+        final Map<String, String> promoted = new LinkedHashMap<>();
+        SeatCount saved;
+
+        FakeDatabase(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public Optional<SeatCount> findSeatCount(String trainId, LocalDate travelDate, String seatClass) {
+            return Optional.of(new SeatCount(capacity, 0));
+        }
+
+        @Override
+        public List<Booking> findActiveBookings(String trainId, LocalDate travelDate, String seatClass) {
+            return active;
+        }
+
+        @Override
+        public List<Booking> findWaitlist(String trainId, LocalDate travelDate, String seatClass) {
+            return List.of();
+        }
+
+        @Override
+        public void saveSeatCount(String trainId, LocalDate travelDate, String seatClass, SeatCount count) {
+            saved = count;
+        }
+
+        @Override
+        public void promoteFromWaitlist(Map<String, String> seatNumbersById, LocalDateTime promotedAt) {
+            promoted.putAll(seatNumbersById);
+        }
+
+        @Override
+        public <T> T inTransaction(SqlWork<T> work) throws SQLException {
+            return work.execute(null);
+        }
+    }
+
+    private final Train train = new Train("T1", "101", "Test Express", "Express",
+            "Peshawar - Lahore - Karachi", "On Time");
+
+    private static Booking booking(String id, String from, String to, int seats, LocalDate date) {
+        return new Booking(id, "U1", "T1", "101", "Test Express", from, to, date, seats, SEAT_CLASS,
+                1000.0 * seats, "Pending", LocalDateTime.now());
+    }
+
+    private static Booking booking(String id, String from, String to, int seats) {
+        return booking(id, from, to, seats, DATE);
+    }
+
+    private int available(SeatInventory inventory, LocalDate date) {
+        return inventory.available(train, date, SEAT_CLASS, "Peshawar", "Karachi");
+    }
+
+    @Test
+    void reserveAllSeatsEveryBookingAndSavesOnce() {
+        FakeDatabase db = new FakeDatabase(4);
+        SeatInventory inventory = new SeatInventory(db);
+        Booking first = booking("B1", "Peshawar", "Karachi", 2);
+        Booking second = booking("B2", "Lahore", "Karachi", 1);
+        List<Boolean> saves = new ArrayList<>();
+
+        assertTrue(inventory.reserveAll(List.of(first, second), List.of(train, train), conn -> saves.add(true)));
+
+        assertEquals(List.of(true), saves);
+        assertEquals(2, first.getSeatNumbers().split(", ").length);
+        assertNotNull(CoachLayout.parse(second.getSeatNumbers()));
+        assertEquals(new SeatCount(4, 3), db.saved);
+        assertEquals(1, available(inventory, DATE));
+        assertEquals(2, inventory.available(train, DATE, SEAT_CLASS, "Peshawar", "Lahore"));
+    }
+
+    @Test
+    void reserveAllHoldsNothingIfAnyBookingDoesNotFit() {
+        SeatInventory inventory = new SeatInventory(new FakeDatabase(2));
+        List<Boolean> saves = new ArrayList<>();
+
+        boolean reserved = inventory.reserveAll(
+                List.of(booking("B1", "Peshawar", "Karachi", 1), booking("B2", "Peshawar", "Lahore", 2)),
+                List.of(train, train), conn -> saves.add(true));
+
+        assertFalse(reserved);
+        assertTrue(saves.isEmpty());
+        assertEquals(2, available(inventory, DATE));
+    }
+
+    @Test
+    void reserveAllAcrossRunsHoldsNothingIfOneRunIsFull() {
+        SeatInventory inventory = new SeatInventory(new FakeDatabase(1));
+        LocalDate nextDay = DATE.plusDays(1);
+        assertTrue(inventory.reserveAll(List.of(booking("B0", "Peshawar", "Karachi", 1, nextDay)),
+                List.of(train), conn -> null));
+
+        boolean reserved = inventory.reserveAll(
+                List.of(booking("B1", "Peshawar", "Karachi", 1), booking("B2", "Peshawar", "Karachi", 1, nextDay)),
+                List.of(train, train), conn -> null);
+
+        assertFalse(reserved);
+        assertEquals(1, available(inventory, DATE));
+        assertEquals(0, available(inventory, nextDay));
+    }
+
+    @Test
+    void failedSaveGivesTheSeatsBack() {
+        SeatInventory inventory = new SeatInventory(new FakeDatabase(2));
+
+        boolean reserved = inventory.reserveAll(List.of(booking("B1", "Peshawar", "Karachi", 2)), List.of(train),
+                conn -> {
+                    throw new SQLException("insert failed");
+                });
+
+        assertFalse(reserved);
+        assertEquals(2, available(inventory, DATE));
+    }
+
+    @Test
+    void cancellationPromotesWaitlistInOrder() {
+        FakeDatabase db = new FakeDatabase(2);
+        SeatInventory inventory = new SeatInventory(db);
+        Booking sold = booking("B1", "Peshawar", "Karachi", 2);
+        assertTrue(inventory.reserveAll(List.of(sold), List.of(train), conn -> null));
+        Booking first = booking("W1", "Peshawar", "Karachi", 2);
+        Booking second = booking("W2", "Lahore", "Karachi", 1);
+        assertEquals(1, inventory.enqueue(first, train, conn -> null));
+        assertEquals(2, inventory.enqueue(second, train, conn -> null));
+
+        List<WaitlistPromotion> promoted = inventory.releaseAndPromote(sold, train, conn -> true);
+
+        assertEquals(1, promoted.size());
+        assertSame(first, promoted.get(0).booking());
+        assertEquals(Map.of("W1", promoted.get(0).seatNumbers()), db.promoted);
+        assertEquals(0, inventory.waitlistPosition(first, train));
+        assertEquals(1, inventory.waitlistPosition(second, train));
+        assertEquals(0, available(inventory, DATE));
+    }
+
+    @Test
+    void waitingBookingThatDoesNotFitKeepsItsPlace() {
+        SeatInventory inventory = new SeatInventory(new FakeDatabase(2));
+        Booking cancelled = booking("B1", "Peshawar", "Karachi", 1);
+        assertTrue(inventory.reserveAll(List.of(cancelled, booking("B2", "Peshawar", "Karachi", 1)),
+                List.of(train, train), conn -> null));
+        Booking group = booking("W1", "Peshawar", "Karachi", 2);
+        Booking single = booking("W2", "Peshawar", "Lahore", 1);
+        inventory.enqueue(group, train, conn -> null);
+        inventory.enqueue(single, train, conn -> null);
+
+        List<WaitlistPromotion> promoted = inventory.releaseAndPromote(cancelled, train, conn -> true);
+
+        assertEquals(1, promoted.size());
+        assertSame(single, promoted.get(0).booking());
+        assertEquals(1, inventory.waitlistPosition(group, train));
+    }
+
+    @Test
+    void refusedStatusChangeUndoesReleaseAndPromotions() {
+        FakeDatabase db = new FakeDatabase(1);
+        SeatInventory inventory = new SeatInventory(db);
+        Booking sold = booking("B1", "Peshawar", "Karachi", 1);
+        assertTrue(inventory.reserveAll(List.of(sold), List.of(train), conn -> null));
+        Booking waiting = booking("W1", "Peshawar", "Karachi", 1);
+        inventory.enqueue(waiting, train, conn -> null);
+
+        assertNull(inventory.releaseAndPromote(sold, train, conn -> false));
+
+        assertTrue(db.promoted.isEmpty());
+        assertEquals(0, available(inventory, DATE));
+        assertEquals(1, inventory.waitlistPosition(waiting, train));
+        // The original booking still holds its seat, so cancelling it again works
+        assertEquals(1, inventory.releaseAndPromote(sold, train, conn -> true).size());
+    }
+
+    @Test
+    void editedRouteKeepsHeldSeats() {
+        FakeDatabase db = new FakeDatabase(2);
+        SeatInventory inventory = new SeatInventory(db);
+        assertTrue(inventory.reserveAll(List.of(booking("B1", "Lahore", "Karachi", 1)), List.of(train), conn -> null));
+        Train edited = new Train("T1", "101", "Test Express", "Express",
+                "Peshawar - Lahore - Multan - Karachi", "On Time");
+
+        assertEquals(1, inventory.available(edited, DATE, SEAT_CLASS, "Lahore", "Multan"));
+        assertEquals(2, inventory.available(edited, DATE, SEAT_CLASS, "Peshawar", "Lahore"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.railwaymanagementsystem.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentOccupancyTest {
+    private static final String ROUTE = "Peshawar - Lahore - Multan - Karachi";
+
+    private static SegmentOccupancy run(int capacity) {
+        return new SegmentOccupancy(ROUTE, CoachLayout.SLEEPER, capacity);
+    }
+
+    private static int[] hold(SegmentOccupancy run, String bookingId, String from, String to, int count) {
+        int[] range = run.segmentsBetween(from, to);
+        return run.hold(bookingId, range[0], range[1], count);
+    }
+
+    private static int free(SegmentOccupancy run, String from, String to) {
+        int[] range = run.segmentsBetween(from, to);
+        return run.countFree(range[0], range[1]);
+    }
+
+    @Test
+    void seatFreedAtAStopIsSoldAgainForTheNextLegs() {
+        SegmentOccupancy run = run(1);
+
+        int[] first = hold(run, "A", "Peshawar", "Lahore", 1);
+        assertNotNull(first);
+        assertNull(hold(run, "B", "Peshawar", "Multan", 1));
+        int[] second = hold(run, "C", "Lahore", "Karachi", 1);
+
+        assertArrayEquals(first, second);
+        assertEquals(0, free(run, "Peshawar", "Karachi"));
+    }
+
+    @Test
+    void holdIsAllOrNothing() {
+        SegmentOccupancy run = run(3);
+        assertNotNull(hold(run, "A", "Peshawar", "Karachi", 2));
+
+        assertNull(hold(run, "B", "Lahore", "Multan", 2));
+
+        assertEquals(1, free(run, "Lahore", "Multan"));
+        assertNull(run.release("B"));
+    }
+
+    @Test
+    void releaseFreesOnlyTheBookingsSeatsOnce() {
+        SegmentOccupancy run = run(4);
+        int[] a = hold(run, "A", "Peshawar", "Multan", 2);
+        hold(run, "B", "Lahore", "Karachi", 1);
+        assertEquals(3, run.peakLoad());
+
+        assertArrayEquals(a, run.release("A"));
+        assertNull(run.release("A"));
+
+        assertEquals(4, free(run, "Peshawar", "Lahore"));
+        assertEquals(3, free(run, "Lahore", "Karachi"));
+        assertEquals(1, run.peakLoad());
+        assertEquals(0.25, run.loadFactor());
+    }
+
+    @Test
+    void fillingEverySegmentMakesTheRunFull() {
+        SegmentOccupancy run = run(2);
+        hold(run, "A", "Peshawar", "Karachi", 1);
+        hold(run, "B", "Peshawar", "Lahore", 1);
+        assertFalse(run.isFull());
+
+        hold(run, "C", "Lahore", "Karachi", 1);
+
+        assertTrue(run.isFull());
+        assertEquals(1.0, run.loadFactor());
+    }
+
+    @Test
+    void groupSitsInOneCompartment() {
+        SegmentOccupancy sleeper = run(128);
+        hold(sleeper, "single", "Peshawar", "Karachi", 1);
+
+        int[] group = hold(sleeper, "group", "Peshawar", "Karachi", 4);
+
+        int bay = group[0] / CoachLayout.SLEEPER.compartmentSize();
+        for (int seat : group) {
+            assertEquals(bay, seat / CoachLayout.SLEEPER.compartmentSize());
+        }
+    }
+
+    @Test
+    void holdExactTakesNothingIfAnySeatIsTaken() {
+        SegmentOccupancy run = run(4);
+        int[] taken = hold(run, "A", "Peshawar", "Lahore", 1);
+
+        assertFalse(run.holdExact("B", 0, 3, new int[]{taken[0] == 0 ? 1 : 0, taken[0]}));
+        assertEquals(3, free(run, "Peshawar", "Karachi"));
+
+        assertTrue(run.holdExact("C", 1, 3, taken));
+        assertEquals(3, free(run, "Peshawar", "Karachi"));
+        assertEquals(0.25, run.loadFactor());
+    }
+
+    @Test
+    void stationsOffTheRouteOrReversedCountAsTheWholeRun() {
+        SegmentOccupancy run = run(4);
+
+        assertArrayEquals(new int[]{1, 2}, run.segmentsBetween("lahore", " Multan "));
+        assertArrayEquals(new int[]{0, 3}, run.segmentsBetween("Quetta", "Karachi"));
+        assertArrayEquals(new int[]{0, 3}, run.segmentsBetween("Karachi", "Lahore"));
+    }
+
+    @Test
+    void holdGrowingAddsSeatsWhenFull() {
+        SegmentOccupancy run = run(1);
+        hold(run, "A", "Peshawar", "Karachi", 1);
+
+        assertNotNull(run.holdGrowing("B", 0, 3, 2));
+
+        assertEquals(3, run.capacity());
+        assertEquals(3, run.peakLoad());
+    }
+
+    @Test
+    void carriedHoldsKeepTheirStopsOnAnEditedRoute() {
+        SegmentOccupancy old = run(4);
+        int[] seats = hold(old, "A", "Lahore", "Multan", 2);
+        SegmentOccupancy edited = new SegmentOccupancy("Peshawar - Lahore - Bahawalpur - Multan - Karachi",
+                CoachLayout.SLEEPER, 4);
+
+        old.carryHoldsTo(edited);
+
+        assertEquals(2, edited.countFree(1, 3));
+        assertEquals(4, edited.countFree(0, 1));
+        assertEquals(4, edited.countFree(3, 4));
+        assertArrayEquals(seats, edited.release("A"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.railwaymanagementsystem.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    private static final long TICK = 1_000;
+    private static final long ORIGIN = 1_700_000_000_000L;
+
+    private final TimerWheel<String> wheel = new TimerWheel<>(TICK, ORIGIN);
+
+    @Test
+    void itemsFallDueAtTheirDeadlineAndNotBefore() {
+        wheel.schedule("later", ORIGIN + 5_000);
+        wheel.schedule("sooner", ORIGIN + 2_000);
+
+        assertEquals(List.of(), wheel.advanceTo(ORIGIN + 1_999));
+        assertEquals(List.of("sooner"), wheel.advanceTo(ORIGIN + 2_000));
+        assertEquals(List.of(), wheel.advanceTo(ORIGIN + 4_999));
+        assertEquals(List.of("later"), wheel.advanceTo(ORIGIN + 5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBetweenTicksRoundUp() {
+        wheel.schedule("item", ORIGIN + 2_001);
+
+        assertEquals(List.of(), wheel.advanceTo(ORIGIN + 2_999));
+        assertEquals(List.of("item"), wheel.advanceTo(ORIGIN + 3_000));
+    }
+
+    @Test
+    void pastDeadlinesFallDueOnTheNextTick() {
+        wheel.advanceTo(ORIGIN + 10_000);
+
+        wheel.schedule("overdue", ORIGIN);
+
+        assertEquals(List.of("overdue"), wheel.advanceTo(ORIGIN + 11_000));
+    }
+
+    @Test
+    void cancelledItemsNeverFallDue() {
+        TimerWheel.Timeout<String> cancelled = wheel.schedule("cancelled", ORIGIN + 3_000);
+        TimerWheel.Timeout<String> kept = wheel.schedule("kept", ORIGIN + 3_000);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of("kept"), wheel.advanceTo(ORIGIN + 3_000));
+        assertFalse(wheel.cancel(kept));
+    }
+
+    @Test
+    void longDeadlinesCascadeThroughEveryLevel() {
+        // A minute, an hour, three days and past the wheel's six-month reach
+        long[] seconds = {100, 5_000, 300_000, 20_000_000};
+        for (long s : seconds) {
+            wheel.schedule("at " + s, ORIGIN + s * TICK);
+        }
+        for (long s : seconds) {
+            assertEquals(List.of(), wheel.advanceTo(ORIGIN + (s - 1) * TICK));
+            assertEquals(List.of("at " + s), wheel.advanceTo(ORIGIN + s * TICK));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void oneAdvanceReturnsItemsEarliestFirst() {
+        List<Long> deadlines = new ArrayList<>();
+        Random random = new Random(42);
+        while (deadlines.size() < 500) {
+            long s = 1 + random.nextInt(100_000);
+            if (!deadlines.contains(s)) {
+                deadlines.add(s);
+                wheel.schedule(Long.toString(s), ORIGIN + s * TICK);
+            }
+        }
+        Collections.sort(deadlines);
+
+        List<String> due = wheel.advanceTo(ORIGIN + 100_000 * TICK);
+
+        assertEquals(deadlines.stream().map(String::valueOf).toList(), due);
+    }
+}